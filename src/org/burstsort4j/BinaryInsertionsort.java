@@ -135,6 +135,53 @@ public class BinaryInsertionsort {
         }
     }
 
+    /**
+     * Sorts the specified portion of the array using a binary insertion
+     * sort, as with {@link #sort(CharSequence[], int, int, int)}, but
+     * with the characters in the given order.
+     *
+     * @param  arr    the array in which a range is to be sorted.
+     * @param  low    low offset into the array (inclusive).
+     * @param  high   high offset into the array (exclusive).
+     * @param  depth  offset of first character in each string to compare.
+     * @param  order  the order of the characters.
+     */
+    @SuppressWarnings("fallthrough")
+    public static void sort(CharSequence[] arr, int low, int high, int depth,
+            CharOrder order) {
+        if (order.isNatural() && !order.isDescending()) {
+            sort(arr, low, high, depth);
+            return;
+        }
+        if (arr == null || arr.length < 2 || low < 0 || high <= low || depth < 0) {
+            return;
+        }
+        for (int ii = low; ii < high; ii++) {
+            CharSequence pivot = arr[ii];
+            int left = low;
+            int right = ii;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (order.compare(pivot, arr[mid], depth) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            int count = ii - left;
+            switch (count) {
+                case 2:
+                    arr[left + 2] = arr[left + 1];
+                case 1:
+                    arr[left + 1] = arr[left];
+                    break;
+                default:
+                    System.arraycopy(arr, left, arr, left + 1, count);
+            }
+            arr[left] = pivot;
+        }
+    }
+
     /**
      * Compare two character sequences, starting with the characters at
      * offset <code>depth</code> (assumes the leading characters are the
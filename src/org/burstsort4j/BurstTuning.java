@@ -0,0 +1,378 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * The tuning parameters for the burst trie used by {@link Burstsort} and
+ * {@link RedesignedBurstsort}. The best values depend on the sizes of the
+ * processor caches and on the shape of the data, so they may be measured
+ * for a particular machine using the calibration program in the benchmark
+ * package, which stores the results in a properties file.
+ *
+ * <p>The default parameters are used by those sort methods that are not
+ * given any parameters explicitly. Initially these are the values that
+ * have always been used by the burstsort implementations, unless the
+ * <code>burstsort4j.tuning</code> system property names a properties
+ * file, in which case the parameters are read from that file.</p>
+ *
+ * <p>The burst threshold may vary with the depth of the trie, such that
+ * buckets near the root (whose strings have more characters remaining)
+ * may be given a different size than those further down. The thresholds
+ * are given in order of depth, with the last one applying to all depths
+ * beyond.</p>
+ *
+ * <p>Instances of this class are immutable.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public final class BurstTuning {
+    /** Name of the system property that names the properties file from
+     * which the default parameters are read. */
+    public static final String TUNING_PROPERTY = "burstsort4j.tuning";
+    /** Property key for the burst thresholds (comma-separated). */
+    public static final String THRESHOLD_KEY = "threshold";
+    /** Property key for the initial bucket size. */
+    public static final String BUCKET_START_SIZE_KEY = "bucketStartSize";
+    /** Property key for the bucket growth factor. */
+    public static final String BUCKET_GROWTH_FACTOR_KEY = "bucketGrowthFactor";
+    /** Property key for the size of the sub-buckets. */
+    public static final String SUBBUCKET_THRESHOLD_KEY = "subbucketThreshold";
+    /** The parameters originally used by the burstsort implementations. */
+    public static final BurstTuning ORIGINAL = new BurstTuning(8192, 16, 8, 256);
+    /** The default parameters, used when none are given. */
+    private static volatile BurstTuning defaults = initDefault();
+    /** Maximum number of strings in a bucket, by trie depth. */
+    private final int[] thresholds;
+    /** Initial size for new buckets (and sub-buckets). */
+    private final int bucketStartSize;
+    /** The bucket growth factor. */
+    private final int bucketGrowthFactor;
+    /** Size of the sub-buckets referenced within the bucket index of
+     * the redesigned burstsort. */
+    private final int subbucketThreshold;
+
+    /**
+     * Creates a new instance of BurstTuning with the same threshold
+     * for every depth of the trie.
+     *
+     * @param  threshold           maximum number of strings in a bucket.
+     * @param  bucketStartSize     initial size for new buckets.
+     * @param  bucketGrowthFactor  factor by which buckets are grown.
+     * @param  subbucketThreshold  size of the redesigned sub-buckets.
+     * @throws  IllegalArgumentException  if any value is out of range.
+     */
+    public BurstTuning(int threshold, int bucketStartSize,
+            int bucketGrowthFactor, int subbucketThreshold) {
+        this(new int[]{threshold}, bucketStartSize, bucketGrowthFactor,
+                subbucketThreshold);
+    }
+
+    /**
+     * Creates a new instance of BurstTuning with a threshold for each
+     * depth of the trie, the last of which applies to all greater depths.
+     *
+     * @param  thresholds          maximum number of strings in a bucket,
+     *                             in order of trie depth.
+     * @param  bucketStartSize     initial size for new buckets.
+     * @param  bucketGrowthFactor  factor by which buckets are grown.
+     * @param  subbucketThreshold  size of the redesigned sub-buckets.
+     * @throws  IllegalArgumentException  if any value is out of range.
+     */
+    public BurstTuning(int[] thresholds, int bucketStartSize,
+            int bucketGrowthFactor, int subbucketThreshold) {
+        if (thresholds == null || thresholds.length == 0) {
+            throw new IllegalArgumentException("thresholds must be non-empty");
+        }
+        for (int threshold : thresholds) {
+            if (threshold < 2) {
+                throw new IllegalArgumentException("threshold must be at least 2");
+            }
+        }
+        if (bucketStartSize < 1) {
+            throw new IllegalArgumentException("bucketStartSize must be positive");
+        }
+        if (bucketGrowthFactor < 2) {
+            throw new IllegalArgumentException("bucketGrowthFactor must be at least 2");
+        }
+        if (subbucketThreshold < 1) {
+            throw new IllegalArgumentException("subbucketThreshold must be positive");
+        }
+        this.thresholds = thresholds.clone();
+        this.bucketStartSize = bucketStartSize;
+        this.bucketGrowthFactor = bucketGrowthFactor;
+        this.subbucketThreshold = subbucketThreshold;
+    }
+
+    /**
+     * Determines the initial default parameters, reading them from the
+     * file named by the system property, if any. If that file cannot be
+     * read, the original parameters are used instead.
+     *
+     * @return  initial default parameters.
+     */
+    private static BurstTuning initDefault() {
+        String path = null;
+        try {
+            path = System.getProperty(TUNING_PROPERTY);
+        } catch (SecurityException se) {
+            // fall through to the original parameters
+        }
+        if (path != null) {
+            try {
+                return load(new File(path));
+            } catch (IOException ioe) {
+                System.err.format("Unable to read %s: %s\n", path, ioe);
+            } catch (IllegalArgumentException iae) {
+                System.err.format("Invalid tuning in %s: %s\n", path, iae.getMessage());
+            }
+        }
+        return ORIGINAL;
+    }
+
+    /**
+     * Returns the default parameters, which are used by the sort methods
+     * that are not given any parameters explicitly.
+     *
+     * @return  the default parameters.
+     */
+    public static BurstTuning getDefault() {
+        return defaults;
+    }
+
+    /**
+     * Sets the default parameters, which are used by the sort methods
+     * that are not given any parameters explicitly.
+     *
+     * @param  tuning  the new default parameters.
+     */
+    public static void setDefault(BurstTuning tuning) {
+        if (tuning == null) {
+            throw new NullPointerException("tuning must be non-null");
+        }
+        defaults = tuning;
+    }
+
+    /**
+     * Returns the burst threshold for buckets within a trie node at the
+     * given depth (the root node being at depth zero).
+     *
+     * @param  depth  depth of the trie node.
+     * @return  maximum number of strings in a bucket at that depth.
+     */
+    public int getThreshold(int depth) {
+        return thresholds[Math.min(depth, thresholds.length - 1)];
+    }
+
+    /**
+     * Returns the burst thresholds, in order of trie depth.
+     *
+     * @return  copy of the thresholds.
+     */
+    public int[] getThresholds() {
+        return thresholds.clone();
+    }
+
+    /**
+     * Returns the initial size of new buckets.
+     *
+     * @return  initial bucket size.
+     */
+    public int getBucketStartSize() {
+        return bucketStartSize;
+    }
+
+    /**
+     * Returns the factor by which full buckets are grown.
+     *
+     * @return  bucket growth factor.
+     */
+    public int getBucketGrowthFactor() {
+        return bucketGrowthFactor;
+    }
+
+    /**
+     * Returns the size of the sub-buckets referenced by the bucket index
+     * of the redesigned burstsort.
+     *
+     * @return  sub-bucket size.
+     */
+    public int getSubbucketThreshold() {
+        return subbucketThreshold;
+    }
+
+    /**
+     * Reads the parameters from the given properties. Each key may be
+     * preceded by a prefix, such as the name of a data set, in which case
+     * the key without the prefix is used if the prefixed key is missing.
+     * Any parameter that is not given at all takes its original value.
+     *
+     * @param  props   properties from which to read the parameters.
+     * @param  prefix  prefix for each of the keys (may be empty).
+     * @return  the parameters.
+     * @throws  IllegalArgumentException  if any value is invalid.
+     */
+    public static BurstTuning fromProperties(Properties props, String prefix) {
+        String value = lookup(props, prefix, THRESHOLD_KEY);
+        int[] thresholds = ORIGINAL.thresholds;
+        if (value != null) {
+            String[] parts = value.split(",");
+            thresholds = new int[parts.length];
+            for (int ii = 0; ii < parts.length; ii++) {
+                thresholds[ii] = parseInt(THRESHOLD_KEY, parts[ii]);
+            }
+        }
+        value = lookup(props, prefix, BUCKET_START_SIZE_KEY);
+        int start = value == null ? ORIGINAL.bucketStartSize
+                : parseInt(BUCKET_START_SIZE_KEY, value);
+        value = lookup(props, prefix, BUCKET_GROWTH_FACTOR_KEY);
+        int growth = value == null ? ORIGINAL.bucketGrowthFactor
+                : parseInt(BUCKET_GROWTH_FACTOR_KEY, value);
+        value = lookup(props, prefix, SUBBUCKET_THRESHOLD_KEY);
+        int sub = value == null ? ORIGINAL.subbucketThreshold
+                : parseInt(SUBBUCKET_THRESHOLD_KEY, value);
+        return new BurstTuning(thresholds, start, growth, sub);
+    }
+
+    /**
+     * Reads the parameters from the given properties, using the keys
+     * without any prefix.
+     *
+     * @param  props  properties from which to read the parameters.
+     * @return  the parameters.
+     * @throws  IllegalArgumentException  if any value is invalid.
+     */
+    public static BurstTuning fromProperties(Properties props) {
+        return fromProperties(props, "");
+    }
+
+    /**
+     * Finds the value for the key, trying the prefixed key first.
+     *
+     * @param  props   properties from which to read the value.
+     * @param  prefix  prefix for the key.
+     * @param  key     the key.
+     * @return  the value, or null if not found.
+     */
+    private static String lookup(Properties props, String prefix, String key) {
+        String value = props.getProperty(prefix + key);
+        if (value == null) {
+            value = props.getProperty(key);
+        }
+        return value;
+    }
+
+    /**
+     * Parses an integer parameter value.
+     *
+     * @param  key    the key for the parameter.
+     * @param  value  the value to be parsed.
+     * @return  the integer value.
+     * @throws  IllegalArgumentException  if the value is not an integer.
+     */
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException(String.format(
+                    "%s has invalid value '%s'", key, value), nfe);
+        }
+    }
+
+    /**
+     * Writes these parameters to the given properties, with each key
+     * preceded by the given prefix.
+     *
+     * @param  props   properties to which the parameters are written.
+     * @param  prefix  prefix for each of the keys (may be empty).
+     */
+    public void toProperties(Properties props, String prefix) {
+        StringBuilder sb = new StringBuilder();
+        for (int threshold : thresholds) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(threshold);
+        }
+        props.setProperty(prefix + THRESHOLD_KEY, sb.toString());
+        props.setProperty(prefix + BUCKET_START_SIZE_KEY, String.valueOf(bucketStartSize));
+        props.setProperty(prefix + BUCKET_GROWTH_FACTOR_KEY, String.valueOf(bucketGrowthFactor));
+        props.setProperty(prefix + SUBBUCKET_THRESHOLD_KEY, String.valueOf(subbucketThreshold));
+    }
+
+    /**
+     * Reads the parameters from the named properties file.
+     *
+     * @param  file  properties file to be read.
+     * @return  the parameters.
+     * @throws  IOException  if the file could not be read.
+     * @throws  IllegalArgumentException  if any value is invalid.
+     */
+    public static BurstTuning load(File file) throws IOException {
+        Properties props = new Properties();
+        InputStream is = new FileInputStream(file);
+        try {
+            props.load(is);
+        } finally {
+            is.close();
+        }
+        return fromProperties(props);
+    }
+
+    /**
+     * Writes these parameters to the named properties file, replacing
+     * any existing content.
+     *
+     * @param  file      properties file to be written.
+     * @param  comments  description of the parameters, or null if none.
+     * @throws  IOException  if the file could not be written.
+     */
+    public void store(File file, String comments) throws IOException {
+        Properties props = new Properties();
+        toProperties(props, "");
+        OutputStream os = new FileOutputStream(file);
+        try {
+            props.store(os, comments);
+        } finally {
+            os.close();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof BurstTuning) {
+            BurstTuning bt = (BurstTuning) o;
+            return Arrays.equals(thresholds, bt.thresholds)
+                    && bucketStartSize == bt.bucketStartSize
+                    && bucketGrowthFactor == bt.bucketGrowthFactor
+                    && subbucketThreshold == bt.subbucketThreshold;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(thresholds);
+        hash = 31 * hash + bucketStartSize;
+        hash = 31 * hash + bucketGrowthFactor;
+        return 31 * hash + subbucketThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("threshold=%s, bucketStartSize=%d, bucketGrowthFactor=%d, subbucketThreshold=%d",
+                Arrays.toString(thresholds), bucketStartSize, bucketGrowthFactor,
+                subbucketThreshold);
+    }
+}
@@ -7,12 +7,18 @@ package org.burstsort4j;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Stack;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Array-based implementation of the original Burstsort, now referred
@@ -20,23 +26,43 @@ import java.util.concurrent.TimeUnit;
  * implementations, designed to take advantage of multiple CPU cores,
  * if available.
  *
+ * <p>The full range of UTF-16 code units is supported. Each trie node
+ * has a dense table for the Latin-1 characters, while characters above
+ * U+00FF are held in pages that are allocated only when needed, such
+ * that the trie does not grow to a 64K-wide table per node.</p>
+ *
  * @author Nathan Fiedler
  */
 public class Burstsort {
     /** Null terminator character. */
     private static final char NULLTERM = '\0';
-    /** Maximum number of elements in any given bucket; for null bucket set,
-     * this is the size of each of the chained buckets). */
-    private static final short THRESHOLD = 8192;
+    /** Size of each of the chained buckets in the null bucket set. */
+    private static final short NULLBUCKET_SIZE = 8192;
     /** Used to store reference to next bucket in last cell of bucket. */
-    private static final short THRESHOLDMINUSONE = THRESHOLD - 1;
-    /** Size of the alphabet that is supported. */
+    private static final short NULLBUCKET_SIZEMINUSONE = NULLBUCKET_SIZE - 1;
+    /** Size of the alphabet held directly in each trie node (Latin-1);
+     * the remaining characters are held in pages of the same size. */
     private static final short ALPHABET = 256;
-    /** Initial size for new buckets. */
-    private static final short BUCKET_START_SIZE = 16;
-    /** The bucket growth factor (replaces the bucket_inc array in the
-     * original C implementation). */
-    private static final short BUCKET_GROWTH_FACTOR = 8;
+    /** Number of bits in the character offset within a page. */
+    private static final int PAGE_SHIFT = 8;
+    /** Number of pages needed to cover all UTF-16 code units. */
+    private static final int PAGES = 256;
+    /** Size of the complete character set (all UTF-16 code units). */
+    private static final int CHARSET = ALPHABET * PAGES;
+    /** Capacity of the smallest sparse trie nodes. */
+    private static final int SMALL_NODE = 4;
+    /** Capacity of the larger sparse trie nodes. */
+    private static final int LARGE_NODE = 16;
+    /** Capacity of the indexed trie nodes. */
+    private static final int INDEXED_NODE = 48;
+    /** Capacity of each kind of trie node, from smallest to largest. */
+    private static final int[] NODE_SIZES = {
+        SMALL_NODE, LARGE_NODE, INDEXED_NODE, ALPHABET
+    };
+    /** Kind of the indexed trie nodes. */
+    private static final int INDEXED_KIND = 2;
+    /** Kind of the dense trie nodes. */
+    private static final int DENSE_KIND = 3;
 
     /**
      * Creates a new instance of Burstsort.
@@ -47,14 +73,32 @@ public class Burstsort {
     /**
      * Retrieve the character in string s at offset d. If d is greater
      * than or equal to the length of the string, return zero. This
-     * simulates fixed-length strings that are zero-padded.
+     * simulates fixed-length strings that are zero-padded. If a table of
+     * ranks is given, the rank of the character is returned instead.
      *
-     * @param  s  string.
-     * @param  d  offset.
-     * @return  character in s at d, or zero.
+     * @param  s      string.
+     * @param  d      offset.
+     * @param  ranks  rank of each character, or null for natural order.
+     * @return  character (or its rank) in s at d, or zero.
      */
-    private static char charAt(CharSequence s, int d) {
-        return d < s.length() ? s.charAt(d) : NULLTERM;
+    private static char charAt(CharSequence s, int d, char[] ranks) {
+        if (d < s.length()) {
+            char c = s.charAt(d);
+            return ranks == null ? c : ranks[c];
+        }
+        return NULLTERM;
+    }
+
+    /**
+     * Returns the rank of the given character, or the character itself
+     * if there is no table of ranks.
+     *
+     * @param  c      character.
+     * @param  ranks  rank of each character, or null for natural order.
+     * @return  rank of the character.
+     */
+    private static char rank(char c, char[] ranks) {
+        return ranks == null ? c : ranks[c];
     }
 
     /**
@@ -63,43 +107,176 @@ public class Burstsort {
      *
      * @param  root     root of the structure.
      * @param  strings  strings to be inserted.
+     * @param  ranks    rank of each character, or null for natural order.
      */
-    private static void insert(Node root, CharSequence[] strings) {
-        for (int i = 0; i < strings.length; i++) {
+    private static void insert(Node root, CharSequence[] strings, char[] ranks) {
+        insert(root, strings, 0, strings.length, 0, ranks, false);
+    }
+
+    /**
+     * Inserts a range of strings into the burst trie structure, all of
+     * which share a common prefix of the given length, in preparation
+     * for in-order traversal (hence sorting).
+     *
+     * @param  root     root of the (sub-)trie for the common prefix.
+     * @param  strings  strings to be inserted.
+     * @param  from     first position to insert (inclusive).
+     * @param  to       last position to insert (exclusive).
+     * @param  depth    length of the common prefix.
+     * @param  ranks    rank of each character, or null for natural order.
+     * @param  distinct  if true, only the first of the strings that end
+     *                   at the same node is stored, the others counted.
+     */
+    private static void insert(Node root, CharSequence[] strings, int from,
+            int to, int depth, char[] ranks, boolean distinct) {
+        for (int i = from; i < to; i++) {
             // Start at root each time
             Node curr = root;
             // Locate trie node in which to insert string
-            int p = 0;
-            char c = charAt(strings[i], p);
-            while (curr.size(c) < 0) {
-                curr = (Node) curr.get(c);
+            int p = depth;
+            char c = charAt(strings[i], p, ranks);
+            Node child;
+            while ((child = curr.child(c)) != null) {
                 p++;
-                c = charAt(strings[i], p);
+                if (child.skip > 0) {
+                    // Follow the compressed path, splitting it if the
+                    // string diverges part way along.
+                    int m = child.match(strings[i], p, ranks);
+                    if (m < child.skip) {
+                        child = child.split(curr, c, m, ranks);
+                    }
+                    p += m;
+                }
+                curr = child;
+                c = charAt(strings[i], p, ranks);
             }
-            curr.add(c, strings[i]);
-            // is bucket size above the THRESHOLD?
-            while (curr.size(c) >= THRESHOLD && c != NULLTERM) {
+            if (distinct && c == NULLTERM && curr.size(c) > 0) {
+                // An equal string is already in the null bucket.
+                curr.repeat();
+                continue;
+            }
+            int size = curr.add(c, strings[i]);
+            // is bucket size above the threshold?
+            while (size >= curr.threshold && c != NULLTERM) {
                 // advance depth of character
                 p++;
-                // allocate memory for new trie node
-                Node newt = new Node();
-                // burst...
-                char cc = NULLTERM;
                 CharSequence[] ptrs = (CharSequence[]) curr.get(c);
-                int size = curr.size(c);
+                // skip over the characters shared by every string, such
+                // that a single node replaces a chain of nodes
+                int skip = prefix(ptrs, size, p, ranks);
+                p += skip;
+                // access the next depth character of each string
+                BurstsortContext context = curr.context;
+                char[] next = context.chars(size);
+                int fanout = fanout(ptrs, size, p, next, context.seen(), ranks);
+                // allocate memory for new trie node, sized according
+                // to the number of distinct characters that follow
+                Node newt = newNode(context, p, fanout);
+                if (skip > 0) {
+                    newt.label = ptrs[0];
+                    newt.skip = skip;
+                }
+                // burst...
                 for (int j = 0; j < size; j++) {
-                    // access the next depth character
-                    cc = charAt(ptrs[j], p);
-                    newt.add(cc, ptrs[j]);
+                    newt.add(next[j], ptrs[j]);
                 }
                 // old pointer points to the new trie node
                 curr.set(c, newt);
+                context.releaseBucket(ptrs, size);
                 // used to burst recursive, so point curr to new
                 curr = newt;
                 // point to character used in previous string
-                c = cc;
+                c = next[size - 1];
+                size = curr.size(c);
+            }
+        }
+    }
+
+    /**
+     * Finds the number of characters, starting at the given offset, that
+     * are shared by all of the strings in a bucket. The null character is
+     * never shared, as it marks the end of a string.
+     *
+     * @param  bucket  strings of the bucket.
+     * @param  size    number of strings in the bucket.
+     * @param  d       offset of the first character to examine.
+     * @param  ranks   rank of each character, or null for natural order.
+     * @return  length of the shared prefix.
+     */
+    private static int prefix(CharSequence[] bucket, int size, int d,
+            char[] ranks) {
+        CharSequence first = bucket[0];
+        int limit = first.length() - d;
+        for (int j = 1; j < size && limit > 0; j++) {
+            CharSequence s = bucket[j];
+            int n = Math.min(limit, s.length() - d);
+            int m = 0;
+            if (ranks == null) {
+                while (m < n && s.charAt(d + m) == first.charAt(d + m)
+                        && first.charAt(d + m) != NULLTERM) {
+                    m++;
+                }
+            } else {
+                while (m < n && ranks[s.charAt(d + m)] == ranks[first.charAt(d + m)]
+                        && first.charAt(d + m) != NULLTERM) {
+                    m++;
+                }
             }
+            limit = m;
         }
+        return Math.max(limit, 0);
+    }
+
+    /**
+     * Collects the character at the given offset within each string of a
+     * bucket, counting the number of distinct (non-null, Latin-1)
+     * characters along the way.
+     *
+     * @param  bucket  strings of the bucket.
+     * @param  size    number of strings in the bucket.
+     * @param  d       offset of the character to examine.
+     * @param  chars   receives the character of each string.
+     * @param  seen    cleared set of the Latin-1 characters.
+     * @param  ranks   rank of each character, or null for natural order.
+     * @return  number of distinct characters.
+     */
+    private static int fanout(CharSequence[] bucket, int size, int d,
+            char[] chars, long[] seen, char[] ranks) {
+        int fanout = 0;
+        for (int j = 0; j < size; j++) {
+            char c = charAt(bucket[j], d, ranks);
+            chars[j] = c;
+            if (c != NULLTERM && c < ALPHABET) {
+                long bit = 1L << c;
+                if ((seen[c >>> 6] & bit) == 0) {
+                    seen[c >>> 6] |= bit;
+                    fanout++;
+                }
+            }
+        }
+        return fanout;
+    }
+
+    /**
+     * Creates a trie node with a table suited to the expected number of
+     * characters, reusing a node held by the context if possible.
+     *
+     * @param  context  context in which the node is allocated.
+     * @param  depth    offset of the character indexing the node.
+     * @param  fanout   expected number of (Latin-1) characters.
+     * @return  the new node.
+     */
+    private static Node newNode(BurstsortContext context, int depth, int fanout) {
+        int kind = 0;
+        while (kind < DENSE_KIND && fanout > NODE_SIZES[kind]) {
+            kind++;
+        }
+        Node node = (Node) context.node(kind, NODE_SIZES[kind]);
+        if (node == null) {
+            node = new Node(kind);
+        }
+        node.init(context, depth);
+        return node;
     }
 
     /**
@@ -108,7 +285,259 @@ public class Burstsort {
      * @param  strings  array of strings to be sorted.
      */
     public static void sort(CharSequence[] strings) {
-        sort(strings, null);
+        sort(strings, BurstTuning.getDefault(), null);
+    }
+
+    /**
+     * Determines the order of the given strings using the original
+     * (P-)burstsort algorithm, without moving the strings. The result is
+     * a permutation such that <code>strings[result[0]]</code> is the
+     * smallest string, <code>strings[result[1]]</code> the next smallest,
+     * and so on. The order of the indices of equal strings is not defined.
+     *
+     * <p>This is useful when the strings are the key for other arrays of
+     * data (e.g. the columns of a table), each of which may then be put
+     * in order using the same permutation. Each string is carried through
+     * the trie and buckets along with its index.</p>
+     *
+     * @param  strings  array of strings to be ordered.
+     * @return  indices of the strings in sorted order, or null if the
+     *          strings array is null.
+     */
+    public static int[] sortIndices(CharSequence[] strings) {
+        if (strings == null) {
+            return null;
+        }
+        CharSequence[] keys = IndexedKey.wrap(strings);
+        sort(keys, BurstTuning.getDefault(), null);
+        return IndexedKey.indices(keys);
+    }
+
+    /**
+     * Sorts the set of strings using the original (P-)burstsort algorithm,
+     * keeping only one of each group of equal strings, and counting the
+     * number of times each string occurs. The distinct strings are placed
+     * at the start of the array, in sorted order, with the remainder of
+     * the array set to null. If a counts array is given, then the number
+     * of occurrences of the string at each position is stored at the
+     * same position in the counts array.
+     *
+     * <p>The duplicates are collapsed as the trie is built, such that a
+     * string that ends at a trie node is stored only once no matter how
+     * often it occurs, and the duplicates within each bucket are collapsed
+     * as the bucket is sorted. As with the other sorts, a null character
+     * is taken to end the string.</p>
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  counts   receives the number of occurrences of each of the
+     *                  distinct strings (may be null).
+     * @return  number of distinct strings.
+     * @throws  IllegalArgumentException  if counts is shorter than strings.
+     */
+    public static int sortDistinct(CharSequence[] strings, int[] counts) {
+        if (strings == null) {
+            return 0;
+        }
+        if (counts != null && counts.length < strings.length) {
+            throw new IllegalArgumentException("counts must be at least as long as strings");
+        }
+        if (strings.length < 2) {
+            if (strings.length == 1 && counts != null) {
+                counts[0] = 1;
+            }
+            return strings.length;
+        }
+        Node root = newNode(new BurstsortContext(BurstTuning.getDefault(), 0), 0, ALPHABET);
+        insert(root, strings, 0, strings.length, 0, null, true);
+        int n = traverseDistinct(root, strings, counts, 0, 0);
+        Arrays.fill(strings, n, strings.length, null);
+        return n;
+    }
+
+    /**
+     * Puts the <em>k</em> smallest strings at the start of the array, in
+     * sorted order, using the original (P-)burstsort algorithm. The rest
+     * of the strings follow in no particular order. This is a partial
+     * sort: the trie is built as usual, but it is traversed in order only
+     * until <em>k</em> strings have been placed, after which the remaining
+     * buckets are copied to the array without being sorted.
+     *
+     * @param  strings  array of strings to be partially sorted.
+     * @param  k        number of strings to be put in order.
+     * @throws  IllegalArgumentException  if k is negative.
+     */
+    public static void sortTopK(CharSequence[] strings, int k) {
+        sortTopK(strings, k, CharOrder.NATURAL);
+    }
+
+    /**
+     * Puts the first <em>k</em> strings in the given order at the start
+     * of the array, in that order, as with
+     * {@link #sortTopK(CharSequence[], int)}. If the order is descending,
+     * the result is the <em>k</em> largest strings, largest first; the
+     * trie is then traversed from its last entry to its first, so the
+     * same early termination applies.
+     *
+     * @param  strings  array of strings to be partially sorted.
+     * @param  k        number of strings to be put in order.
+     * @param  order    the order of the characters.
+     * @throws  IllegalArgumentException  if k is negative.
+     */
+    public static void sortTopK(CharSequence[] strings, int k, CharOrder order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative");
+        }
+        if (strings != null && strings.length > 1 && k > 0) {
+            Node root = newNode(new BurstsortContext(BurstTuning.getDefault(), 0), 0, ALPHABET);
+            insert(root, strings, order.ranks);
+            traverseTopK(root, strings, 0, 0, Math.min(k, strings.length),
+                    order.ascending(), order.isDescending());
+        }
+    }
+
+    /**
+     * Returns an iterator over the given strings in sorted order, using
+     * the original (P-)burstsort algorithm. The trie is built at once,
+     * but each bucket is sorted only when the iterator reaches it, such
+     * that the first strings are available after the time to build the
+     * trie plus the time to sort one bucket. The array itself is not
+     * modified.
+     *
+     * @param  strings  array of strings to be iterated in sorted order.
+     * @return  iterator over the sorted strings.
+     */
+    public static Iterator<CharSequence> iterator(CharSequence[] strings) {
+        return iterator(strings, null, 0);
+    }
+
+    /**
+     * Returns an iterator over the given strings in sorted order, as with
+     * {@link #iterator(CharSequence[])}, which also sorts up to the given
+     * number of buckets ahead of the iterator using the executor. If the
+     * iterator reaches a bucket that the executor has not yet sorted, the
+     * bucket is sorted by the calling thread. The executor is not shut
+     * down by the iterator.
+     *
+     * @param  strings   array of strings to be iterated in sorted order.
+     * @param  executor  runs the bucket sorts ahead of the iterator (may
+     *                   be null, in which case ahead is ignored).
+     * @param  ahead     number of buckets to sort in advance.
+     * @return  iterator over the sorted strings.
+     * @throws  IllegalArgumentException  if ahead is negative.
+     */
+    public static Iterator<CharSequence> iterator(CharSequence[] strings,
+            Executor executor, int ahead) {
+        if (ahead < 0) {
+            throw new IllegalArgumentException("ahead must be non-negative");
+        }
+        if (strings == null) {
+            return Collections.<CharSequence>emptyList().iterator();
+        }
+        Node root = newNode(new BurstsortContext(BurstTuning.getDefault(), 0), 0, ALPHABET);
+        insert(root, strings, null);
+        List<Bucket> buckets = new ArrayList<Bucket>();
+        collect(root, buckets);
+        return new TrieIterator(buckets, ahead > 0 ? executor : null, ahead);
+    }
+
+    /**
+     * Sorts the given objects by their string keys using the original
+     * (P-)burstsort algorithm. The key of each object is extracted once,
+     * and carried through the trie and buckets along with the position
+     * of the object, which is then put in its final place. The order of
+     * objects with equal keys is not defined.
+     *
+     * @param  <T>        type of the objects.
+     * @param  items      array of objects to be sorted.
+     * @param  extractor  provides the key for each object.
+     * @throws  NullPointerException  if the key of any object is null.
+     */
+    public static <T> void sort(T[] items, KeyExtractor<? super T> extractor) {
+        if (items != null && items.length > 1) {
+            CharSequence[] keys = IndexedKey.extract(items, extractor);
+            sort(keys, BurstTuning.getDefault(), null);
+            IndexedKey.reorder(items, keys);
+        }
+    }
+
+    /**
+     * Sorts the set of strings using the original (P-)burstsort algorithm,
+     * and at the same time sets <code>lcp[i]</code> to the length of the
+     * longest common prefix of <code>strings[i - 1]</code> and
+     * <code>strings[i]</code>, with <code>lcp[0]</code> set to zero.
+     * Neighbouring strings from different entries of a trie node share
+     * exactly the depth of that node, and the buckets yield their own
+     * values as they are sorted, so the characters are not examined in a
+     * separate pass.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  lcp      receives the longest common prefix lengths.
+     * @throws  IllegalArgumentException  if lcp is shorter than strings.
+     */
+    public static void sort(CharSequence[] strings, int[] lcp) {
+        if (strings == null) {
+            return;
+        }
+        if (lcp.length < strings.length) {
+            throw new IllegalArgumentException("lcp must be at least as long as strings");
+        }
+        if (strings.length > 0) {
+            lcp[0] = 0;
+        }
+        if (strings.length > 1) {
+            Node root = newNode(new BurstsortContext(BurstTuning.getDefault(), 0), 0, ALPHABET);
+            insert(root, strings, null);
+            traverse(root, strings, 0, 0, false, CharOrder.NATURAL, lcp);
+        }
+    }
+
+    /**
+     * Sorts the set of strings using the original (P-)burstsort algorithm,
+     * with the characters in the given order (e.g. case-insensitive). The
+     * trie is indexed by the rank of each character, so the strings are
+     * put in order without making altered copies of them.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  order    the order of the characters.
+     */
+    public static void sort(CharSequence[] strings, CharOrder order) {
+        sort(strings, new BurstsortContext(BurstTuning.getDefault(), 0), null,
+                false, order);
+    }
+
+    /**
+     * Sorts the set of strings using the original (P-)burstsort algorithm,
+     * such that equal strings remain in the order in which they were given
+     * (which matters only when the character sequences carry more than
+     * their characters). The trie already preserves the input order within
+     * each bucket, so the buckets are sorted by a stable LCP mergesort
+     * in place of multikey quicksort.
+     *
+     * @param  strings  array of strings to be sorted.
+     */
+    public static void sortStable(CharSequence[] strings) {
+        sort(strings, new BurstsortContext(BurstTuning.getDefault(), 0), null,
+                true, CharOrder.NATURAL);
+    }
+
+    /**
+     * Sorts the given objects by their string keys, as with
+     * {@link #sort(Object[], KeyExtractor)}, such that objects with equal
+     * keys remain in the order in which they were given. This allows for
+     * sorting by several keys in turn, from the least significant to the
+     * most significant.
+     *
+     * @param  <T>        type of the objects.
+     * @param  items      array of objects to be sorted.
+     * @param  extractor  provides the key for each object.
+     * @throws  NullPointerException  if the key of any object is null.
+     */
+    public static <T> void sortStable(T[] items, KeyExtractor<? super T> extractor) {
+        if (items != null && items.length > 1) {
+            CharSequence[] keys = IndexedKey.extract(items, extractor);
+            sortStable(keys);
+            IndexedKey.reorder(items, keys);
+        }
     }
 
     /**
@@ -120,90 +549,476 @@ public class Burstsort {
      * @param  out      if non-null, metrics are printed here.
      */
     public static void sort(CharSequence[] strings, PrintStream out) {
+        sort(strings, BurstTuning.getDefault(), out);
+    }
+
+    /**
+     * Sorts the set of strings using the original (P-)burstsort algorithm,
+     * with the given tuning parameters for the trie structure. If the
+     * given output stream is non-null, then metrics regarding the trie
+     * structure will be printed there.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  tuning   parameters for the burst trie.
+     * @param  out      if non-null, metrics are printed here.
+     */
+    public static void sort(CharSequence[] strings, BurstTuning tuning,
+            PrintStream out) {
+        sort(strings, new BurstsortContext(tuning, 0), out, false, CharOrder.NATURAL);
+    }
+
+    /**
+     * Sorts the set of strings using the original (P-)burstsort algorithm,
+     * taking the trie nodes and buckets from the given context, to which
+     * they are returned once the sort is complete. Sorting many similar
+     * sets of strings with the same context avoids allocating new memory
+     * for each sort.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  context  holds the trie storage between sorts.
+     * @throws  IllegalStateException  if the context is already in use.
+     */
+    public static void sort(CharSequence[] strings, BurstsortContext context) {
+        sort(strings, context, null, false, CharOrder.NATURAL);
+    }
+
+    /**
+     * Sorts the set of strings using the original (P-)burstsort algorithm,
+     * with storage from the given context, optionally printing metrics.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  context  holds the trie storage between sorts.
+     * @param  out      if non-null, metrics are printed here.
+     * @param  stable   true to keep equal strings in their input order.
+     * @param  order    the order of the characters.
+     */
+    private static void sort(CharSequence[] strings, BurstsortContext context,
+            PrintStream out, boolean stable, CharOrder order) {
         if (strings != null && strings.length > 1) {
-            Node root = new Node();
-            insert(root, strings);
-            if (out != null) {
-                writeMetrics(root, out);
+            context.acquire();
+            try {
+                Node root = newNode(context, 0, ALPHABET);
+                insert(root, strings, order.ranks);
+                if (out != null) {
+                    writeMetrics(root, out);
+                }
+                traverse(root, strings, 0, 0, stable, order.ascending(), null);
+            } finally {
+                context.release();
+            }
+            if (order.isDescending()) {
+                MultikeyQuicksort.reverse(strings, 0, strings.length);
             }
-            traverse(root, strings, 0, 0);
         }
     }
 
     /**
-     * Uses all available processors to sort the trie buckets in parallel,
-     * thus sorting the overal set of strings in less time. Uses a simple
-     * ThreadPoolExecutor with a maximum pool size equal to the number of
-     * available processors (usually equivalent to the number of CPU cores).
+     * Uses all available processors to build the trie and sort the trie
+     * buckets in parallel, thus sorting the overal set of strings in less
+     * time. The work is performed by a fork/join pool that is shared by
+     * all of the sorts, sized to the number of available processors
+     * (usually equivalent to the number of CPU cores), with the calling
+     * thread taking part.
      *
      * @param  strings  array of strings to be sorted.
      * @throws  InterruptedException  if waiting thread was interrupted.
      */
     public static void sortThreadPool(CharSequence[] strings) throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.shared(), BurstTuning.getDefault());
+    }
+
+    /**
+     * Sorts the given objects by their string keys in parallel, using
+     * the shared fork/join pool as with
+     * {@link #sortThreadPool(CharSequence[])}. The keys are extracted
+     * once, as with {@link #sort(Object[], KeyExtractor)}.
+     *
+     * @param  <T>        type of the objects.
+     * @param  items      array of objects to be sorted.
+     * @param  extractor  provides the key for each object.
+     * @throws  NullPointerException  if the key of any object is null.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static <T> void sortThreadPool(T[] items, KeyExtractor<? super T> extractor)
+            throws InterruptedException {
+        if (items != null && items.length > 1) {
+            CharSequence[] keys = IndexedKey.extract(items, extractor);
+            sortThreadPool(keys, ForkJoinEngine.shared(), BurstTuning.getDefault());
+            IndexedKey.reorder(items, keys);
+        }
+    }
+
+    /**
+     * Sorts the strings in parallel using the shared fork/join pool, as
+     * with {@link #sortThreadPool(CharSequence[])}, but with the given
+     * tuning parameters for the trie structure.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  tuning   parameters for the burst trie.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static void sortThreadPool(CharSequence[] strings, BurstTuning tuning)
+            throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.shared(), tuning);
+    }
+
+    /**
+     * Sorts the strings in parallel using the shared fork/join pool, as
+     * with {@link #sortThreadPool(CharSequence[])}, but with at most the
+     * given number of threads, including the calling thread.
+     *
+     * @param  strings      array of strings to be sorted.
+     * @param  parallelism  maximum number of threads to use.
+     * @throws  IllegalArgumentException  if parallelism is less than one.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static void sortThreadPool(CharSequence[] strings, int parallelism)
+            throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.create(parallelism),
+                BurstTuning.getDefault());
+    }
+
+    /**
+     * Sorts the strings in parallel using the given fork/join pool, with
+     * the calling thread taking part in the work. The number of threads
+     * is the parallelism of the pool.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  pool     the fork/join pool in which to run the jobs.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static void sortThreadPool(CharSequence[] strings, ForkJoinPool pool)
+            throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.create(pool),
+                BurstTuning.getDefault());
+    }
+
+    /**
+     * Sorts the strings in parallel using the given executor, with the
+     * calling thread taking part in the work. The executor is not shut
+     * down by this method.
+     *
+     * @param  strings   array of strings to be sorted.
+     * @param  executor  the executor with which to run the jobs.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static void sortThreadPool(CharSequence[] strings, Executor executor)
+            throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.create(executor),
+                BurstTuning.getDefault());
+    }
+
+    /**
+     * Builds the trie and sorts the trie buckets using the given engine.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  engine   engine with which to run the jobs.
+     * @param  tuning   parameters for the burst trie.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    private static void sortThreadPool(CharSequence[] strings, ForkJoinEngine engine,
+            BurstTuning tuning) throws InterruptedException {
         if (strings != null && strings.length > 1) {
-            Node root = new Node();
-            insert(root, strings);
-            List<Callable<Object>> jobs = new ArrayList<Callable<Object>>();
-            traverseParallel(root, strings, 0, 0, jobs);
-            ExecutorService executor = Executors.newFixedThreadPool(
-                    Runtime.getRuntime().availableProcessors());
-            // Using ExecutorService.invokeAll() usually adds more time.
-            for (Callable<Object> job : jobs) {
-                executor.submit(job);
+            Node root = newNode(new BurstsortContext(tuning, 0), 0, ALPHABET);
+            int pos = 0;
+            if (strings.length < tuning.getThreshold(0) || engine.getParallelism() < 2) {
+                // Too few strings or threads to build in parallel.
+                insert(root, strings, null);
+            } else {
+                pos = insertParallel(root, strings, engine);
             }
-            executor.shutdown();
-            executor.awaitTermination(1, TimeUnit.DAYS);
+            List<JobScheduler.Job> jobs = new ArrayList<JobScheduler.Job>();
+            traverseParallel(root, strings, pos, 0, jobs);
+            // Combine the many small jobs into balanced work units.
+            engine.run(JobScheduler.pack(jobs, engine));
         }
     }
 
+    /**
+     * Builds the trie structure using multiple threads. The strings are
+     * first grouped by their leading character, in parallel, and then a
+     * sub-trie is built for each group by a separate job. Any group that
+     * is too large for one thread is divided again by the second
+     * character. The empty strings are moved directly to the start of
+     * the array, as they need no further processing.
+     *
+     * @param  root     root of the structure.
+     * @param  strings  strings to be inserted.
+     * @param  engine   engine with which to run the jobs.
+     * @return  number of empty strings moved to the start of the array.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    private static int insertParallel(Node root, CharSequence[] strings,
+            ForkJoinEngine engine) throws InterruptedException {
+        CharSequence[] scratch = new CharSequence[strings.length];
+        int[] offsets = Partitioner.partition(strings, scratch, 0, engine);
+        int consumed = offsets[1];
+        System.arraycopy(scratch, 0, strings, 0, consumed);
+        int limit = Math.max(root.threshold, strings.length / engine.getParallelism());
+        List<InsertJob> jobs = new ArrayList<InsertJob>();
+        for (int c = 1; c < CHARSET; c++) {
+            int from = offsets[c];
+            int to = offsets[c + 1];
+            if (to - from > limit) {
+                // Every string is now in the scratch array, so this range
+                // of the input can receive the second level of grouping.
+                int[] subsets = Partitioner.partition(scratch, strings, from, to, 1);
+                Node child = newNode(root.context, 1, ALPHABET);
+                for (int i = subsets[0]; i < subsets[1]; i++) {
+                    child.add(NULLTERM, strings[i]);
+                }
+                for (int cc = 1; cc < CHARSET; cc++) {
+                    if (subsets[cc + 1] > subsets[cc]) {
+                        jobs.add(new InsertJob(child, cc, strings,
+                                subsets[cc], subsets[cc + 1], 2));
+                    }
+                }
+                root.set(c, child);
+            } else if (to > from) {
+                jobs.add(new InsertJob(root, c, scratch, from, to, 1));
+            }
+        }
+        engine.run(jobs);
+        // Attach the sub-tries from this thread, as allocating the pages
+        // of a node is not safe to do concurrently.
+        for (InsertJob job : jobs) {
+            job.parent.set(job.c, job.node);
+        }
+        return consumed;
+    }
+
     /**
      * Traverse the trie structure, ordering the strings in the array to
      * conform to their lexicographically sorted order as determined by
-     * the trie structure.
+     * the trie structure. If the context of the trie retains storage,
+     * the nodes and buckets are returned to it along the way.
      *
      * @param  node     node within trie structure.
      * @param  strings  the strings to be ordered.
      * @param  pos      position within array.
      * @param  deep     character offset within strings.
+     * @param  stable   true to keep equal strings in their input order.
+     * @param  order    the (ascending) order of the characters.
+     * @param  lcp      if non-null, receives the longest common prefix
+     *                  of each string with its predecessor.
      * @return  new pos value.
      */
-    private static int traverse(Node node, CharSequence[] strings, int pos, int deep) {
-        for (char c = 0; c < ALPHABET; c++) {
+    private static int traverse(Node node, CharSequence[] strings, int pos,
+            int deep, boolean stable, CharOrder order, int[] lcp) {
+        BurstsortContext context = node.context;
+        boolean recycle = context.isRetaining();
+        // The first string of the node follows a string that differs
+        // from it within the prefix, so its LCP is set by an ancestor.
+        boolean first = true;
+        for (int c = 0; c < CHARSET; c = node.next(c)) {
             int count = node.size(c);
+            if (count != 0 && lcp != null) {
+                if (!first) {
+                    lcp[pos] = deep;
+                }
+                first = false;
+            }
             if (count < 0) {
-                pos = traverse((Node) node.get(c), strings, pos, deep + 1);
+                // The child may skip over characters shared by all of
+                // its strings, so it knows its own depth.
+                Node child = (Node) node.get(c);
+                pos = traverse(child, strings, pos, child.depth, stable, order, lcp);
             } else if (count > 0) {
                 int off = pos;
                 if (c == 0) {
                     // Visit all of the null buckets, which are daisy-chained
                     // together with the last reference in each bucket pointing
                     // to the next bucket in the chain.
-                    int no_of_buckets = (count / THRESHOLDMINUSONE) + 1;
+                    int no_of_buckets = (count / NULLBUCKET_SIZEMINUSONE) + 1;
                     Object[] nullbucket = (Object[]) node.get(c);
                     for (int k = 1; k <= no_of_buckets; k++) {
                         int no_elements_in_bucket;
                         if (k == no_of_buckets) {
-                            no_elements_in_bucket = count % THRESHOLDMINUSONE;
+                            no_elements_in_bucket = count % NULLBUCKET_SIZEMINUSONE;
                         } else {
-                            no_elements_in_bucket = THRESHOLDMINUSONE;
+                            no_elements_in_bucket = NULLBUCKET_SIZEMINUSONE;
                         }
                         // Copy the string tails to the sorted array.
                         int j = 0;
                         while (j < no_elements_in_bucket) {
                             strings[off] = (CharSequence) nullbucket[j];
+                            if (lcp != null && off > pos) {
+                                // Equal strings ending at this depth.
+                                lcp[off] = deep;
+                            }
                             off++;
                             j++;
                         }
+                        Object[] done = nullbucket;
                         nullbucket = (Object[]) nullbucket[j];
+                        if (recycle) {
+                            context.releaseNullBucket(done);
+                        }
                     }
                 } else {
                     // Sort the tail string bucket.
                     CharSequence[] bucket = (CharSequence[]) node.get(c);
                     if (count > 1) {
-                        MultikeyQuicksort.sort(bucket, 0, count, deep + 1);
+                        if (lcp != null) {
+                            MultikeyQuicksort.sort(bucket, 0, count, deep + 1, lcp, off);
+                        } else if (stable) {
+                            LcpMergesort.sort(bucket, 0, count, deep + 1);
+                        } else if (order.isNatural()) {
+                            CachingMultikeyQuicksort.sort(bucket, 0, count, deep + 1,
+                                    context.keys(count));
+                        } else {
+                            MultikeyQuicksort.sort(bucket, 0, count, deep + 1, order);
+                        }
                     }
                     // Copy to final destination.
                     System.arraycopy(bucket, 0, strings, off, count);
+                    if (recycle) {
+                        context.releaseBucket(bucket, count);
+                    }
+                }
+                pos += count;
+            }
+        }
+        if (recycle) {
+            node.recycle();
+        }
+        return pos;
+    }
+
+    /**
+     * Traverse the trie structure built for a distinct sort, writing each
+     * distinct string to the array along with the number of times it
+     * occurs. The output never overtakes the strings still to be read,
+     * as those are held by the trie.
+     *
+     * @param  node     node within trie structure.
+     * @param  strings  receives the distinct strings.
+     * @param  counts   receives the occurrences of each string (may be null).
+     * @param  pos      position within array.
+     * @param  deep     character offset within strings.
+     * @return  new pos value.
+     */
+    private static int traverseDistinct(Node node, CharSequence[] strings,
+            int[] counts, int pos, int deep) {
+        for (int c = 0; c < CHARSET; c = node.next(c)) {
+            int count = node.size(c);
+            if (count < 0) {
+                Node child = (Node) node.get(c);
+                pos = traverseDistinct(child, strings, counts, pos, child.depth);
+            } else if (count > 0) {
+                if (c == 0) {
+                    // Only the first of the equal strings was stored.
+                    strings[pos] = (CharSequence) ((Object[]) node.get(c))[0];
+                    if (counts != null) {
+                        counts[pos] = count;
+                    }
+                    pos++;
+                } else {
+                    CharSequence[] bucket = (CharSequence[]) node.get(c);
+                    if (count > 1) {
+                        CachingMultikeyQuicksort.sort(bucket, 0, count, deep + 1);
+                    }
+                    // Equal strings are now adjacent, collapse each run.
+                    CharSequence prev = bucket[0];
+                    int run = 1;
+                    for (int j = 1; j < count; j++) {
+                        if (equals(prev, bucket[j], deep + 1)) {
+                            run++;
+                        } else {
+                            strings[pos] = prev;
+                            if (counts != null) {
+                                counts[pos] = run;
+                            }
+                            pos++;
+                            prev = bucket[j];
+                            run = 1;
+                        }
+                    }
+                    strings[pos] = prev;
+                    if (counts != null) {
+                        counts[pos] = run;
+                    }
+                    pos++;
+                }
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Traverse the trie structure in either direction, sorting only those
+     * buckets that fall (at least in part) before the given limit. The
+     * buckets beyond the limit are simply copied to the array.
+     *
+     * @param  node        node within trie structure.
+     * @param  strings     the strings to be ordered.
+     * @param  pos         position within array.
+     * @param  deep        character offset within strings.
+     * @param  limit       number of strings to be put in order.
+     * @param  order       the (ascending) order of the characters.
+     * @param  descending  true to visit the trie from last to first.
+     * @return  new pos value.
+     */
+    private static int traverseTopK(Node node, CharSequence[] strings, int pos,
+            int deep, int limit, CharOrder order, boolean descending) {
+        // Gather the occupied entries, so they may be visited in reverse.
+        int[] keys = new int[SMALL_NODE];
+        int n = 0;
+        for (int c = 0; c < CHARSET; c = node.next(c)) {
+            if (node.size(c) != 0) {
+                if (n == keys.length) {
+                    keys = Arrays.copyOf(keys, n * 2);
+                }
+                keys[n] = c;
+                n++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int c = descending ? keys[n - 1 - i] : keys[i];
+            int count = node.size(c);
+            if (count < 0) {
+                Node child = (Node) node.get(c);
+                pos = traverseTopK(child, strings, pos, child.depth, limit,
+                        order, descending);
+            } else if (c == 0) {
+                // The strings in the null buckets are all equal.
+                int no_of_buckets = (count / NULLBUCKET_SIZEMINUSONE) + 1;
+                Object[] nullbucket = (Object[]) node.get(c);
+                for (int k = 1; k <= no_of_buckets; k++) {
+                    int no_elements_in_bucket;
+                    if (k == no_of_buckets) {
+                        no_elements_in_bucket = count % NULLBUCKET_SIZEMINUSONE;
+                    } else {
+                        no_elements_in_bucket = NULLBUCKET_SIZEMINUSONE;
+                    }
+                    int j = 0;
+                    while (j < no_elements_in_bucket) {
+                        strings[pos] = (CharSequence) nullbucket[j];
+                        pos++;
+                        j++;
+                    }
+                    nullbucket = (Object[]) nullbucket[j];
+                }
+            } else {
+                CharSequence[] bucket = (CharSequence[]) node.get(c);
+                if (pos >= limit) {
+                    // Past the limit, order no longer matters.
+                    System.arraycopy(bucket, 0, strings, pos, count);
+                } else {
+                    if (count > 1) {
+                        if (order.isNatural()) {
+                            CachingMultikeyQuicksort.sort(bucket, 0, count, deep + 1);
+                        } else {
+                            MultikeyQuicksort.sort(bucket, 0, count, deep + 1, order);
+                        }
+                    }
+                    if (descending) {
+                        for (int j = 0; j < count; j++) {
+                            strings[pos + j] = bucket[count - 1 - j];
+                        }
+                    } else {
+                        System.arraycopy(bucket, 0, strings, pos, count);
+                    }
                 }
                 pos += count;
             }
@@ -211,6 +1026,47 @@ public class Burstsort {
         return pos;
     }
 
+    /**
+     * Traverse the trie structure, gathering the buckets in the order in
+     * which they are to be visited by a lazy iterator.
+     *
+     * @param  node     node within trie structure.
+     * @param  buckets  list to which the buckets are added.
+     */
+    private static void collect(Node node, List<Bucket> buckets) {
+        for (int c = 0; c < CHARSET; c = node.next(c)) {
+            int count = node.size(c);
+            if (count < 0) {
+                collect((Node) node.get(c), buckets);
+            } else if (count > 0) {
+                buckets.add(new Bucket((Object[]) node.get(c), count,
+                        node.depth + 1, c == 0));
+            }
+        }
+    }
+
+    /**
+     * Tests if two strings are equal, knowing that they share the
+     * characters before the given offset. The null character is taken
+     * to end a string.
+     *
+     * @param  a  first string.
+     * @param  b  second string.
+     * @param  d  offset of the first character to compare.
+     * @return  true if equal, false otherwise.
+     */
+    private static boolean equals(CharSequence a, CharSequence b, int d) {
+        char c = charAt(a, d, null);
+        while (c == charAt(b, d, null)) {
+            if (c == NULLTERM) {
+                return true;
+            }
+            d++;
+            c = charAt(a, d, null);
+        }
+        return false;
+    }
+
     /**
      * Traverse the trie structure, creating jobs for each of the buckets.
      *
@@ -222,26 +1078,26 @@ public class Burstsort {
      * @return  new pos value.
      */
     private static int traverseParallel(Node node, CharSequence[] strings,
-            int pos, int deep, List<Callable<Object>> jobs) {
-        for (char c = 0; c < ALPHABET; c++) {
+            int pos, int deep, List<JobScheduler.Job> jobs) {
+        for (int c = 0; c < CHARSET; c = node.next(c)) {
             int count = node.size(c);
             if (count < 0) {
-                pos = traverseParallel((Node) node.get(c), strings, pos,
-                        deep + 1, jobs);
+                Node child = (Node) node.get(c);
+                pos = traverseParallel(child, strings, pos, child.depth, jobs);
             } else if (count > 0) {
                 int off = pos;
                 if (c == 0) {
                     // Visit all of the null buckets, which are daisy-chained
                     // together with the last reference in each bucket pointing
                     // to the next bucket in the chain.
-                    int no_of_buckets = (count / THRESHOLDMINUSONE) + 1;
+                    int no_of_buckets = (count / NULLBUCKET_SIZEMINUSONE) + 1;
                     Object[] nullbucket = (Object[]) node.get(c);
                     for (int k = 1; k <= no_of_buckets; k++) {
                         int no_elements_in_bucket;
                         if (k == no_of_buckets) {
-                            no_elements_in_bucket = count % THRESHOLDMINUSONE;
+                            no_elements_in_bucket = count % NULLBUCKET_SIZEMINUSONE;
                         } else {
-                            no_elements_in_bucket = THRESHOLDMINUSONE;
+                            no_elements_in_bucket = NULLBUCKET_SIZEMINUSONE;
                         }
                         // Use a job for each sub-bucket to avoid handling
                         // large numbers of entries in a single thread.
@@ -274,6 +1130,8 @@ public class Burstsort {
         Stack<Node> stack = new Stack<Node>();
         stack.push(node);
         int nodes = 0;
+        int sparseNodes = 0;
+        int compressedNodes = 0;
         int consumedStrings = 0;
         int bucketStrings = 0;
         int bucketSpace = 0;
@@ -283,7 +1141,13 @@ public class Burstsort {
         while (!stack.isEmpty()) {
             node = stack.pop();
             nodes++;
-            for (char c = 0; c < ALPHABET; c++) {
+            if (node.capacity() < ALPHABET) {
+                sparseNodes++;
+            }
+            if (node.skip > 0) {
+                compressedNodes++;
+            }
+            for (int c = 0; c < CHARSET; c = node.next(c)) {
                 int count = node.size(c);
                 if (count < 0) {
                     stack.push((Node) node.get(c));
@@ -292,14 +1156,14 @@ public class Burstsort {
                     // always be empty buckets.
                     if (count > 0) {
                         if (c == 0) {
-                            int no_of_buckets = (count / THRESHOLDMINUSONE) + 1;
+                            int no_of_buckets = (count / NULLBUCKET_SIZEMINUSONE) + 1;
                             Object[] nb = (Object[]) node.get(c);
                             for (int k = 1; k <= no_of_buckets; k++) {
                                 int no_elements_in_bucket;
                                 if (k == no_of_buckets) {
-                                    no_elements_in_bucket = count % THRESHOLDMINUSONE;
+                                    no_elements_in_bucket = count % NULLBUCKET_SIZEMINUSONE;
                                 } else {
-                                    no_elements_in_bucket = THRESHOLDMINUSONE;
+                                    no_elements_in_bucket = NULLBUCKET_SIZEMINUSONE;
                                 }
                                 bucketSpace += nb.length;
                                 nb = (Object[]) nb[no_elements_in_bucket];
@@ -322,6 +1186,8 @@ public class Burstsort {
             }
         }
         out.format("Trie nodes: %d\n", nodes);
+        out.format("Sparse nodes: %d\n", sparseNodes);
+        out.format("Compressed nodes: %d\n", compressedNodes);
         out.format("Total buckets: %d\n", nonEmptyBuckets);
         out.format("Bucket strings: %d\n", bucketStrings);
         out.format("Consumed strings: %d\n", consumedStrings);
@@ -340,18 +1206,206 @@ public class Burstsort {
      * buckets for the other entries. Entries may point either to a bucket
      * or another trie node.
      *
+     * <p>The table of entries adapts to the number of characters in use,
+     * much like the nodes of an adaptive radix tree. A sparse node holds
+     * up to 4 or 16 entries with their characters in sorted order, an
+     * indexed node holds up to 48 entries located by a byte index of the
+     * Latin-1 characters, and a dense node holds an entry for each of the
+     * Latin-1 characters. The size is chosen when the node is created by
+     * a burst, and the node grows in place as more characters are added,
+     * such that the many nodes created for long common prefixes or small
+     * alphabets remain small.</p>
+     *
+     * <p>When every string in a bursting bucket shares the characters that
+     * follow, the chain of single-entry nodes that would result is replaced
+     * by one node with a label for the shared characters, which are then
+     * skipped. A string that diverges from the label part way along splits
+     * the node in two.</p>
+     *
+     * <p>Characters beyond the Latin-1 range are held in pages, each of
+     * which is itself a node whose entries are indexed by the low byte of
+     * the character. Pages are allocated only when a character from that
+     * range is added, keeping the common case as fast as a plain table.</p>
+     *
      * @author  Nathan Fiedler
      */
     private static class Node {
+        /** The context in which the trie is allocated. */
+        private BurstsortContext context;
+        /** Offset of the character by which this node is indexed. */
+        private int depth;
+        /** Number of characters skipped over by this node, which are
+         * shared by all of the strings below it. */
+        private int skip;
+        /** A string containing the skipped characters, which precede
+         * the offset of this node; null if nothing is skipped. */
+        private CharSequence label;
+        /** Maximum number of strings in the buckets of this node. */
+        private int threshold;
+        /** Initial size for new buckets. */
+        private int bucketStartSize;
+        /** The bucket growth factor (replaces the bucket_inc array in the
+         * original C implementation). */
+        private int bucketGrowthFactor;
+        /** Reference to the first null bucket in the chain. */
+        private Object[] nullbucket;
+        /** Number of strings in the null buckets. */
+        private int nullcount;
         /** Reference to the last null bucket in the chain, starting
-         * from the reference in ptrs[0]. */
+         * from nullbucket. */
         private Object[] nulltailptr;
         /** last element in null bucket */
         private int nulltailidx;
+        /** Characters of the entries in sorted order, for a sparse node;
+         * null otherwise. */
+        private char[] keys;
+        /** Entry (plus one) for each Latin-1 character, for an indexed
+         * node; null otherwise. */
+        private byte[] index;
+        /** Number of entries in use in a sparse or indexed node. */
+        private int used;
         /** count of items in bucket, or -1 if reference to trie node */
-        private final int[] counts = new int[ALPHABET];
+        private int[] counts;
         /** pointers to buckets or trie node */
-        private final Object[] ptrs = new Object[ALPHABET];
+        private Object[] ptrs;
+        /** Pages for the characters above U+00FF, indexed by the high
+         * byte of the character; null until the first such character
+         * is added to this node. */
+        private Node[] pages;
+
+        /**
+         * Creates a new instance of Node with a table of the given kind.
+         * The node must be initialized before use.
+         *
+         * @param  kind  kind of node, as an offset into NODE_SIZES.
+         */
+        Node(int kind) {
+            int size = NODE_SIZES[kind];
+            if (kind == INDEXED_KIND) {
+                index = new byte[ALPHABET];
+            } else if (kind < INDEXED_KIND) {
+                keys = new char[size];
+            }
+            counts = new int[size];
+            ptrs = new Object[size];
+        }
+
+        /**
+         * Prepares this (empty) node for use within a trie.
+         *
+         * @param  context  context in which the trie is allocated.
+         * @param  depth    offset of the character indexing this node.
+         */
+        void init(BurstsortContext context, int depth) {
+            BurstTuning tuning = context.getTuning();
+            this.context = context;
+            this.depth = depth;
+            threshold = tuning.getThreshold(depth);
+            bucketStartSize = Math.min(tuning.getBucketStartSize(), threshold);
+            bucketGrowthFactor = tuning.getBucketGrowthFactor();
+        }
+
+        /**
+         * Returns the kind of this node, as an offset into NODE_SIZES.
+         *
+         * @return  kind of node.
+         */
+        private int kind() {
+            if (keys != null) {
+                return keys.length == SMALL_NODE ? 0 : 1;
+            }
+            return index != null ? INDEXED_KIND : DENSE_KIND;
+        }
+
+        /**
+         * Clears this node, along with its pages, and returns it to the
+         * context for reuse. The buckets must already have been released.
+         */
+        void recycle() {
+            if (pages != null) {
+                for (Node page : pages) {
+                    if (page != null) {
+                        page.recycle();
+                    }
+                }
+                pages = null;
+            }
+            int n = keys == null && index == null ? counts.length : used;
+            Arrays.fill(counts, 0, n, 0);
+            Arrays.fill(ptrs, 0, n, null);
+            if (index != null) {
+                Arrays.fill(index, (byte) 0);
+            }
+            used = 0;
+            nullbucket = null;
+            nulltailptr = null;
+            nullcount = 0;
+            nulltailidx = 0;
+            skip = 0;
+            label = null;
+            context.releaseNode(kind(), this, counts.length);
+            context = null;
+        }
+
+        /**
+         * Counts the characters of the label of this node that match the
+         * given string, which has reached the start of the label.
+         *
+         * @param  s      string being inserted.
+         * @param  d      offset of the first label character.
+         * @param  ranks  rank of each character, or null for natural order.
+         * @return  number of matching characters.
+         */
+        public int match(CharSequence s, int d, char[] ranks) {
+            int n = Math.min(skip, s.length() - d);
+            int m = 0;
+            if (ranks == null) {
+                while (m < n && s.charAt(d + m) == label.charAt(d + m)) {
+                    m++;
+                }
+            } else {
+                while (m < n && ranks[s.charAt(d + m)] == ranks[label.charAt(d + m)]) {
+                    m++;
+                }
+            }
+            return m;
+        }
+
+        /**
+         * Splits this node where a string diverges from its label, by
+         * inserting a new node that holds the matching part of the label,
+         * with this node as its child and holding the rest of the label.
+         *
+         * @param  parent  the parent of this node.
+         * @param  c       character under which this node is attached.
+         * @param  m       number of label characters matched.
+         * @param  ranks   rank of each character, or null for natural order.
+         * @return  the new node, now attached to the parent.
+         */
+        public Node split(Node parent, int c, int m, char[] ranks) {
+            int d = depth - skip + m;
+            // Two entries: this node and the diverging string.
+            Node mid = newNode(context, d, 2);
+            if (m > 0) {
+                mid.label = label;
+                mid.skip = m;
+            }
+            skip -= m + 1;
+            mid.set(rank(label.charAt(d), ranks), this);
+            if (skip == 0) {
+                label = null;
+            }
+            parent.set(c, mid);
+            return mid;
+        }
+
+        /**
+         * Counts another string that ends at this node, without storing
+         * it, as it is equal to the string already in the null bucket.
+         */
+        public void repeat() {
+            nullcount++;
+        }
 
         /**
          * Add the given string into the appropriate bucket, given the
@@ -363,59 +1417,226 @@ public class Burstsort {
          *
          * @param  c  character used to index trie entry.
          * @param  s  the string to be inserted.
+         * @return  number of strings now in the bucket.
          */
-        public void add(char c, CharSequence s) {
-            // are buckets already created?
-            if (counts[c] < 1) {
-                // create bucket
-                if (c == NULLTERM) {
+        public int add(int c, CharSequence s) {
+            if (c == NULLTERM) {
+                // are buckets already created?
+                if (nullcount < 1) {
                     // allocate memory for the bucket
-                    nulltailptr = new Object[THRESHOLD];
-                    ptrs[c] = nulltailptr;
+                    nulltailptr = context.nullBucket(NULLBUCKET_SIZE);
+                    nullbucket = nulltailptr;
                     // insert the string
                     nulltailptr[0] = s;
                     // point to next cell
                     nulltailidx = 1;
                     // increment count of items
-                    counts[c]++;
+                    nullcount++;
                 } else {
-                    CharSequence[] cs = new CharSequence[BUCKET_START_SIZE];
-                    cs[0] = s;
-                    ptrs[c] = cs;
-                    counts[c]++;
-                }
-            } else {
-                // bucket already created, insert string in bucket
-                if (c == NULLTERM) {
                     // insert the string
                     nulltailptr[nulltailidx] = s;
                     // point to next cell
                     nulltailidx++;
                     // increment count of items
-                    counts[c]++;
+                    nullcount++;
                     // check if the bucket is reaching the threshold
-                    if (counts[c] % THRESHOLDMINUSONE == 0) {
+                    if (nullcount % NULLBUCKET_SIZEMINUSONE == 0) {
                         // Grow the null bucket by daisy chaining a new array.
-                        Object[] tmp = new Object[THRESHOLD];
+                        Object[] tmp = context.nullBucket(NULLBUCKET_SIZE);
                         nulltailptr[nulltailidx] = tmp;
                         // point to the first cell in the new array
                         nulltailptr = tmp;
                         nulltailidx = 0;
                     }
-                } else {
-                    // Insert string in bucket and increment the item counter.
-                    CharSequence[] cs = (CharSequence[]) ptrs[c];
-                    cs[counts[c]] = s;
-                    counts[c]++;
-                    // If the bucket is full, increase its size, but only
-                    // up to the threshold value.
-                    if (counts[c] < THRESHOLD && counts[c] == cs.length) {
-                        CharSequence[] tmp = new CharSequence[cs.length * BUCKET_GROWTH_FACTOR];
-                        System.arraycopy(cs, 0, tmp, 0, cs.length);
-                        ptrs[c] = tmp;
+                }
+                return nullcount;
+            } else if (c < ALPHABET) {
+                return append(c, s);
+            }
+            return page(c).append(c & (ALPHABET - 1), s);
+        }
+
+        /**
+         * Add the given string to the (non-null) bucket for the given
+         * Latin-1 character within this node, creating or expanding the
+         * bucket as needed.
+         *
+         * @param  k  character of the entry within this node.
+         * @param  s  the string to be inserted.
+         * @return  number of strings now in the bucket.
+         */
+        private int append(int k, CharSequence s) {
+            int i = slot(k);
+            // are buckets already created?
+            if (counts[i] < 1) {
+                // create bucket
+                CharSequence[] cs = context.bucket(bucketStartSize);
+                cs[0] = s;
+                ptrs[i] = cs;
+                counts[i]++;
+            } else {
+                CharSequence[] cs = (CharSequence[]) ptrs[i];
+                // If the bucket is full, increase its size, but only up
+                // to the threshold value, unless a burst has already
+                // filled it that far (the parent of this node may have
+                // a greater threshold).
+                if (counts[i] == cs.length) {
+                    int size = cs.length * bucketGrowthFactor;
+                    if (cs.length < threshold) {
+                        size = Math.min(size, threshold);
+                    }
+                    CharSequence[] tmp = context.bucket(size);
+                    System.arraycopy(cs, 0, tmp, 0, cs.length);
+                    context.releaseBucket(cs, cs.length);
+                    ptrs[i] = tmp;
+                    cs = tmp;
+                }
+                // Insert string in bucket and increment the item counter.
+                cs[counts[i]] = s;
+                counts[i]++;
+            }
+            return counts[i];
+        }
+
+        /**
+         * Finds the entry for the given Latin-1 character within this
+         * node's table.
+         *
+         * @param  k  character of the entry.
+         * @return  offset of the entry, or -1 if there is none.
+         */
+        private int find(int k) {
+            if (keys != null) {
+                for (int i = 0; i < used; i++) {
+                    if (keys[i] == k) {
+                        return i;
+                    }
+                }
+                return -1;
+            } else if (index != null) {
+                return index[k] - 1;
+            }
+            return k;
+        }
+
+        /**
+         * Finds the entry for the given Latin-1 character within this
+         * node's table, adding an entry if there is none, which may
+         * require that the table be grown.
+         *
+         * @param  k  character of the entry.
+         * @return  offset of the entry.
+         */
+        private int slot(int k) {
+            int i = find(k);
+            if (i >= 0) {
+                return i;
+            }
+            if (used == counts.length) {
+                grow();
+            }
+            if (keys != null) {
+                // Keep the characters in order by shifting the entries
+                // that follow the new one.
+                i = used;
+                while (i > 0 && keys[i - 1] > k) {
+                    keys[i] = keys[i - 1];
+                    counts[i] = counts[i - 1];
+                    ptrs[i] = ptrs[i - 1];
+                    i--;
+                }
+                keys[i] = (char) k;
+                counts[i] = 0;
+                ptrs[i] = null;
+                used++;
+                return i;
+            } else if (index != null) {
+                i = used;
+                index[k] = (byte) (i + 1);
+                used++;
+                return i;
+            }
+            return k;
+        }
+
+        /**
+         * Grows the table of this node to the next size, which for the
+         * largest sparse node means converting to an indexed node, and
+         * for an indexed node means converting to a dense node.
+         */
+        private void grow() {
+            if (keys != null && used < LARGE_NODE) {
+                char[] k = new char[LARGE_NODE];
+                System.arraycopy(keys, 0, k, 0, used);
+                keys = k;
+                resize(LARGE_NODE);
+            } else if (keys != null) {
+                index = new byte[ALPHABET];
+                for (int i = 0; i < used; i++) {
+                    index[keys[i]] = (byte) (i + 1);
+                }
+                keys = null;
+                resize(INDEXED_NODE);
+            } else {
+                int[] cnts = new int[ALPHABET];
+                Object[] ps = new Object[ALPHABET];
+                for (int k = 0; k < ALPHABET; k++) {
+                    int i = index[k] - 1;
+                    if (i >= 0) {
+                        cnts[k] = counts[i];
+                        ps[k] = ptrs[i];
                     }
                 }
+                index = null;
+                counts = cnts;
+                ptrs = ps;
+            }
+        }
+
+        /**
+         * Resizes the entry arrays, retaining the existing entries.
+         *
+         * @param  size  new size of the arrays.
+         */
+        private void resize(int size) {
+            int[] cnts = new int[size];
+            System.arraycopy(counts, 0, cnts, 0, used);
+            counts = cnts;
+            Object[] ps = new Object[size];
+            System.arraycopy(ptrs, 0, ps, 0, used);
+            ptrs = ps;
+        }
+
+        /**
+         * Returns the number of entries this node can hold without
+         * growing its table.
+         *
+         * @return  capacity of the table.
+         */
+        public int capacity() {
+            return counts.length;
+        }
+
+        /**
+         * Returns the page holding the entries for character <em>c</em>,
+         * allocating it if necessary. Only valid for characters beyond
+         * the Latin-1 range.
+         *
+         * @param  c  character for which to find the page.
+         * @return  page for the given character.
+         */
+        private Node page(int c) {
+            if (pages == null) {
+                pages = new Node[PAGES];
             }
+            int p = c >>> PAGE_SHIFT;
+            Node page = pages[p];
+            if (page == null) {
+                // Few pages will have more than a handful of entries.
+                page = newNode(context, depth, 1);
+                pages[p] = page;
+            }
+            return page;
         }
 
         /**
@@ -424,8 +1645,42 @@ public class Burstsort {
          * @param  c  character for which to retrieve entry.
          * @return  the trie node entry for the given character.
          */
-        public Object get(char c) {
-            return ptrs[c];
+        public Object get(int c) {
+            if (c == NULLTERM) {
+                return nullbucket;
+            }
+            Node node = this;
+            if (c >= ALPHABET) {
+                node = pages == null ? null : pages[c >>> PAGE_SHIFT];
+                if (node == null) {
+                    return null;
+                }
+                c &= ALPHABET - 1;
+            }
+            int i = node.find(c);
+            return i < 0 ? null : node.ptrs[i];
+        }
+
+        /**
+         * Retrieve the child trie node for character <em>c</em>, if any.
+         *
+         * @param  c  character for which to retrieve child.
+         * @return  the child node, or null if the entry is a bucket.
+         */
+        public Node child(int c) {
+            if (c == NULLTERM) {
+                return null;
+            }
+            Node node = this;
+            if (c >= ALPHABET) {
+                node = pages == null ? null : pages[c >>> PAGE_SHIFT];
+                if (node == null) {
+                    return null;
+                }
+                c &= ALPHABET - 1;
+            }
+            int i = node.find(c);
+            return i >= 0 && node.counts[i] < 0 ? (Node) node.ptrs[i] : null;
         }
 
         /**
@@ -434,11 +1689,27 @@ public class Burstsort {
          * @param  c  character for which to store new entry.
          * @param  o  the trie node entry for the given character.
          */
-        public void set(char c, Object o) {
-            ptrs[c] = o;
+        public void set(int c, Object o) {
+            if (c >= ALPHABET) {
+                page(c).put(c & (ALPHABET - 1), o);
+            } else {
+                put(c, o);
+            }
+        }
+
+        /**
+         * Set the trie node or object array for the given Latin-1
+         * character within this node's table.
+         *
+         * @param  k  character of the entry.
+         * @param  o  the trie node entry for the given character.
+         */
+        private void put(int k, Object o) {
+            int i = slot(k);
+            ptrs[i] = o;
             if (o instanceof Node) {
                 // flag to indicate pointer to trie node and not bucket
-                counts[c] = -1;
+                counts[i] = -1;
             }
         }
 
@@ -448,8 +1719,293 @@ public class Burstsort {
          * @param  c  character for which to get count.
          * @return  number of tail strings; -1 if child is a trie node.
          */
-        public int size(char c) {
-            return counts[c];
+        public int size(int c) {
+            if (c == NULLTERM) {
+                return nullcount;
+            }
+            Node node = this;
+            if (c >= ALPHABET) {
+                node = pages == null ? null : pages[c >>> PAGE_SHIFT];
+                if (node == null) {
+                    return 0;
+                }
+                c &= ALPHABET - 1;
+            }
+            int i = node.find(c);
+            return i < 0 ? 0 : node.counts[i];
+        }
+
+        /**
+         * Returns the first Latin-1 character following <em>k</em> for
+         * which this node's table may have an entry.
+         *
+         * @param  k  the current character (may be -1).
+         * @return  the next character, or ALPHABET if none.
+         */
+        private int nextKey(int k) {
+            if (keys != null) {
+                for (int i = 0; i < used; i++) {
+                    if (keys[i] > k) {
+                        return keys[i];
+                    }
+                }
+                return ALPHABET;
+            } else if (index != null) {
+                for (k++; k < ALPHABET; k++) {
+                    if (index[k] != 0) {
+                        return k;
+                    }
+                }
+                return ALPHABET;
+            }
+            return k + 1;
+        }
+
+        /**
+         * Returns the character following <em>c</em> for which this node
+         * may have an entry, skipping over the pages that have not been
+         * allocated. Used to visit the entries of the node in order.
+         *
+         * @param  c  the current character.
+         * @return  the next character to visit, or CHARSET if none.
+         */
+        public int next(int c) {
+            if (c < ALPHABET) {
+                int k = nextKey(c);
+                if (k < ALPHABET) {
+                    return k;
+                }
+                c = ALPHABET - 1;
+            }
+            if (pages == null) {
+                return CHARSET;
+            }
+            c++;
+            int p = c >>> PAGE_SHIFT;
+            int k = (c & (ALPHABET - 1)) - 1;
+            while (p < PAGES) {
+                Node page = pages[p];
+                if (page != null) {
+                    k = page.nextKey(k);
+                    if (k < ALPHABET) {
+                        return (p << PAGE_SHIFT) | k;
+                    }
+                }
+                p++;
+                k = -1;
+            }
+            return CHARSET;
+        }
+    }
+
+    /**
+     * A bucket of the trie awaiting a lazy iterator. Running the bucket
+     * sorts its strings, unless it is a chain of null buckets, whose
+     * strings are all equal.
+     *
+     * @author  Nathan Fiedler
+     */
+    private static class Bucket implements Runnable {
+        /** The strings of the bucket, or the first of the null buckets. */
+        private final Object[] items;
+        /** The number of strings in the bucket (or chain). */
+        private final int count;
+        /** The offset of the first character not yet in order. */
+        private final int depth;
+        /** True if this is a chain of null buckets. */
+        private final boolean chained;
+
+        /**
+         * Constructs an instance of Bucket.
+         *
+         * @param  items    strings of the bucket, or first null bucket.
+         * @param  count    number of strings.
+         * @param  depth    offset of first character to compare.
+         * @param  chained  true if a chain of null buckets.
+         */
+        Bucket(Object[] items, int count, int depth, boolean chained) {
+            this.items = items;
+            this.count = count;
+            this.depth = depth;
+            this.chained = chained;
+        }
+
+        @Override
+        public void run() {
+            if (!chained && count > 1) {
+                CachingMultikeyQuicksort.sort((CharSequence[]) items, 0, count, depth);
+            }
+        }
+    }
+
+    /**
+     * Iterates over the buckets of a burst trie, sorting each bucket
+     * only when it is reached, or ahead of time using an executor.
+     *
+     * @author  Nathan Fiedler
+     */
+    private static class TrieIterator implements Iterator<CharSequence> {
+        /** The buckets in the order in which they are visited. */
+        private final List<Bucket> buckets;
+        /** Tasks sorting the buckets ahead of time, if any. */
+        private final List<FutureTask<Object>> tasks;
+        /** Runs the tasks, or null if not sorting ahead. */
+        private final Executor executor;
+        /** Number of buckets to sort ahead of the current one. */
+        private final int ahead;
+        /** Index of the next bucket to visit. */
+        private int next;
+        /** Index of the next task to hand to the executor. */
+        private int submitted;
+        /** Strings of the current bucket. */
+        private Object[] items;
+        /** True if the current bucket is a chain of null buckets. */
+        private boolean chained;
+        /** Position within the current bucket. */
+        private int offset;
+        /** Number of strings left in the current bucket. */
+        private int left;
+
+        /**
+         * Constructs an instance of TrieIterator.
+         *
+         * @param  buckets   the buckets in order.
+         * @param  executor  runs the bucket sorts (may be null).
+         * @param  ahead     number of buckets to sort ahead.
+         */
+        TrieIterator(List<Bucket> buckets, Executor executor, int ahead) {
+            this.buckets = buckets;
+            this.executor = executor;
+            this.ahead = ahead;
+            if (executor != null) {
+                tasks = new ArrayList<FutureTask<Object>>(buckets.size());
+                for (Bucket bucket : buckets) {
+                    tasks.add(new FutureTask<Object>(bucket, null));
+                }
+            } else {
+                tasks = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return left > 0 || next < buckets.size();
+        }
+
+        @Override
+        public CharSequence next() {
+            if (left == 0) {
+                if (next == buckets.size()) {
+                    throw new NoSuchElementException();
+                }
+                open();
+            }
+            if (chained && offset == NULLBUCKET_SIZEMINUSONE) {
+                // The last reference leads to the next null bucket.
+                items = (Object[]) items[offset];
+                offset = 0;
+            }
+            left--;
+            CharSequence s = (CharSequence) items[offset];
+            offset++;
+            return s;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Makes the next bucket the current one, sorting it if that has
+         * not already been done.
+         */
+        private void open() {
+            Bucket bucket = buckets.get(next);
+            if (tasks != null) {
+                int last = Math.min(buckets.size() - 1, next + ahead);
+                try {
+                    while (submitted <= last) {
+                        executor.execute(tasks.get(submitted));
+                        submitted++;
+                    }
+                } catch (RejectedExecutionException ree) {
+                    // This thread will sort whatever was not submitted.
+                    submitted = last + 1;
+                }
+                FutureTask<Object> task = tasks.get(next);
+                tasks.set(next, null);
+                // Runs the sort here unless it has already been started.
+                task.run();
+                try {
+                    task.get();
+                } catch (InterruptedException ie) {
+                    throw new RuntimeException("Bucket sort interrupted!", ie);
+                } catch (ExecutionException ee) {
+                    throw new RuntimeException(ee.getCause());
+                }
+            } else {
+                bucket.run();
+            }
+            buckets.set(next, null);
+            next++;
+            items = bucket.items;
+            chained = bucket.chained;
+            offset = 0;
+            left = bucket.count;
+        }
+    }
+
+    /**
+     * An insert job for the parallel trie construction phase. Each job is
+     * given a range of strings sharing a common prefix, which it inserts
+     * into a new sub-trie to be attached to the parent node once all of
+     * the jobs have completed.
+     *
+     * @author  Nathan Fiedler
+     */
+    private static class InsertJob implements Callable<Object> {
+        /** The node to which the new sub-trie will be attached. */
+        private final Node parent;
+        /** The character under which the sub-trie is attached. */
+        private final int c;
+        /** The array containing the strings to be inserted. */
+        private final CharSequence[] input;
+        /** First position to insert (inclusive). */
+        private final int from;
+        /** Last position to insert (exclusive). */
+        private final int to;
+        /** Length of the prefix shared by the strings. */
+        private final int depth;
+        /** The sub-trie built by this job. */
+        private Node node;
+
+        /**
+         * Constructs an instance of InsertJob.
+         *
+         * @param  parent  node to which the sub-trie will be attached.
+         * @param  c       character under which sub-trie is attached.
+         * @param  input   array containing strings to be inserted.
+         * @param  from    first position to insert (inclusive).
+         * @param  to      last position to insert (exclusive).
+         * @param  depth   length of the prefix shared by the strings.
+         */
+        InsertJob(Node parent, int c, CharSequence[] input, int from,
+                int to, int depth) {
+            this.parent = parent;
+            this.c = c;
+            this.input = input;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            Node n = newNode(parent.context, depth, ALPHABET);
+            insert(n, input, from, to, depth, null, false);
+            node = n;
+            return null;
         }
     }
 
@@ -460,7 +2016,7 @@ public class Burstsort {
      *
      * @author  Nathan Fiedler
      */
-    private static class CopyJob implements Callable<Object> {
+    private static class CopyJob extends JobScheduler.Job {
         /** True if this job has already been completed. */
         private volatile boolean completed;
         /** The array from the null trie bucket containing strings as Object
@@ -501,6 +2057,11 @@ public class Burstsort {
             return completed;
         }
 
+        @Override
+        long cost() {
+            return count;
+        }
+
         @Override
         public Object call() throws Exception {
             System.arraycopy(input, 0, output, offset, count);
@@ -516,7 +2077,7 @@ public class Burstsort {
      *
      * @author  Nathan Fiedler
      */
-    private static class SortJob implements Callable<Object> {
+    private static class SortJob extends JobScheduler.Job {
         /** True if this job has already been completed. */
         private volatile boolean completed;
         /** The array from the trie bucket containing unsorted strings. */
@@ -563,12 +2124,25 @@ public class Burstsort {
             return completed;
         }
 
+        @Override
+        long cost() {
+            return JobScheduler.estimate(input, 0, count, depth, count);
+        }
+
+        @Override
+        Callable<Object> split(long target, ForkJoinEngine engine) {
+            // Copy the strings to their destination, where the parts
+            // will then be sorted in parallel.
+            return new JobScheduler.SplitJob(new CopyJob(input, count, output, offset),
+                    output, offset, offset + count, depth, target, engine);
+        }
+
         @Override
         public Object call() throws Exception {
             if (count > 0) {
                 if (count > 1) {
                     // Sort the strings from the bucket.
-                    MultikeyQuicksort.sort(input, 0, count, depth);
+                    CachingMultikeyQuicksort.sort(input, 0, count, depth);
                 }
                 // Copy the sorted strings to the destination array.
                 System.arraycopy(input, 0, output, offset, count);
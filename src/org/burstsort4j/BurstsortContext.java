@@ -0,0 +1,365 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the trie nodes and buckets of a burstsort between calls to
+ * {@link Burstsort#sort(CharSequence[], BurstsortContext)}, such that
+ * sorting many similar batches of strings allocates little or no new
+ * memory once the context has grown to suit the batches. The amount of
+ * storage kept is bounded by the capacity of the context, given as the
+ * number of array slots (references, counts or characters) to retain;
+ * anything beyond that is left for the garbage collector.
+ *
+ * <p>A context may be used by only one sort at a time, and is best kept
+ * one per thread (e.g. in a <code>ThreadLocal</code>). An attempt to use
+ * a context while another sort is using it results in an
+ * <code>IllegalStateException</code>. A context with a capacity of zero
+ * retains nothing, and may be shared freely.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public final class BurstsortContext {
+    /** Capacity of the context created by the no-argument constructor
+     * (four million slots, a few tens of megabytes). */
+    public static final long DEFAULT_CAPACITY = 1L << 22;
+    /** Number of kinds of trie nodes (sparse, indexed and dense). */
+    private static final int NODE_KINDS = 4;
+    /** Number of size classes for the buckets (powers of two). */
+    private static final int SIZE_CLASSES = 31;
+    /** Number of words in the set of Latin-1 characters seen. */
+    private static final int SEEN_WORDS = 4;
+    /** The tuning parameters for the burst trie. */
+    private final BurstTuning tuning;
+    /** Maximum number of slots to retain. */
+    private final long capacity;
+    /** Number of slots currently retained. */
+    private long retained;
+    /** Set while a sort is using this context. */
+    private final AtomicBoolean busy = new AtomicBoolean();
+    /** Retained trie nodes, by kind. */
+    private final Pool[] nodes = new Pool[NODE_KINDS];
+    /** Retained buckets, by size class. */
+    private final Pool[] buckets = new Pool[SIZE_CLASSES];
+    /** Retained null buckets. */
+    private final Pool nullBuckets = new Pool();
+    /** Scratch space for the characters of a bucket. */
+    private char[] chars = new char[0];
+    /** Scratch space for the cached keys of a bucket being sorted. */
+    private long[] keys = new long[0];
+    /** Scratch space for the set of characters seen. */
+    private final long[] seen = new long[SEEN_WORDS];
+
+    /**
+     * Creates a new instance of BurstsortContext using the default
+     * tuning parameters and the default capacity.
+     */
+    public BurstsortContext() {
+        this(BurstTuning.getDefault(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new instance of BurstsortContext.
+     *
+     * @param  tuning    parameters for the burst trie.
+     * @param  capacity  maximum number of slots to retain.
+     * @throws  IllegalArgumentException  if capacity is negative.
+     */
+    public BurstsortContext(BurstTuning tuning, long capacity) {
+        if (tuning == null) {
+            throw new NullPointerException("tuning must be non-null");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non-negative");
+        }
+        this.tuning = tuning;
+        this.capacity = capacity;
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Pool();
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Pool();
+        }
+    }
+
+    /**
+     * Returns the tuning parameters for the burst trie.
+     *
+     * @return  tuning parameters.
+     */
+    public BurstTuning getTuning() {
+        return tuning;
+    }
+
+    /**
+     * Returns the maximum number of slots this context will retain.
+     *
+     * @return  capacity of the context.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of slots currently retained by this context.
+     *
+     * @return  retained slots.
+     */
+    public long getRetained() {
+        return retained;
+    }
+
+    /**
+     * Releases all of the storage retained by this context.
+     */
+    public void clear() {
+        acquire();
+        try {
+            for (Pool pool : nodes) {
+                pool.clear();
+            }
+            for (Pool pool : buckets) {
+                pool.clear();
+            }
+            nullBuckets.clear();
+            chars = new char[0];
+            keys = new long[0];
+            retained = 0;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Indicates if this context retains anything between sorts.
+     *
+     * @return  true if storage is retained, false otherwise.
+     */
+    boolean isRetaining() {
+        return capacity > 0;
+    }
+
+    /**
+     * Marks this context as being in use by a sort.
+     *
+     * @throws  IllegalStateException  if the context is already in use.
+     */
+    void acquire() {
+        if (capacity > 0 && !busy.compareAndSet(false, true)) {
+            throw new IllegalStateException("context is already in use");
+        }
+    }
+
+    /**
+     * Marks this context as no longer being in use.
+     */
+    void release() {
+        if (capacity > 0) {
+            busy.set(false);
+        }
+    }
+
+    /**
+     * Takes a retained trie node of the given kind, if any.
+     *
+     * @param  kind   kind of trie node.
+     * @param  slots  number of slots held by such a node.
+     * @return  retained node, or null if none.
+     */
+    Object node(int kind, int slots) {
+        if (capacity == 0) {
+            return null;
+        }
+        Object node = nodes[kind].pop();
+        if (node != null) {
+            retained -= slots;
+        }
+        return node;
+    }
+
+    /**
+     * Retains a cleared trie node of the given kind, if there is room.
+     *
+     * @param  kind   kind of trie node.
+     * @param  node   the trie node.
+     * @param  slots  number of slots held by the node.
+     */
+    void releaseNode(int kind, Object node, int slots) {
+        if (retained + slots <= capacity) {
+            nodes[kind].push(node);
+            retained += slots;
+        }
+    }
+
+    /**
+     * Returns a bucket with room for at least the given number of
+     * strings, which when retaining is rounded up to a power of two.
+     *
+     * @param  size  desired size of the bucket.
+     * @return  an empty bucket.
+     */
+    CharSequence[] bucket(int size) {
+        if (capacity == 0) {
+            return new CharSequence[size];
+        }
+        int k = size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+        Object b = buckets[k].pop();
+        if (b != null) {
+            CharSequence[] cs = (CharSequence[]) b;
+            retained -= cs.length;
+            return cs;
+        }
+        return new CharSequence[1 << k];
+    }
+
+    /**
+     * Retains a bucket, if there is room, clearing the references to
+     * the strings it holds.
+     *
+     * @param  bucket  the bucket to be retained.
+     * @param  count   number of strings in the bucket.
+     */
+    void releaseBucket(CharSequence[] bucket, int count) {
+        if (retained + bucket.length <= capacity) {
+            Arrays.fill(bucket, 0, count, null);
+            int k = 31 - Integer.numberOfLeadingZeros(bucket.length);
+            buckets[k].push(bucket);
+            retained += bucket.length;
+        }
+    }
+
+    /**
+     * Returns an empty null bucket of the given size.
+     *
+     * @param  size  size of the null bucket.
+     * @return  empty null bucket.
+     */
+    Object[] nullBucket(int size) {
+        if (capacity == 0) {
+            return new Object[size];
+        }
+        Object b = nullBuckets.pop();
+        if (b != null) {
+            Object[] nb = (Object[]) b;
+            retained -= nb.length;
+            return nb;
+        }
+        return new Object[size];
+    }
+
+    /**
+     * Retains a null bucket, if there is room, clearing the references
+     * it holds.
+     *
+     * @param  bucket  the null bucket to be retained.
+     */
+    void releaseNullBucket(Object[] bucket) {
+        if (retained + bucket.length <= capacity) {
+            Arrays.fill(bucket, null);
+            nullBuckets.push(bucket);
+            retained += bucket.length;
+        }
+    }
+
+    /**
+     * Returns scratch space for at least the given number of characters.
+     * The space is shared by all callers when retaining.
+     *
+     * @param  size  number of characters needed.
+     * @return  character array.
+     */
+    char[] chars(int size) {
+        if (capacity == 0) {
+            return new char[size];
+        }
+        if (chars.length < size) {
+            chars = new char[size];
+        }
+        return chars;
+    }
+
+    /**
+     * Returns scratch space for at least the given number of cached keys,
+     * as used by the bucket sort. The space is shared by all callers when
+     * retaining.
+     *
+     * @param  size  number of keys needed.
+     * @return  long array, or null if nothing is retained, in which
+     *          case the sort allocates its own.
+     */
+    long[] keys(int size) {
+        if (capacity == 0) {
+            return null;
+        }
+        if (keys.length < size) {
+            keys = new long[size];
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a cleared bit set for the Latin-1 characters. The set is
+     * shared by all callers when retaining.
+     *
+     * @return  array of words, all zero.
+     */
+    long[] seen() {
+        if (capacity == 0) {
+            return new long[SEEN_WORDS];
+        }
+        Arrays.fill(seen, 0);
+        return seen;
+    }
+
+    /**
+     * A simple stack of objects, which only allocates when it grows.
+     */
+    private static class Pool {
+        /** The objects in the stack. */
+        private Object[] items = new Object[0];
+        /** Number of objects in the stack. */
+        private int size;
+
+        /**
+         * Removes the most recently added object.
+         *
+         * @return  the object, or null if the stack is empty.
+         */
+        Object pop() {
+            if (size == 0) {
+                return null;
+            }
+            size--;
+            Object o = items[size];
+            items[size] = null;
+            return o;
+        }
+
+        /**
+         * Adds an object to the stack.
+         *
+         * @param  o  object to be added.
+         */
+        void push(Object o) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, Math.max(8, size * 2));
+            }
+            items[size] = o;
+            size++;
+        }
+
+        /**
+         * Removes all of the objects.
+         */
+        void clear() {
+            items = new Object[0];
+            size = 0;
+        }
+    }
+}
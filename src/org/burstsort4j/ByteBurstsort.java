@@ -0,0 +1,309 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.PrintStream;
+import java.util.Stack;
+
+/**
+ * Array-based implementation of the original Burstsort (P-burstsort)
+ * that operates on keys given as byte arrays, rather than character
+ * sequences. The bytes are compared as unsigned values, which for UTF-8
+ * encoded text is the same as ordering by code point. This avoids the
+ * need to decode the input into strings just to sort it, and avoids the
+ * virtual dispatch of {@code CharSequence.charAt()} in the inner loops.
+ *
+ * <p>As with the character-based sorts, a zero byte is treated as the
+ * end of the key.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public class ByteBurstsort {
+    /** Null terminator byte. */
+    private static final int NULLTERM = 0;
+    /** Maximum number of elements in any given bucket; for null bucket set,
+     * this is the size of each of the chained buckets). */
+    private static final short THRESHOLD = 8192;
+    /** Used to store reference to next bucket in last cell of bucket. */
+    private static final short THRESHOLDMINUSONE = THRESHOLD - 1;
+    /** Size of the alphabet that is supported (all byte values). */
+    private static final short ALPHABET = 256;
+    /** Initial size for new buckets. */
+    private static final short BUCKET_START_SIZE = 16;
+    /** The bucket growth factor (replaces the bucket_inc array in the
+     * original C implementation). */
+    private static final short BUCKET_GROWTH_FACTOR = 8;
+
+    /**
+     * Creates a new instance of ByteBurstsort.
+     */
+    private ByteBurstsort() {
+    }
+
+    /**
+     * Retrieve the byte in key s at offset d, as an unsigned value. If d
+     * is greater than or equal to the length of the key, return zero.
+     * This simulates fixed-length keys that are zero-padded.
+     *
+     * @param  s  key.
+     * @param  d  offset.
+     * @return  unsigned byte in s at d, or zero.
+     */
+    private static int byteAt(byte[] s, int d) {
+        return d < s.length ? s[d] & 0xff : NULLTERM;
+    }
+
+    /**
+     * Inserts a set of keys into the burst trie structure, in
+     * preparation for in-order traversal (hence sorting).
+     *
+     * @param  root  root of the structure.
+     * @param  keys  keys to be inserted.
+     */
+    private static void insert(Node root, byte[][] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            // Start at root each time
+            Node curr = root;
+            // Locate trie node in which to insert key
+            int p = 0;
+            int c = byteAt(keys[i], p);
+            while (curr.counts[c] < 0) {
+                curr = (Node) curr.ptrs[c];
+                p++;
+                c = byteAt(keys[i], p);
+            }
+            curr.add(c, keys[i]);
+            // is bucket size above the THRESHOLD?
+            while (curr.counts[c] >= THRESHOLD && c != NULLTERM) {
+                // advance depth of byte
+                p++;
+                // allocate memory for new trie node
+                Node newt = new Node();
+                // burst...
+                int cc = NULLTERM;
+                byte[][] ptrs = (byte[][]) curr.ptrs[c];
+                int size = curr.counts[c];
+                for (int j = 0; j < size; j++) {
+                    // access the next depth byte
+                    cc = byteAt(ptrs[j], p);
+                    newt.add(cc, ptrs[j]);
+                }
+                // old pointer points to the new trie node
+                curr.ptrs[c] = newt;
+                curr.counts[c] = -1;
+                // used to burst recursive, so point curr to new
+                curr = newt;
+                // point to byte used in previous key
+                c = cc;
+            }
+        }
+    }
+
+    /**
+     * Sorts the set of byte keys using the original (P-)burstsort
+     * algorithm, comparing the bytes as unsigned values.
+     *
+     * @param  keys  array of keys to be sorted.
+     */
+    public static void sort(byte[][] keys) {
+        sort(keys, null);
+    }
+
+    /**
+     * Sorts the given set of byte keys using the original (P-)burstsort
+     * algorithm. If the given output stream is non-null, then metrics
+     * regarding the burstsort trie structure will be printed there.
+     *
+     * @param  keys  array of keys to be sorted.
+     * @param  out   if non-null, metrics are printed here.
+     */
+    public static void sort(byte[][] keys, PrintStream out) {
+        if (keys != null && keys.length > 1) {
+            Node root = new Node();
+            insert(root, keys);
+            if (out != null) {
+                writeMetrics(root, out);
+            }
+            traverse(root, keys, 0, 0);
+        }
+    }
+
+    /**
+     * Traverse the trie structure, ordering the keys in the array to
+     * conform to their sorted order as determined by the trie structure.
+     *
+     * @param  node  node within trie structure.
+     * @param  keys  the keys to be ordered.
+     * @param  pos   position within array.
+     * @param  deep  byte offset within keys.
+     * @return  new pos value.
+     */
+    private static int traverse(Node node, byte[][] keys, int pos, int deep) {
+        for (int c = 0; c < ALPHABET; c++) {
+            int count = node.counts[c];
+            if (count < 0) {
+                pos = traverse((Node) node.ptrs[c], keys, pos, deep + 1);
+            } else if (count > 0) {
+                int off = pos;
+                if (c == 0) {
+                    // Visit all of the null buckets, which are daisy-chained
+                    // together with the last reference in each bucket pointing
+                    // to the next bucket in the chain.
+                    int no_of_buckets = (count / THRESHOLDMINUSONE) + 1;
+                    Object[] nullbucket = (Object[]) node.ptrs[c];
+                    for (int k = 1; k <= no_of_buckets; k++) {
+                        int no_elements_in_bucket;
+                        if (k == no_of_buckets) {
+                            no_elements_in_bucket = count % THRESHOLDMINUSONE;
+                        } else {
+                            no_elements_in_bucket = THRESHOLDMINUSONE;
+                        }
+                        // Copy the keys to the sorted array.
+                        System.arraycopy(nullbucket, 0, keys, off, no_elements_in_bucket);
+                        off += no_elements_in_bucket;
+                        nullbucket = (Object[]) nullbucket[no_elements_in_bucket];
+                    }
+                } else {
+                    // Sort the key tail bucket.
+                    byte[][] bucket = (byte[][]) node.ptrs[c];
+                    if (count > 1) {
+                        MultikeyQuicksort.sort(bucket, 0, count, deep + 1);
+                    }
+                    // Copy to final destination.
+                    System.arraycopy(bucket, 0, keys, off, count);
+                }
+                pos += count;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Collect metrics regarding the burstsort trie structure and write
+     * them to the given output stream.
+     *
+     * @param  node  root node of the trie structure.
+     * @param  out   output stream to write to.
+     */
+    private static void writeMetrics(Node node, PrintStream out) {
+        Stack<Node> stack = new Stack<Node>();
+        stack.push(node);
+        int nodes = 0;
+        int consumedKeys = 0;
+        int bucketKeys = 0;
+        int nonEmptyBuckets = 0;
+        int smallest = Integer.MAX_VALUE;
+        int largest = Integer.MIN_VALUE;
+        while (!stack.isEmpty()) {
+            node = stack.pop();
+            nodes++;
+            for (int c = 0; c < ALPHABET; c++) {
+                int count = node.counts[c];
+                if (count < 0) {
+                    stack.push((Node) node.ptrs[c]);
+                } else {
+                    // Only consider non-empty buckets, as there will
+                    // always be empty buckets.
+                    if (count > 0) {
+                        if (c == 0) {
+                            consumedKeys += count;
+                        } else {
+                            bucketKeys += count;
+                        }
+                        if (count < smallest) {
+                            smallest = count;
+                        }
+                        nonEmptyBuckets++;
+                    }
+                    if (count > largest) {
+                        largest = count;
+                    }
+                }
+            }
+        }
+        out.format("Trie nodes: %d\n", nodes);
+        out.format("Total buckets: %d\n", nonEmptyBuckets);
+        out.format("Bucket keys: %d\n", bucketKeys);
+        out.format("Consumed keys: %d\n", consumedKeys);
+        out.format("Smallest bucket: %d\n", smallest);
+        out.format("Largest bucket: %d\n", largest);
+        long sum = consumedKeys + bucketKeys;
+        out.format("Average bucket: %d\n", sum / nonEmptyBuckets);
+    }
+
+    /**
+     * A node in the burst trie structure, consisting of a null tail
+     * pointer bucket and zero or more buckets for the other entries.
+     * Entries may point either to a bucket or another trie node. Since
+     * the alphabet is exactly the range of a byte, the entries are
+     * accessed directly by the trie operations.
+     *
+     * @author  Nathan Fiedler
+     */
+    private static class Node {
+        /** Reference to the last null bucket in the chain, starting
+         * from the reference in ptrs[0]. */
+        private Object[] nulltailptr;
+        /** last element in null bucket */
+        private int nulltailidx;
+        /** count of items in bucket, or -1 if reference to trie node */
+        private final int[] counts = new int[ALPHABET];
+        /** pointers to buckets or trie node */
+        private final Object[] ptrs = new Object[ALPHABET];
+
+        /**
+         * Add the given key into the appropriate bucket, given the
+         * byte index into the trie. The byte may be the null byte, in
+         * which case the key is added to the null bucket. Buckets are
+         * expanded as needed to accomodate the new key.
+         *
+         * @param  c  unsigned byte used to index trie entry.
+         * @param  s  the key to be inserted.
+         */
+        public void add(int c, byte[] s) {
+            if (c == NULLTERM) {
+                // are buckets already created?
+                if (counts[c] < 1) {
+                    nulltailptr = new Object[THRESHOLD];
+                    ptrs[c] = nulltailptr;
+                    nulltailptr[0] = s;
+                    nulltailidx = 1;
+                    counts[c]++;
+                } else {
+                    nulltailptr[nulltailidx] = s;
+                    nulltailidx++;
+                    counts[c]++;
+                    // check if the bucket is reaching the threshold
+                    if (counts[c] % THRESHOLDMINUSONE == 0) {
+                        // Grow the null bucket by daisy chaining a new array.
+                        Object[] tmp = new Object[THRESHOLD];
+                        nulltailptr[nulltailidx] = tmp;
+                        nulltailptr = tmp;
+                        nulltailidx = 0;
+                    }
+                }
+            } else if (counts[c] < 1) {
+                // create bucket
+                byte[][] bs = new byte[BUCKET_START_SIZE][];
+                bs[0] = s;
+                ptrs[c] = bs;
+                counts[c]++;
+            } else {
+                // Insert key in bucket and increment the item counter.
+                byte[][] bs = (byte[][]) ptrs[c];
+                bs[counts[c]] = s;
+                counts[c]++;
+                // If the bucket is full, increase its size, but only
+                // up to the threshold value.
+                if (counts[c] < THRESHOLD && counts[c] == bs.length) {
+                    byte[][] tmp = new byte[bs.length * BUCKET_GROWTH_FACTOR][];
+                    System.arraycopy(bs, 0, tmp, 0, bs.length);
+                    ptrs[c] = tmp;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+/**
+ * A multikey quicksort that keeps the next few characters of each string
+ * in a parallel array of primitive keys, in the style of the caching
+ * multikey quicksort of W. Ng and K. Kakehi ("Cache Efficient Radix Sort
+ * for String Sorting", 2007). The partitioning steps compare the cached
+ * keys, which are held contiguously in memory, rather than reading the
+ * characters from each string again at every step. The keys hold four
+ * characters each, so the strings are partitioned four characters at a
+ * time, and the keys are refilled in bulk only when the equal partition
+ * moves on to the next four characters.
+ *
+ * <p>As with {@link MultikeyQuicksort}, a null character is taken to end
+ * a string. This sort is used for the buckets of the burstsorts.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public class CachingMultikeyQuicksort {
+
+    /** Ranges of fewer than this many strings are sorted by insertion
+     * sort (on the cached keys). */
+    private static final int THRESHOLD = 16;
+    /** Number of characters held in each key. */
+    private static final int CACHED = 4;
+    /** Mask for the last character of a key, which is zero if the string
+     * ends within the key. */
+    private static final long LAST = 0xFFFFL;
+
+    /**
+     * Creates a new instance of CachingMultikeyQuicksort.
+     */
+    private CachingMultikeyQuicksort() {
+    }
+
+    /**
+     * Retrieve the character in string s at offset d. If d is greater
+     * than or equal to the length of the string, return zero. This
+     * simulates fixed-length strings that are zero-padded.
+     *
+     * @param  s  string.
+     * @param  d  offset.
+     * @return  character in s at d, or zero.
+     */
+    private static char charAt(CharSequence s, int d) {
+        return d < s.length() ? s.charAt(d) : 0;
+    }
+
+    /**
+     * Builds the key for the characters of the string starting at the
+     * given offset. The characters are packed with the first in the most
+     * significant position, and the sign bit flipped, such that signed
+     * comparison of the keys matches the order of the characters. Any
+     * characters following the end of the string are zero.
+     *
+     * @param  s  string.
+     * @param  d  offset of the first character.
+     * @return  key for the characters.
+     */
+    private static long key(CharSequence s, int d) {
+        int len = s.length();
+        long k = 0;
+        int i = 0;
+        while (i < CACHED && d + i < len) {
+            char c = s.charAt(d + i);
+            if (c == 0) {
+                break;
+            }
+            k = (k << 16) | c;
+            i++;
+        }
+        k <<= 16 * (CACHED - i);
+        return k ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Sorts the array of strings using a caching multikey quicksort.
+     *
+     * @param  strings  array of strings to be sorted.
+     */
+    public static void sort(CharSequence[] strings) {
+        if (strings != null && strings.length > 1) {
+            sort(strings, 0, strings.length, 0, null);
+        }
+    }
+
+    /**
+     * Sorts the array of strings using a caching multikey quicksort.
+     *
+     * <p>Only characters in the strings starting from the given offset
+     * <em>depth</em> are considered. That is, the method will ignore all
+     * characters appearing before the <em>depth</em> character.</p>
+     *
+     * @param  strings  array of strings to sort.
+     * @param  low      low offset into the array (inclusive).
+     * @param  high     high offset into the array (exclusive).
+     * @param  depth    offset of first character in each string to compare.
+     */
+    public static void sort(CharSequence[] strings, int low, int high, int depth) {
+        sort(strings, low, high, depth, null);
+    }
+
+    /**
+     * Sorts the range of strings using a caching multikey quicksort,
+     * with the keys held in the given scratch space, which is allocated
+     * if null or too small.
+     *
+     * @param  strings  array of strings to sort.
+     * @param  low      low offset into the array (inclusive).
+     * @param  high     high offset into the array (exclusive).
+     * @param  depth    offset of first character in each string to compare.
+     * @param  cache    scratch space for the keys (may be null).
+     */
+    static void sort(CharSequence[] strings, int low, int high, int depth,
+            long[] cache) {
+        if (strings != null && low >= 0 && high - low > 1 && depth >= 0) {
+            int n = high - low;
+            if (cache == null || cache.length < n) {
+                cache = new long[n];
+            }
+            fill(strings, cache, low, n, depth, low);
+            ssort(strings, cache, low, n, depth, low);
+        }
+    }
+
+    /**
+     * Sets the keys for a range of strings.
+     *
+     * @param  a      the array of strings.
+     * @param  k      the keys, where the key of a[i] is k[i - shift].
+     * @param  base   first string in the range.
+     * @param  n      number of strings in the range.
+     * @param  depth  offset of the first character of each key.
+     * @param  shift  offset of the keys relative to the strings.
+     */
+    private static void fill(CharSequence[] a, long[] k, int base, int n,
+            int depth, int shift) {
+        for (int i = base; i < base + n; i++) {
+            k[i - shift] = key(a[i], depth);
+        }
+    }
+
+    /**
+     * Swap the elements between to subarrays, along with their keys.
+     *
+     * @param  a      the array of elements.
+     * @param  k      the keys, where the key of a[i] is k[i - shift].
+     * @param  i      offset of first subarray.
+     * @param  j      offset of second subarray.
+     * @param  n      number of elements to swap.
+     * @param  shift  offset of the keys relative to the strings.
+     */
+    private static void vecswap(CharSequence[] a, long[] k, int i, int j,
+            int n, int shift) {
+        while (n-- > 0) {
+            swap(a, k, i, j, shift);
+            i++;
+            j++;
+        }
+    }
+
+    /**
+     * Swaps two strings along with their keys.
+     *
+     * @param  a      the array of strings.
+     * @param  k      the keys, where the key of a[i] is k[i - shift].
+     * @param  i      first position.
+     * @param  j      second position.
+     * @param  shift  offset of the keys relative to the strings.
+     */
+    private static void swap(CharSequence[] a, long[] k, int i, int j, int shift) {
+        CharSequence t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+        long u = k[i - shift];
+        k[i - shift] = k[j - shift];
+        k[j - shift] = u;
+    }
+
+    /**
+     * Find the median of three keys. One of the three positions will be
+     * returned based on the comparisons.
+     *
+     * @param  k      the keys.
+     * @param  l      low index.
+     * @param  m      middle index.
+     * @param  h      high index.
+     * @return  the position of the median key.
+     */
+    private static int med3(long[] k, int l, int m, int h) {
+        long va = k[l];
+        long vb = k[m];
+        if (va == vb) {
+            return l;
+        }
+        long vc = k[h];
+        if (vc == va || vc == vb) {
+            return h;
+        }
+        return va < vb ? (vb < vc ? m : (va < vc ? h : l))
+                : (vb > vc ? m : (va < vc ? l : h));
+    }
+
+    /**
+     * Tests if the first string belongs after the second, comparing the
+     * cached keys first, and then the characters that follow the keys.
+     *
+     * @param  a      the array of strings.
+     * @param  k      the keys, where the key of a[i] is k[i - shift].
+     * @param  i      position of the first string.
+     * @param  j      position of the second string.
+     * @param  depth  offset of the first character of the keys.
+     * @param  shift  offset of the keys relative to the strings.
+     * @return  true if the first string is greater than the second.
+     */
+    private static boolean greater(CharSequence[] a, long[] k, int i, int j,
+            int depth, int shift) {
+        long ki = k[i - shift];
+        long kj = k[j - shift];
+        if (ki != kj) {
+            return ki > kj;
+        }
+        if ((ki & LAST) == 0) {
+            // Both strings end within the key.
+            return false;
+        }
+        int idx = depth + CACHED;
+        char s = charAt(a[i], idx);
+        char t = charAt(a[j], idx);
+        while (s == t && s != 0) {
+            idx++;
+            s = charAt(a[i], idx);
+            t = charAt(a[j], idx);
+        }
+        return s > t;
+    }
+
+    /**
+     * The recursive portion of the caching multikey quicksort. Each step
+     * partitions the strings by their keys; the lesser and greater
+     * partitions are sorted at the same depth, with their keys as they
+     * are, while the equal partition moves on to the next characters,
+     * unless the strings end within the key.
+     *
+     * @param  a      the array of strings to sort.
+     * @param  k      the keys, where the key of a[i] is k[i - shift].
+     * @param  base   zero-based offset into array to be considered.
+     * @param  n      length of subarray to consider.
+     * @param  depth  offset of the first character of the keys.
+     * @param  shift  offset of the keys relative to the strings.
+     */
+    private static void ssort(CharSequence[] a, long[] k, int base, int n,
+            int depth, int shift) {
+        if (n < THRESHOLD) {
+            for (int i = base + 1; i < base + n; i++) {
+                for (int j = i; j > base && greater(a, k, j - 1, j, depth, shift); j--) {
+                    swap(a, k, j - 1, j, shift);
+                }
+            }
+            return;
+        }
+        int kb = base - shift;
+        int pl = kb;
+        int pm = kb + n / 2;
+        int pn = kb + n - 1;
+        if (n > 30) {
+            // On larger arrays, find a pseudo median of nine elements.
+            int d = n / 8;
+            pl = med3(k, kb, kb + d, kb + 2 * d);
+            pm = med3(k, kb + n / 2 - d, pm, kb + n / 2 + d);
+            pn = med3(k, kb + n - 1 - 2 * d, kb + n - 1 - d, pn);
+        }
+        pm = med3(k, pl, pm, pn);
+        swap(a, k, base, pm + shift, shift);
+        long v = k[kb];
+        int le = base + 1, lt = le;
+        int gt = base + n - 1, ge = gt;
+        while (true) {
+            for (; lt <= gt; lt++) {
+                long x = k[lt - shift];
+                if (x > v) {
+                    break;
+                }
+                if (x == v) {
+                    swap(a, k, le, lt, shift);
+                    le++;
+                }
+            }
+            for (; lt <= gt; gt--) {
+                long x = k[gt - shift];
+                if (x < v) {
+                    break;
+                }
+                if (x == v) {
+                    swap(a, k, gt, ge, shift);
+                    ge--;
+                }
+            }
+            if (lt > gt) {
+                break;
+            }
+            swap(a, k, lt, gt, shift);
+            lt++;
+            gt--;
+        }
+        int pe = base + n;
+        int r = Math.min(le - base, lt - le);
+        vecswap(a, k, base, lt - r, r, shift);
+        r = Math.min(ge - gt, pe - ge - 1);
+        vecswap(a, k, lt, pe - r, r, shift);
+        int less = lt - le;
+        int equal = le + n - ge - 1;
+        int greater = ge - gt;
+        if (less > 1) {
+            ssort(a, k, base, less, depth, shift);
+        }
+        if (equal > 1 && (v & LAST) != 0) {
+            // Only descend if the strings continue past the key.
+            fill(a, k, base + less, equal, depth + CACHED, shift);
+            ssort(a, k, base + less, equal, depth + CACHED, shift);
+        }
+        if (greater > 1) {
+            ssort(a, k, base + n - greater, greater, depth, shift);
+        }
+    }
+}
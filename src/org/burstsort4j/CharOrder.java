@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.Comparator;
+
+/**
+ * Defines the order of the characters for the string sorts, as a table
+ * that gives the rank of each UTF-16 code unit. The sorts compare the
+ * ranks in place of the characters themselves, so strings may be put in
+ * a case-insensitive or custom alphabetic order without making altered
+ * copies of the strings. Characters with the same rank are considered
+ * equal. The end of a string always ranks below every character, such
+ * that a string precedes all longer strings of which it is a prefix.
+ *
+ * <p>An order may also be descending, in which case the result of the
+ * sort is the exact reverse of the ascending order. Note that equal
+ * strings are then also in the reverse of their ascending order.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public final class CharOrder implements Comparator<CharSequence> {
+    /** Number of UTF-16 code units. */
+    private static final int CHARSET = 65536;
+    /** The order of the code units themselves, which the sorts handle
+     * without consulting a table. */
+    public static final CharOrder NATURAL = new CharOrder(null, "natural");
+    /** Order that ignores the case of the characters, comparing the lower
+     * case form of the upper case form of each character, as does
+     * {@link String#CASE_INSENSITIVE_ORDER} (though surrogate pairs are
+     * compared as code units, without regard to case). */
+    public static final CharOrder CASE_INSENSITIVE = new CharOrder(
+            foldCase(), "case-insensitive");
+    /** Rank of each code unit, or null for the natural order. */
+    final char[] ranks;
+    /** True if the strings are to be in descending order. */
+    private final boolean descending;
+    /** The same order in the opposite direction. */
+    private final CharOrder reverse;
+    /** Description of the order. */
+    private final String name;
+
+    /**
+     * Creates a new ascending instance of CharOrder, along with its
+     * descending counterpart.
+     *
+     * @param  ranks  rank of each code unit, or null for natural order.
+     * @param  name   description of the order.
+     */
+    private CharOrder(char[] ranks, String name) {
+        this.ranks = ranks;
+        this.name = name;
+        descending = false;
+        reverse = new CharOrder(this);
+    }
+
+    /**
+     * Creates the descending counterpart of the given order.
+     *
+     * @param  ascending  the ascending order.
+     */
+    private CharOrder(CharOrder ascending) {
+        ranks = ascending.ranks;
+        name = ascending.name + ", descending";
+        descending = true;
+        reverse = ascending;
+    }
+
+    /**
+     * Builds the table for the case-insensitive order.
+     *
+     * @return  rank of each code unit.
+     */
+    private static char[] foldCase() {
+        char[] ranks = new char[CHARSET];
+        for (int c = 1; c < CHARSET; c++) {
+            char r = Character.toLowerCase(Character.toUpperCase((char) c));
+            // Never fold a character into the end of the string.
+            ranks[c] = r == 0 ? (char) c : r;
+        }
+        return ranks;
+    }
+
+    /**
+     * Creates an order in which the characters of the given alphabet come
+     * first, in the order given, followed by all other characters in
+     * their natural order.
+     *
+     * @param  alphabet  characters in the desired order.
+     * @return  the new order.
+     * @throws  IllegalArgumentException  if the alphabet contains the null
+     *          character, or any character more than once.
+     */
+    public static CharOrder forAlphabet(CharSequence alphabet) {
+        char[] ranks = new char[CHARSET];
+        int rank = 1;
+        for (int i = 0; i < alphabet.length(); i++) {
+            char c = alphabet.charAt(i);
+            if (c == 0) {
+                throw new IllegalArgumentException("alphabet contains null character");
+            }
+            if (ranks[c] != 0) {
+                throw new IllegalArgumentException("alphabet repeats '" + c + "'");
+            }
+            ranks[c] = (char) rank;
+            rank++;
+        }
+        for (int c = 1; c < CHARSET; c++) {
+            if (ranks[c] == 0) {
+                ranks[c] = (char) rank;
+                rank++;
+            }
+        }
+        return new CharOrder(ranks, "alphabet " + alphabet);
+    }
+
+    /**
+     * Creates an order from a table giving the rank of every code unit.
+     * The table is copied.
+     *
+     * @param  ranks  rank of each of the 65536 code units; the null
+     *                character must have rank zero, and no other.
+     * @return  the new order.
+     * @throws  IllegalArgumentException  if the table is of the wrong
+     *          size, or gives a zero rank to any character but null.
+     */
+    public static CharOrder forRanks(char[] ranks) {
+        if (ranks.length != CHARSET) {
+            throw new IllegalArgumentException("ranks must have 65536 entries");
+        }
+        if (ranks[0] != 0) {
+            throw new IllegalArgumentException("null character must have rank zero");
+        }
+        for (int c = 1; c < CHARSET; c++) {
+            if (ranks[c] == 0) {
+                throw new IllegalArgumentException("character " + c + " has rank zero");
+            }
+        }
+        return new CharOrder(ranks.clone(), "custom");
+    }
+
+    /**
+     * Returns this order in the opposite direction.
+     *
+     * @return  the reverse order.
+     */
+    public CharOrder reversed() {
+        return reverse;
+    }
+
+    /**
+     * Returns this order in the ascending direction.
+     *
+     * @return  the ascending order.
+     */
+    CharOrder ascending() {
+        return descending ? reverse : this;
+    }
+
+    /**
+     * Indicates if the strings are to be in descending order.
+     *
+     * @return  true if descending, false if ascending.
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Indicates if the characters are ranked by their own value.
+     *
+     * @return  true if the order is natural (ascending or descending).
+     */
+    public boolean isNatural() {
+        return ranks == null;
+    }
+
+    /**
+     * Returns the rank of the given character.
+     *
+     * @param  c  the character.
+     * @return  rank of the character.
+     */
+    public char rank(char c) {
+        return ranks == null ? c : ranks[c];
+    }
+
+    /**
+     * Returns the rank of the character in string s at offset d. If d is
+     * greater than or equal to the length of the string, return zero.
+     *
+     * @param  s  string.
+     * @param  d  offset.
+     * @return  rank of the character in s at d, or zero.
+     */
+    char rankAt(CharSequence s, int d) {
+        if (d < s.length()) {
+            char c = s.charAt(d);
+            return ranks == null ? c : ranks[c];
+        }
+        return 0;
+    }
+
+    /**
+     * Compares two strings by the rank of their characters, starting at
+     * the given offset, taking the direction of the order into account.
+     *
+     * @param  a      first string.
+     * @param  b      second string.
+     * @param  depth  offset of the first character to compare.
+     * @return  negative if a comes before b, positive if after, or zero
+     *          if they are equal in this order.
+     */
+    int compare(CharSequence a, CharSequence b, int depth) {
+        int idx = depth;
+        char s = rankAt(a, idx);
+        char t = rankAt(b, idx);
+        while (s == t && s != 0) {
+            idx++;
+            s = rankAt(a, idx);
+            t = rankAt(b, idx);
+        }
+        return descending ? t - s : s - t;
+    }
+
+    @Override
+    public int compare(CharSequence a, CharSequence b) {
+        return compare(a, b, 0);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -8,8 +8,6 @@ package org.burstsort4j;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Observable;
-import java.util.Observer;
 import java.util.Queue;
 
 /**
@@ -21,13 +19,17 @@ import java.util.Queue;
  * the threads modifies the buffer structurally, it must be synchronized
  * externally.</p>
  *
+ * <p>A buffer may have a {@link Source}, which is called directly to
+ * refill the buffer whenever it becomes empty. This is how the funnel
+ * mergers pull more elements from upstream as they consume them.</p>
+ *
  * @param  <E>  type of elements in the buffer.
  * @author Nathan Fiedler
  */
 public class CircularBuffer<E> implements Collection, Queue {
 
-    /** Observable for notifying listeners of changes. */
-    private final BufferObservable observable;
+    /** Called to refill the buffer when it becomes empty, if any. */
+    private Source source;
     /** The circular buffer. */
     private final Object[] buffer;
     /** Lower limit within the buffer, equal to the first usable position. */
@@ -50,7 +52,6 @@ public class CircularBuffer<E> implements Collection, Queue {
      * @param  capacity  maximum number of valid elements to contain.
      */
     public CircularBuffer(int capacity) {
-        observable = new BufferObservable(this);
         buffer = new Object[capacity];
         lower = 0;
         upper = capacity;
@@ -94,7 +95,6 @@ public class CircularBuffer<E> implements Collection, Queue {
      *                  otherwise the given array will be used as-is.
      */
     public CircularBuffer(E[] initial, int offset, int count, boolean copy) {
-        observable = new BufferObservable(this);
         if (copy) {
             buffer = new Object[count];
             System.arraycopy(initial, offset, buffer, 0, count);
@@ -133,21 +133,6 @@ public class CircularBuffer<E> implements Collection, Queue {
         return true;
     }
 
-    /**
-     * Adds an observer to the set of observers for this object, provided
-     * that it is not the same as some observer already in the set. The
-     * order in which notifications will be delivered to multiple observers
-     * is not specified. See the class comment.
-     *
-     * <p>The {@code Observer} will be notified when this buffer becomes
-     * empty (that is, the last element is removed).</p>
-     *
-     * @param  o  an observer to be added.
-     */
-    public void addObserver(Observer o) {
-        observable.addObserver(o);
-    }
-
     /**
      * Returns the total number of elements this buffer can hold (the same
      * value passed to the constructor).
@@ -218,7 +203,9 @@ public class CircularBuffer<E> implements Collection, Queue {
         start = lower;
         end = lower;
         count = 0;
-        observable.setAndNotify();
+        if (source != null) {
+            source.refill();
+        }
     }
 
     @Override
@@ -299,8 +286,8 @@ public class CircularBuffer<E> implements Collection, Queue {
         }
         sink.count += n;
         count -= n;
-        if (count == 0) {
-            observable.setAndNotify();
+        if (count == 0 && source != null) {
+            source.refill();
         }
     }
 
@@ -322,8 +309,8 @@ public class CircularBuffer<E> implements Collection, Queue {
         if (start == upper) {
             start = lower;
         }
-        if (count == 0) {
-            observable.setAndNotify();
+        if (count == 0 && source != null) {
+            source.refill();
         }
         return (E) o;
     }
@@ -340,22 +327,12 @@ public class CircularBuffer<E> implements Collection, Queue {
         if (start == upper) {
             start = lower;
         }
-        if (count == 0) {
-            observable.setAndNotify();
+        if (count == 0 && source != null) {
+            source.refill();
         }
         return (E) o;
     }
 
-    /**
-     * Deletes an observer from the set of observers of this object.
-     * Passing {@code null} to this method will have no effect. 
-     *
-     * @param  o  the observer to be removed.
-     */
-    public void removeObserver(Observer o) {
-        observable.deleteObserver(o);
-    }
-
     /**
      * Returns the number of empty spaces within this buffer (i.e. how many
      * times {@link #add(Object)} can be called before the buffer is full).
@@ -391,34 +368,42 @@ public class CircularBuffer<E> implements Collection, Queue {
         throw new UnsupportedOperationException("Use drain() instead.");
     }
 
+    /**
+     * Returns the source that refills this buffer when it becomes empty.
+     *
+     * @return  the source, or null if none.
+     */
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * Sets the source that is to refill this buffer whenever it becomes
+     * empty (that is, the last element is removed), replacing any source
+     * that was set before. The source is called directly by the thread
+     * that emptied the buffer, before the emptying method returns.
+     *
+     * @param  source  the source, or null for none.
+     */
+    public void setSource(Source source) {
+        this.source = source;
+    }
+
     @Override
     public int size() {
         return count;
     }
 
     /**
-     * An {@code Observable} that makes it convenient to set the state as
-     * changed and notify the listeners, passing them a reference to the
-     * CircularBuffer associated with this instance.
+     * Supplies elements to a buffer, which calls upon its source each
+     * time it becomes empty.
      */
-    private static class BufferObservable extends Observable {
-
-        /** The buffer whose state changes from time to time. */
-        private CircularBuffer buffer;
-
-        /**
-         * @param  buffer  circular buffer to send to listeners.
-         */
-        public BufferObservable(CircularBuffer buffer) {
-            this.buffer = buffer;
-        }
+    public static interface Source {
 
         /**
-         * Set the observable state to changed and notify listeners.
+         * Adds elements to the buffer that has just become empty, if
+         * any more elements are available.
          */
-        public void setAndNotify() {
-            setChanged();
-            notifyObservers(buffer);
-        }
+        void refill();
     }
 }
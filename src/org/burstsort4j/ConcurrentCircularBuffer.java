@@ -0,0 +1,287 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded circular buffer for passing elements from one thread to
+ * another, without locks. Exactly one thread may add elements (the
+ * producer) and exactly one other thread may remove them (the consumer).
+ * Elements are transferred in batches, such that the two threads need
+ * only synchronize once per batch, rather than once per element.
+ *
+ * <p>The producer signals the end of the stream with {@link #close()},
+ * or {@link #fail(Throwable)} if it cannot continue, while the consumer
+ * may give up early with {@link #cancel()}. A thread that must wait for
+ * the other (the buffer being empty or full) is parked until woken.</p>
+ *
+ * @param  <E>  type of elements in the buffer.
+ * @author Nathan Fiedler
+ */
+public class ConcurrentCircularBuffer<E> {
+
+    /** Number of times to check again before parking the thread. */
+    private static final int SPINS = 64;
+    /** The circular buffer. */
+    private final Object[] buffer;
+    /** Mask for converting a count into a position in the buffer. */
+    private final int mask;
+    /** Number of elements ever removed, written by the consumer. */
+    private final AtomicLong head = new AtomicLong();
+    /** Number of elements ever added, written by the producer. */
+    private final AtomicLong tail = new AtomicLong();
+    /** The producer's last reading of the head. */
+    private long headCache;
+    /** The consumer's last reading of the tail. */
+    private long tailCache;
+    /** True once the producer has finished adding elements. */
+    private volatile boolean closed;
+    /** True once the consumer has stopped removing elements. */
+    private volatile boolean cancelled;
+    /** The reason the producer failed, if it did. */
+    private volatile Throwable failure;
+    /** The producer, if it is waiting for space. */
+    private volatile Thread waitingProducer;
+    /** The consumer, if it is waiting for elements. */
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Constructs a new instance of ConcurrentCircularBuffer with at least
+     * the given capacity (rounded up to a power of two).
+     *
+     * @param  capacity  minimum number of elements to hold.
+     * @throws  IllegalArgumentException  if capacity is less than one.
+     */
+    public ConcurrentCircularBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        buffer = new Object[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the number of elements the buffer can hold.
+     *
+     * @return  capacity of the buffer.
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Adds the given elements to the buffer, waiting for space as needed.
+     * To be called only by the producer.
+     *
+     * @param  elements  array containing the elements.
+     * @param  offset    first position within array to be added.
+     * @param  count     number of elements from offset to be added.
+     * @throws  CancellationException  if the consumer has cancelled.
+     * @throws  IllegalStateException  if the buffer has been closed.
+     */
+    public void put(E[] elements, int offset, int count) {
+        if (closed) {
+            throw new IllegalStateException("buffer is closed");
+        }
+        long t = tail.get();
+        while (count > 0) {
+            long free = buffer.length - (t - headCache);
+            if (free < count) {
+                // The cached head may be out of date.
+                headCache = head.get();
+                free = buffer.length - (t - headCache);
+                if (free == 0) {
+                    awaitSpace(t);
+                    free = buffer.length - (t - headCache);
+                }
+            }
+            int n = (int) Math.min(free, count);
+            int p = (int) t & mask;
+            int first = Math.min(n, buffer.length - p);
+            System.arraycopy(elements, offset, buffer, p, first);
+            System.arraycopy(elements, offset + first, buffer, 0, n - first);
+            offset += n;
+            count -= n;
+            t += n;
+            tail.set(t);
+            Thread waiter = waitingConsumer;
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    /**
+     * Waits for the consumer to make space in the buffer.
+     *
+     * @param  t  the current tail.
+     * @throws  CancellationException  if the consumer has cancelled.
+     */
+    private void awaitSpace(long t) {
+        int spins = 0;
+        while (true) {
+            headCache = head.get();
+            if (t - headCache < buffer.length) {
+                return;
+            }
+            if (cancelled) {
+                throw new CancellationException("consumer cancelled");
+            }
+            if (spins < SPINS) {
+                spins++;
+                Thread.yield();
+            } else {
+                waitingProducer = Thread.currentThread();
+                // Check again, as the consumer may have removed elements
+                // before seeing that the producer was waiting.
+                headCache = head.get();
+                if (t - headCache == buffer.length && !cancelled) {
+                    LockSupport.park(this);
+                }
+                waitingProducer = null;
+            }
+        }
+    }
+
+    /**
+     * Removes elements from the buffer, waiting until at least one is
+     * available or the stream has ended. To be called only by the consumer.
+     *
+     * @param  elements  array to receive the elements.
+     * @param  offset    first position within array to be filled.
+     * @param  count     maximum number of elements to remove.
+     * @return  the number of elements removed, or -1 if the producer has
+     *          closed the buffer and every element has been removed.
+     * @throws  RuntimeException  if the producer failed, with the reason
+     *          for the failure as its cause.
+     */
+    public int take(E[] elements, int offset, int count) {
+        long h = head.get();
+        if (tailCache - h < count) {
+            // The cached tail may be out of date.
+            tailCache = tail.get();
+            if (tailCache == h && !awaitElements(h)) {
+                return -1;
+            }
+        }
+        int n = (int) Math.min(tailCache - h, count);
+        int p = (int) h & mask;
+        int first = Math.min(n, buffer.length - p);
+        System.arraycopy(buffer, p, elements, offset, first);
+        System.arraycopy(buffer, 0, elements, offset + first, n - first);
+        // Release the references so they can be garbage collected.
+        clear(p, first);
+        clear(0, n - first);
+        head.set(h + n);
+        Thread waiter = waitingProducer;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+        return n;
+    }
+
+    /**
+     * Sets a range of the buffer to null.
+     *
+     * @param  from   first position to be cleared.
+     * @param  count  number of positions to be cleared.
+     */
+    private void clear(int from, int count) {
+        for (int ii = from, end = from + count; ii < end; ii++) {
+            buffer[ii] = null;
+        }
+    }
+
+    /**
+     * Waits for the producer to add elements or close the buffer.
+     *
+     * @param  h  the current head.
+     * @return  true if elements are available, false if the stream ended.
+     */
+    private boolean awaitElements(long h) {
+        int spins = 0;
+        while (true) {
+            // Read the flag before the tail, such that a closed buffer
+            // is known to have all of its elements visible.
+            boolean done = closed;
+            tailCache = tail.get();
+            if (tailCache != h) {
+                return true;
+            }
+            if (done) {
+                Throwable t = failure;
+                if (t != null) {
+                    throw new RuntimeException("producer failed", t);
+                }
+                return false;
+            }
+            if (spins < SPINS) {
+                spins++;
+                Thread.yield();
+            } else {
+                waitingConsumer = Thread.currentThread();
+                // Check again, as the producer may have added elements
+                // before seeing that the consumer was waiting.
+                if (tail.get() == h && !closed) {
+                    LockSupport.park(this);
+                }
+                waitingConsumer = null;
+            }
+        }
+    }
+
+    /**
+     * Signals that no more elements will be added. The consumer will
+     * still receive the elements that remain in the buffer.
+     */
+    public void close() {
+        closed = true;
+        Thread waiter = waitingConsumer;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Signals that the producer has failed, such that the consumer will
+     * receive an exception once the buffer is empty.
+     *
+     * @param  cause  the reason for the failure.
+     */
+    public void fail(Throwable cause) {
+        failure = cause;
+        close();
+    }
+
+    /**
+     * Signals that the consumer will remove no more elements, such that
+     * the producer will receive a {@code CancellationException} rather
+     * than waiting for space that will never come.
+     */
+    public void cancel() {
+        cancelled = true;
+        Thread waiter = waitingProducer;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Indicates if the consumer has cancelled.
+     *
+     * @return  true if cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,616 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.PrintStream;
+import java.util.Stack;
+
+/**
+ * Array-based implementation of the copy-based Burstsort, referred to
+ * as CP-burstsort, as described by Sinha, Zobel, and Ring in "Cache-
+ * efficient string sorting using copying". Rather than holding references
+ * to the strings, each bucket holds a copy of the unconsumed suffix of
+ * each string, packed into a single character array, along with a
+ * reference back to the original string. Bursting and the sorting of the
+ * buckets then operate on contiguous memory, avoiding the cache misses
+ * incurred by accessing the characters of each string through a pointer.
+ *
+ * <p>The full range of UTF-16 code units is supported, in the same manner
+ * as in {@link Burstsort}.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public class CopyBurstsort {
+    /** Null terminator character. */
+    private static final char NULLTERM = '\0';
+    /** Maximum number of strings in any given bucket (except the null
+     * bucket, which is never burst). */
+    private static final short THRESHOLD = 8192;
+    /** Size of the alphabet held directly in each trie node (Latin-1);
+     * the remaining characters are held in pages of the same size. */
+    private static final short ALPHABET = 256;
+    /** Number of bits in the character offset within a page. */
+    private static final int PAGE_SHIFT = 8;
+    /** Number of pages needed to cover all UTF-16 code units. */
+    private static final int PAGES = 256;
+    /** Size of the complete character set (all UTF-16 code units). */
+    private static final int CHARSET = ALPHABET * PAGES;
+    /** Initial number of strings for new buckets. */
+    private static final short BUCKET_START_SIZE = 16;
+    /** Initial number of characters for new buckets. */
+    private static final short BUCKET_START_CHARS = 256;
+    /** The bucket growth factor. */
+    private static final short BUCKET_GROWTH_FACTOR = 2;
+    /** Subarrays smaller than this are sorted using insertion sort. */
+    private static final int INSERTSORT_THRESHOLD = 16;
+
+    /**
+     * Creates a new instance of CopyBurstsort.
+     */
+    private CopyBurstsort() {
+    }
+
+    /**
+     * Retrieve the character in string s at offset d. If d is greater
+     * than or equal to the length of the string, return zero. This
+     * simulates fixed-length strings that are zero-padded.
+     *
+     * @param  s  string.
+     * @param  d  offset.
+     * @return  character in s at d, or zero.
+     */
+    private static char charAt(CharSequence s, int d) {
+        return d < s.length() ? s.charAt(d) : NULLTERM;
+    }
+
+    /**
+     * Inserts a set of strings into the burst trie structure, in
+     * preparation for in-order traversal (hence sorting).
+     *
+     * @param  root     root of the structure.
+     * @param  strings  strings to be inserted.
+     */
+    private static void insert(Node root, CharSequence[] strings) {
+        for (int i = 0; i < strings.length; i++) {
+            CharSequence s = strings[i];
+            // Start at root each time
+            Node curr = root;
+            // Locate trie node in which to insert string
+            int p = 0;
+            char c = charAt(s, p);
+            Object o = curr.get(c);
+            while (o instanceof Node) {
+                curr = (Node) o;
+                p++;
+                c = charAt(s, p);
+                o = curr.get(c);
+            }
+            Bucket bucket = (Bucket) o;
+            if (bucket == null) {
+                bucket = new Bucket(c == NULLTERM);
+                curr.set(c, bucket);
+            }
+            if (c == NULLTERM) {
+                bucket.add(s);
+            } else {
+                bucket.add(s, p + 1);
+            }
+            // is bucket size above the THRESHOLD?
+            while (bucket.count >= THRESHOLD && c != NULLTERM) {
+                // allocate memory for new trie node
+                Node newt = new Node();
+                // burst, distributing the suffixes by their first character
+                char cc = NULLTERM;
+                Bucket last = null;
+                char[] data = bucket.data;
+                int pos = 0;
+                for (int j = 0; j < bucket.count; j++) {
+                    cc = data[pos];
+                    last = (Bucket) newt.get(cc);
+                    if (last == null) {
+                        last = new Bucket(cc == NULLTERM);
+                        newt.set(cc, last);
+                    }
+                    if (cc == NULLTERM) {
+                        last.add(bucket.refs[j]);
+                        pos++;
+                    } else {
+                        pos = last.copy(bucket.refs[j], data, pos + 1);
+                    }
+                }
+                // old pointer points to the new trie node
+                curr.set(c, newt);
+                // used to burst recursive, so point curr to new
+                curr = newt;
+                // point to character used in previous string
+                c = cc;
+                bucket = last;
+            }
+        }
+    }
+
+    /**
+     * Sorts the set of strings using the copy-based (CP-)burstsort
+     * algorithm.
+     *
+     * @param  strings  array of strings to be sorted.
+     */
+    public static void sort(CharSequence[] strings) {
+        sort(strings, null);
+    }
+
+    /**
+     * Sorts the given set of strings using the copy-based (CP-)burstsort
+     * algorithm. If the given output stream is non-null, then metrics
+     * regarding the burstsort trie structure will be printed there.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  out      if non-null, metrics are printed here.
+     */
+    public static void sort(CharSequence[] strings, PrintStream out) {
+        if (strings != null && strings.length > 1) {
+            Node root = new Node();
+            insert(root, strings);
+            if (out != null) {
+                writeMetrics(root, out);
+            }
+            traverse(root, strings, 0);
+        }
+    }
+
+    /**
+     * Traverse the trie structure, ordering the strings in the array to
+     * conform to their lexicographically sorted order as determined by
+     * the trie structure.
+     *
+     * @param  node     node within trie structure.
+     * @param  strings  the strings to be ordered.
+     * @param  pos      position within array.
+     * @return  new pos value.
+     */
+    private static int traverse(Node node, CharSequence[] strings, int pos) {
+        for (int c = 0; c < CHARSET; c = node.next(c)) {
+            Object o = node.get(c);
+            if (o instanceof Node) {
+                pos = traverse((Node) o, strings, pos);
+            } else if (o != null) {
+                Bucket bucket = (Bucket) o;
+                if (c == 0 || bucket.count == 1) {
+                    // Strings in the null bucket are all equal.
+                    System.arraycopy(bucket.refs, 0, strings, pos, bucket.count);
+                } else {
+                    bucket.sort(strings, pos);
+                }
+                pos += bucket.count;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Collect metrics regarding the burstsort trie structure and write
+     * them to the given output stream.
+     *
+     * @param  node  root node of the trie structure.
+     * @param  out   output stream to write to.
+     */
+    private static void writeMetrics(Node node, PrintStream out) {
+        Stack<Node> stack = new Stack<Node>();
+        stack.push(node);
+        int nodes = 0;
+        int consumedStrings = 0;
+        int bucketStrings = 0;
+        long bucketChars = 0;
+        long bucketSpace = 0;
+        int nonEmptyBuckets = 0;
+        int smallest = Integer.MAX_VALUE;
+        int largest = Integer.MIN_VALUE;
+        while (!stack.isEmpty()) {
+            node = stack.pop();
+            nodes++;
+            for (int c = 0; c < CHARSET; c = node.next(c)) {
+                Object o = node.get(c);
+                if (o instanceof Node) {
+                    stack.push((Node) o);
+                } else if (o != null) {
+                    Bucket bucket = (Bucket) o;
+                    if (c == 0) {
+                        consumedStrings += bucket.count;
+                    } else {
+                        bucketStrings += bucket.count;
+                        bucketChars += bucket.size;
+                        bucketSpace += bucket.data.length;
+                    }
+                    smallest = Math.min(smallest, bucket.count);
+                    largest = Math.max(largest, bucket.count);
+                    nonEmptyBuckets++;
+                }
+            }
+        }
+        out.format("Trie nodes: %d\n", nodes);
+        out.format("Total buckets: %d\n", nonEmptyBuckets);
+        out.format("Bucket strings: %d\n", bucketStrings);
+        out.format("Consumed strings: %d\n", consumedStrings);
+        out.format("Smallest bucket: %d\n", smallest);
+        out.format("Largest bucket: %d\n", largest);
+        long sum = consumedStrings + bucketStrings;
+        out.format("Average bucket: %d\n", sum / nonEmptyBuckets);
+        out.format("Copied characters: %d\n", bucketChars);
+        out.format("Character capacity: %d\n", bucketSpace);
+    }
+
+    /**
+     * Find the median of three characters, found in the given entries
+     * at character position <em>depth</em>. One of the three integer
+     * values will be returned based on the comparisons.
+     *
+     * @param  data   packed suffix characters.
+     * @param  a      array of entries.
+     * @param  l      low index.
+     * @param  m      middle index.
+     * @param  h      high index.
+     * @param  depth  character offset.
+     * @return  the position of the median entry.
+     */
+    private static int med3(char[] data, long[] a, int l, int m, int h, int depth) {
+        char va = data[(int) (a[l] >>> 32) + depth];
+        char vb = data[(int) (a[m] >>> 32) + depth];
+        if (va == vb) {
+            return l;
+        }
+        char vc = data[(int) (a[h] >>> 32) + depth];
+        if (vc == va || vc == vb) {
+            return h;
+        }
+        return va < vb ? (vb < vc ? m : (va < vc ? h : l))
+                : (vb > vc ? m : (va < vc ? l : h));
+    }
+
+    /**
+     * Swap the elements between to subarrays.
+     *
+     * @param  a  the array of entries.
+     * @param  i  offset of first subarray.
+     * @param  j  offset of second subarray.
+     * @param  n  number of elements to swap.
+     */
+    private static void vecswap(long[] a, int i, int j, int n) {
+        while (n-- > 0) {
+            long t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+            i++;
+            j++;
+        }
+    }
+
+    /**
+     * Multikey quicksort of the bucket entries, each of which holds the
+     * offset of a null-terminated suffix within the data array in the
+     * upper 32 bits, and the index of the original string in the lower
+     * 32 bits. Since every suffix is terminated, the characters can be
+     * read directly without checking the bounds of the suffix.
+     *
+     * @param  data   packed suffix characters.
+     * @param  a      the array of entries to sort.
+     * @param  base   zero-based offset into array to be considered.
+     * @param  n      length of subarray to consider.
+     * @param  depth  the zero-based offset into the suffixes.
+     */
+    private static void ssort(char[] data, long[] a, int base, int n, int depth) {
+        if (n < INSERTSORT_THRESHOLD) {
+            inssort(data, a, base, n, depth);
+            return;
+        }
+        int pl = base;
+        int pm = base + n / 2;
+        int pn = base + n - 1;
+        int r;
+        if (n > 30) {
+            // On larger arrays, find a pseudo median of nine elements.
+            int d = n / 8;
+            pl = med3(data, a, base, base + d, base + 2 * d, depth);
+            pm = med3(data, a, base + n / 2 - d, pm, base + n / 2 + d, depth);
+            pn = med3(data, a, base + n - 1 - 2 * d, base + n - 1 - d, pn, depth);
+        }
+        pm = med3(data, a, pl, pm, pn, depth);
+        long t = a[base];
+        a[base] = a[pm];
+        a[pm] = t;
+        int v = data[(int) (a[base] >>> 32) + depth];
+        int le = base + 1, lt = le;
+        int gt = base + n - 1, ge = gt;
+        while (true) {
+            for (; lt <= gt && (r = data[(int) (a[lt] >>> 32) + depth] - v) <= 0; lt++) {
+                if (r == 0) {
+                    t = a[le];
+                    a[le] = a[lt];
+                    a[lt] = t;
+                    le++;
+                }
+            }
+            for (; lt <= gt && (r = data[(int) (a[gt] >>> 32) + depth] - v) >= 0; gt--) {
+                if (r == 0) {
+                    t = a[gt];
+                    a[gt] = a[ge];
+                    a[ge] = t;
+                    ge--;
+                }
+            }
+            if (lt > gt) {
+                break;
+            }
+            t = a[lt];
+            a[lt] = a[gt];
+            a[gt] = t;
+            lt++;
+            gt--;
+        }
+        pn = base + n;
+        r = Math.min(le - base, lt - le);
+        vecswap(a, base, lt - r, r);
+        r = Math.min(ge - gt, pn - ge - 1);
+        vecswap(a, lt, pn - r, r);
+        if ((r = lt - le) > 1) {
+            ssort(data, a, base, r, depth);
+        }
+        if (v != 0) {
+            // Only descend if the equal suffixes have not been consumed.
+            ssort(data, a, base + r, le + n - ge - 1, depth + 1);
+        }
+        if ((r = ge - gt) > 1) {
+            ssort(data, a, base + n - r, r, depth);
+        }
+    }
+
+    /**
+     * Insertion sort of the bucket entries, for small subarrays.
+     *
+     * @param  data   packed suffix characters.
+     * @param  a      the array of entries to sort.
+     * @param  base   zero-based offset into array to be considered.
+     * @param  n      length of subarray to consider.
+     * @param  depth  the zero-based offset into the suffixes.
+     */
+    private static void inssort(char[] data, long[] a, int base, int n, int depth) {
+        int high = base + n;
+        for (int i = base + 1; i < high; i++) {
+            for (int j = i; j > base; j--) {
+                int s = (int) (a[j - 1] >>> 32) + depth;
+                int t = (int) (a[j] >>> 32) + depth;
+                while (data[s] == data[t] && data[s] != NULLTERM) {
+                    s++;
+                    t++;
+                }
+                if (data[s] <= data[t]) {
+                    break;
+                }
+                long tmp = a[j];
+                a[j] = a[j - 1];
+                a[j - 1] = tmp;
+            }
+        }
+    }
+
+    /**
+     * A bucket holding the unconsumed suffixes of its strings, packed
+     * into a single character array with each suffix terminated by the
+     * null character, along with a reference to each original string.
+     * The null bucket holds only the references, as the strings therein
+     * have been entirely consumed by the trie.
+     */
+    private static class Bucket {
+        /** Packed null-terminated suffixes; null for the null bucket. */
+        private char[] data;
+        /** Number of characters used in the data array. */
+        private int size;
+        /** References to the original strings, in insertion order. */
+        private CharSequence[] refs;
+        /** Number of strings in this bucket. */
+        private int count;
+
+        /**
+         * Creates a new instance of Bucket.
+         *
+         * @param  nullbucket  true if this is the null bucket, which
+         *                     holds no characters.
+         */
+        Bucket(boolean nullbucket) {
+            refs = new CharSequence[BUCKET_START_SIZE];
+            if (!nullbucket) {
+                data = new char[BUCKET_START_CHARS];
+            }
+        }
+
+        /**
+         * Add a reference to the given string, without copying any of
+         * its characters, as is done for the null bucket.
+         *
+         * @param  s  string to be added.
+         */
+        void add(CharSequence s) {
+            if (count == refs.length) {
+                CharSequence[] tmp = new CharSequence[refs.length * BUCKET_GROWTH_FACTOR];
+                System.arraycopy(refs, 0, tmp, 0, count);
+                refs = tmp;
+            }
+            refs[count] = s;
+            count++;
+        }
+
+        /**
+         * Add the given string, copying its characters starting from the
+         * given offset into this bucket.
+         *
+         * @param  s     string to be added.
+         * @param  from  offset of the first character to be copied.
+         */
+        void add(CharSequence s, int from) {
+            add(s);
+            int length = s.length();
+            int n = length > from ? length - from : 0;
+            ensureCapacity(n + 1);
+            int end = size + n;
+            if (s instanceof String) {
+                ((String) s).getChars(from, length, data, size);
+            } else {
+                for (int j = size, k = from; j < end; j++, k++) {
+                    data[j] = s.charAt(k);
+                }
+            }
+            // A null character within the string marks its end as far
+            // as the sort is concerned, so terminate the suffix there.
+            int j = size;
+            while (j < end && data[j] != NULLTERM) {
+                j++;
+            }
+            data[j] = NULLTERM;
+            size = j + 1;
+        }
+
+        /**
+         * Add the given string, copying the null-terminated suffix from
+         * the source array (that of another bucket) into this bucket.
+         *
+         * @param  s     string to be added.
+         * @param  src   source of the suffix characters.
+         * @param  from  offset of the first character in src.
+         * @return  offset just past the null terminator in src.
+         */
+        int copy(CharSequence s, char[] src, int from) {
+            add(s);
+            int end = from;
+            while (src[end] != NULLTERM) {
+                end++;
+            }
+            int n = end - from + 1;
+            ensureCapacity(n);
+            System.arraycopy(src, from, data, size, n);
+            size += n;
+            return end + 1;
+        }
+
+        /**
+         * Ensure the data array has room for the given number of
+         * additional characters.
+         *
+         * @param  n  number of characters to be added.
+         */
+        private void ensureCapacity(int n) {
+            if (size + n > data.length) {
+                int length = data.length * BUCKET_GROWTH_FACTOR;
+                while (size + n > length) {
+                    length *= BUCKET_GROWTH_FACTOR;
+                }
+                char[] tmp = new char[length];
+                System.arraycopy(data, 0, tmp, 0, size);
+                data = tmp;
+            }
+        }
+
+        /**
+         * Sort the suffixes in this bucket, writing the references to
+         * the original strings to the output in sorted order.
+         *
+         * @param  output  array to receive the sorted strings.
+         * @param  offset  position within output for the first string.
+         */
+        void sort(CharSequence[] output, int offset) {
+            long[] entries = new long[count];
+            int pos = 0;
+            for (int j = 0; j < count; j++) {
+                entries[j] = ((long) pos << 32) | j;
+                while (data[pos] != NULLTERM) {
+                    pos++;
+                }
+                pos++;
+            }
+            ssort(data, entries, 0, count, 0);
+            for (int j = 0; j < count; j++) {
+                output[offset + j] = refs[(int) entries[j]];
+            }
+        }
+    }
+
+    /**
+     * A node in the copy-based burst trie structure, whose entries may
+     * point either to a bucket or another trie node.
+     *
+     * <p>Characters beyond the Latin-1 range are held in pages, each of
+     * which is itself a node whose entries are indexed by the low byte of
+     * the character. Pages are allocated only when a character from that
+     * range is added.</p>
+     */
+    private static class Node {
+        /** Pointers to buckets or trie nodes. */
+        private final Object[] ptrs = new Object[ALPHABET];
+        /** Pages for the characters above U+00FF, indexed by the high
+         * byte of the character; null until the first such character
+         * is added to this node. */
+        private Node[] pages;
+
+        /**
+         * Retrieve the trie node or bucket for character <em>c</em>.
+         *
+         * @param  c  character for which to retrieve entry.
+         * @return  the trie node or bucket, or null if none.
+         */
+        public Object get(int c) {
+            if (c < ALPHABET) {
+                return ptrs[c];
+            }
+            Node page = pages == null ? null : pages[c >>> PAGE_SHIFT];
+            return page == null ? null : page.ptrs[c & (ALPHABET - 1)];
+        }
+
+        /**
+         * Set the trie node or bucket for character <em>c</em>.
+         *
+         * @param  c  character for which to store new entry.
+         * @param  o  the trie node or bucket for the given character.
+         */
+        public void set(int c, Object o) {
+            if (c < ALPHABET) {
+                ptrs[c] = o;
+                return;
+            }
+            if (pages == null) {
+                pages = new Node[PAGES];
+            }
+            int p = c >>> PAGE_SHIFT;
+            if (pages[p] == null) {
+                pages[p] = new Node();
+            }
+            pages[p].ptrs[c & (ALPHABET - 1)] = o;
+        }
+
+        /**
+         * Returns the character following <em>c</em> for which this node
+         * may have an entry, skipping over the pages that have not been
+         * allocated. Used to visit the entries of the node in order.
+         *
+         * @param  c  the current character.
+         * @return  the next character to visit, or CHARSET if none.
+         */
+        public int next(int c) {
+            c++;
+            if (c >= ALPHABET) {
+                if (pages == null) {
+                    return CHARSET;
+                }
+                int p = c >>> PAGE_SHIFT;
+                while (p < PAGES && pages[p] == null) {
+                    p++;
+                }
+                if (p == PAGES) {
+                    return CHARSET;
+                }
+                c = Math.max(c, p << PAGE_SHIFT);
+            }
+            return c;
+        }
+    }
+}
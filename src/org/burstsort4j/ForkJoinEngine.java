@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs batches of independent jobs for the multi-threaded sorts. By
+ * default all sorts share a single fork/join pool, sized to the number
+ * of available processors, rather than creating a new thread pool for
+ * every sort. The calling thread takes part in running the jobs, and
+ * the remaining jobs are handed out to whichever thread is free next,
+ * such that the work is balanced even when the jobs vary greatly in
+ * size. If the executor is unable to run the helpers (e.g. because the
+ * shared pool is busy with other sorts), the calling thread simply runs
+ * more of the jobs itself.
+ *
+ * @author Nathan Fiedler
+ */
+class ForkJoinEngine {
+    /** The executor that runs the helpers. */
+    private final Executor executor;
+    /** Maximum number of threads, including the caller, to work on
+     * any one batch of jobs. */
+    private final int parallelism;
+
+    /**
+     * Creates a new instance of ForkJoinEngine.
+     *
+     * @param  executor     the executor that runs the helpers.
+     * @param  parallelism  maximum number of threads, including the
+     *                      caller, to work on any one batch of jobs.
+     */
+    private ForkJoinEngine(Executor executor, int parallelism) {
+        if (executor == null) {
+            throw new NullPointerException("executor must be non-null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns an engine that uses the shared fork/join pool, with as
+     * many threads as there are available processors.
+     *
+     * @return  the shared engine.
+     */
+    static ForkJoinEngine shared() {
+        return SharedPool.ENGINE;
+    }
+
+    /**
+     * Returns an engine that uses the shared fork/join pool, with at
+     * most the given number of threads working on any one batch.
+     *
+     * @param  parallelism  maximum number of threads, including the
+     *                      calling thread.
+     * @return  new engine.
+     */
+    static ForkJoinEngine create(int parallelism) {
+        return new ForkJoinEngine(SharedPool.POOL, parallelism);
+    }
+
+    /**
+     * Returns an engine that uses the given fork/join pool, with as many
+     * threads as the parallelism of that pool, counting the caller.
+     *
+     * @param  pool  the fork/join pool to use.
+     * @return  new engine.
+     */
+    static ForkJoinEngine create(ForkJoinPool pool) {
+        return new ForkJoinEngine(pool, pool.getParallelism());
+    }
+
+    /**
+     * Returns an engine that uses the given executor. If the executor is
+     * a fork/join pool, its parallelism is used, otherwise the number of
+     * available processors determines the number of helpers.
+     *
+     * @param  executor  the executor to use.
+     * @return  new engine.
+     */
+    static ForkJoinEngine create(Executor executor) {
+        if (executor instanceof ForkJoinPool) {
+            return create((ForkJoinPool) executor);
+        }
+        return new ForkJoinEngine(executor,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns the maximum number of threads, including the caller, that
+     * will work on any one batch of jobs.
+     *
+     * @return  parallelism of this engine.
+     */
+    int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs all of the given jobs, using the calling thread as well as the
+     * executor, returning once every job has completed. If any of the
+     * jobs failed, the cause is thrown from here.
+     *
+     * @param  jobs  the jobs to be run.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    void run(List<? extends Callable<Object>> jobs) throws InterruptedException {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Batch batch = new Batch(jobs);
+        int helpers = Math.min(parallelism, jobs.size()) - 1;
+        try {
+            for (int ii = 0; ii < helpers; ii++) {
+                executor.execute(batch);
+            }
+        } catch (RejectedExecutionException ree) {
+            // The calling thread will run whatever is left over.
+        }
+        batch.run();
+        batch.await();
+    }
+
+    /**
+     * Holds the shared fork/join pool, which is created the first time
+     * it is needed. The worker threads are daemons and exit when idle,
+     * so the pool never needs to be shut down.
+     */
+    private static class SharedPool {
+        /** The pool shared by all of the sorts. */
+        static final ForkJoinPool POOL = new ForkJoinPool(
+                Runtime.getRuntime().availableProcessors());
+        /** The engine for the shared pool. */
+        static final ForkJoinEngine ENGINE = create(POOL);
+    }
+
+    /**
+     * A batch of jobs, along with the state needed for any number of
+     * threads to claim and run those jobs one at a time.
+     */
+    private static class Batch implements Runnable {
+        /** The jobs to be run. */
+        private final List<? extends Callable<Object>> jobs;
+        /** Index of the next job to be claimed. */
+        private final AtomicInteger next = new AtomicInteger();
+        /** Counts down as each job is completed. */
+        private final CountDownLatch done;
+        /** The first failure of any job, if any. */
+        private volatile Throwable failure;
+
+        /**
+         * Creates a new instance of Batch.
+         *
+         * @param  jobs  the jobs to be run.
+         */
+        Batch(List<? extends Callable<Object>> jobs) {
+            this.jobs = jobs;
+            done = new CountDownLatch(jobs.size());
+        }
+
+        @Override
+        public void run() {
+            int n = jobs.size();
+            int ii;
+            while ((ii = next.getAndIncrement()) < n) {
+                try {
+                    jobs.get(ii).call();
+                } catch (Throwable t) {
+                    if (failure == null) {
+                        failure = t;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }
+        }
+
+        /**
+         * Waits for all of the jobs to complete, then throws the first
+         * failure, if any.
+         *
+         * @throws  InterruptedException  if waiting thread was interrupted.
+         */
+        void await() throws InterruptedException {
+            done.await();
+            Throwable t = failure;
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t != null) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+}
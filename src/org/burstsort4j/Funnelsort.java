@@ -7,8 +7,6 @@ package org.burstsort4j;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Observable;
-import java.util.Observer;
 
 /**
  * An implementation of the funnelsort algorithm as described by Frigo,
@@ -156,7 +154,7 @@ public class Funnelsort {
      * @param  <E>  the type of the buffer elements.
      */
     private static class BufferMerger<E extends Comparable<? super E>>
-            implements Kmerger<E>, Observer {
+            implements Kmerger<E>, CircularBuffer.Source {
 
         /** The number of times to invoke the R merger to merge inputs. */
         private final int k3half;
@@ -182,7 +180,8 @@ public class Funnelsort {
             }
             Li = mergers;
             R = MergerFactory.createMerger(buffers, output);
-            output.addObserver(this);
+            // Take over refilling the output from the R merger.
+            output.setSource(this);
         }
 
         /**
@@ -219,7 +218,8 @@ public class Funnelsort {
                 Li.add(MergerFactory.createMerger(li, buffer));
             }
             R = MergerFactory.createMerger(buffers, output);
-            output.addObserver(this);
+            // Take over refilling the output from the R merger.
+            output.setSource(this);
         }
 
         @Override
@@ -243,7 +243,7 @@ public class Funnelsort {
         }
 
         @Override
-        public void update(Observable o, Object arg) {
+        public void refill() {
             merge();
         }
     }
@@ -252,7 +252,7 @@ public class Funnelsort {
      * A k-merger that merges two input buffers.
      */
     private static class BinaryMerger<E extends Comparable<? super E>>
-            implements Kmerger<E>, Observer {
+            implements Kmerger<E>, CircularBuffer.Source {
 
         /** The "left" input buffer. */
         private final CircularBuffer<E> leftBuffer;
@@ -274,7 +274,7 @@ public class Funnelsort {
             this.leftBuffer = leftBuffer;
             this.rightBuffer = rightBuffer;
             this.output = output;
-            output.addObserver(this);
+            output.setSource(this);
         }
 
         @Override
@@ -331,7 +331,7 @@ public class Funnelsort {
         }
 
         @Override
-        public void update(Observable o, Object arg) {
+        public void refill() {
             merge();
         }
     }
@@ -340,7 +340,7 @@ public class Funnelsort {
      * A k-merger that streams a single input buffer to its output buffer.
      */
     private static class UnaryMerger<E extends Comparable<? super E>>
-            implements Kmerger<E>, Observer {
+            implements Kmerger<E>, CircularBuffer.Source {
 
         /** The input buffer. */
         private final CircularBuffer<E> input;
@@ -357,7 +357,7 @@ public class Funnelsort {
                 CircularBuffer<E> output) {
             this.input = input;
             this.output = output;
-            output.addObserver(this);
+            output.setSource(this);
         }
 
         @Override
@@ -375,7 +375,7 @@ public class Funnelsort {
         }
 
         @Override
-        public void update(Observable o, Object arg) {
+        public void refill() {
             merge();
         }
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+/**
+ * A character sequence that carries the position of its key within the
+ * caller's array, such that the sorters may order the keys and report
+ * where each one came from, without moving the caller's data.
+ *
+ * @author Nathan Fiedler
+ */
+final class IndexedKey implements CharSequence {
+    /** The key by which this entry is ordered. */
+    final CharSequence key;
+    /** Position of the key in the original array. */
+    final int index;
+
+    /**
+     * Creates a new instance of IndexedKey.
+     *
+     * @param  key    the key to be ordered.
+     * @param  index  position of the key in the original array.
+     */
+    IndexedKey(CharSequence key, int index) {
+        this.key = key;
+        this.index = index;
+    }
+
+    /**
+     * Wraps each of the keys with its position in the array.
+     *
+     * @param  keys  keys to be wrapped.
+     * @return  array of wrapped keys.
+     */
+    static IndexedKey[] wrap(CharSequence[] keys) {
+        IndexedKey[] wrapped = new IndexedKey[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            wrapped[i] = new IndexedKey(keys[i], i);
+        }
+        return wrapped;
+    }
+
+    /**
+     * Extracts the key of each of the items, wrapping it with the
+     * position of the item in the array.
+     *
+     * @param  <T>        type of the items.
+     * @param  items      items whose keys are wanted.
+     * @param  extractor  provides the key for each item.
+     * @return  array of wrapped keys.
+     * @throws  NullPointerException  if any key is null.
+     */
+    static <T> IndexedKey[] extract(T[] items, KeyExtractor<? super T> extractor) {
+        IndexedKey[] wrapped = new IndexedKey[items.length];
+        for (int i = 0; i < items.length; i++) {
+            CharSequence key = extractor.getKey(items[i]);
+            if (key == null) {
+                throw new NullPointerException("null key for item " + i);
+            }
+            wrapped[i] = new IndexedKey(key, i);
+        }
+        return wrapped;
+    }
+
+    /**
+     * Puts the items in the same order as the wrapped keys, which were
+     * produced by {@link #extract(Object[], KeyExtractor)}.
+     *
+     * @param  <T>      type of the items.
+     * @param  items    items to be reordered.
+     * @param  wrapped  wrapped keys, in the desired order.
+     */
+    static <T> void reorder(T[] items, CharSequence[] wrapped) {
+        T[] original = items.clone();
+        for (int i = 0; i < items.length; i++) {
+            items[i] = original[((IndexedKey) wrapped[i]).index];
+        }
+    }
+
+    /**
+     * Returns the positions of the wrapped keys, in the order in which
+     * they appear in the array.
+     *
+     * @param  wrapped  array of wrapped keys.
+     * @return  the original positions of the keys.
+     */
+    static int[] indices(CharSequence[] wrapped) {
+        int[] indices = new int[wrapped.length];
+        for (int i = 0; i < wrapped.length; i++) {
+            indices[i] = ((IndexedKey) wrapped[i]).index;
+        }
+        return indices;
+    }
+
+    @Override
+    public int length() {
+        return key.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return key.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return key.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return key.toString();
+    }
+}
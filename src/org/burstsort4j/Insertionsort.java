@@ -89,4 +89,110 @@ public class Insertionsort {
             }
         }
     }
+
+    /**
+     * Sort the strings in the array using an insertion sort, as with
+     * {@link #sort(CharSequence[], int, int, int)}, but with the
+     * characters in the given order.
+     *
+     * @param  strings  array of strings to sort.
+     * @param  low      low offset into the array (inclusive).
+     * @param  high     high offset into the array (exclusive).
+     * @param  depth    offset of first character in each string to compare.
+     * @param  order    the order of the characters.
+     */
+    public static void sort(CharSequence[] strings, int low, int high, int depth,
+            CharOrder order) {
+        if (order.isNatural() && !order.isDescending()) {
+            sort(strings, low, high, depth);
+            return;
+        }
+        if (strings == null || low < 0 || high <= low || depth < 0) {
+            return;
+        }
+        for (int i = low + 1; i < high; i++) {
+            for (int j = i; j > low; j--) {
+                if (order.compare(strings[j - 1], strings[j], depth) <= 0) {
+                    break;
+                }
+                CharSequence tmp = strings[j];
+                strings[j] = strings[j - 1];
+                strings[j - 1] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Sort the indices of the given strings using an insertion sort, such
+     * that the strings they refer to are in order, but only consider the
+     * characters in the strings starting from the given offset
+     * <em>depth</em>. The strings themselves are not moved.
+     *
+     * @param  strings  array of strings to be compared.
+     * @param  indices  indices into the strings array, to be sorted.
+     * @param  low      low offset into the indices (inclusive).
+     * @param  high     high offset into the indices (exclusive).
+     * @param  depth    offset of first character in each string to compare.
+     */
+    public static void sort(CharSequence[] strings, int[] indices, int low,
+            int high, int depth) {
+        if (strings == null || indices == null || low < 0 || high <= low || depth < 0) {
+            return;
+        }
+        for (int i = low + 1; i < high; i++) {
+            for (int j = i; j > low; j--) {
+                CharSequence a = strings[indices[j - 1]];
+                CharSequence b = strings[indices[j]];
+                int idx = depth;
+                char s = idx < a.length() ? a.charAt(idx) : 0;
+                char t = idx < b.length() ? b.charAt(idx) : 0;
+                while (s == t && idx < a.length()) {
+                    idx++;
+                    s = idx < a.length() ? a.charAt(idx) : 0;
+                    t = idx < b.length() ? b.charAt(idx) : 0;
+                }
+                if (s <= t) {
+                    break;
+                }
+                int tmp = indices[j];
+                indices[j] = indices[j - 1];
+                indices[j - 1] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Sort the byte keys in the array using an insertion sort, comparing
+     * the bytes as unsigned values, but only consider the bytes in the
+     * keys starting from the given offset <em>depth</em>.
+     *
+     * @param  keys   array of keys to sort.
+     * @param  low    low offset into the array (inclusive).
+     * @param  high   high offset into the array (exclusive).
+     * @param  depth  offset of first byte in each key to compare.
+     */
+    public static void sort(byte[][] keys, int low, int high, int depth) {
+        if (keys == null || low < 0 || high <= low || depth < 0) {
+            return;
+        }
+        for (int i = low + 1; i < high; i++) {
+            for (int j = i; j > low; j--) {
+                byte[] a = keys[j - 1];
+                byte[] b = keys[j];
+                int idx = depth;
+                int s = idx < a.length ? a[idx] & 0xff : 0;
+                int t = idx < b.length ? b[idx] & 0xff : 0;
+                while (s == t && idx < a.length) {
+                    idx++;
+                    s = idx < a.length ? a[idx] & 0xff : 0;
+                    t = idx < b.length ? b[idx] & 0xff : 0;
+                }
+                if (s <= t) {
+                    break;
+                }
+                keys[j] = a;
+                keys[j - 1] = b;
+            }
+        }
+    }
 }
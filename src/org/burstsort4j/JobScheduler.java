@@ -0,0 +1,308 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Packs the jobs produced by the parallel trie traversal into work units
+ * of roughly equal cost. Each job is given an estimated cost, based on
+ * the number of strings and their remaining length beyond the depth of
+ * the bucket. Consecutive jobs are combined until they reach the target
+ * cost for a unit, such that each unit covers a contiguous range of the
+ * output. A job that costs far more than a unit is split into ranges by
+ * partitioning its strings, and those ranges are sorted in parallel.
+ *
+ * @author Nathan Fiedler
+ */
+class JobScheduler {
+    /** Number of work units to create for each thread, allowing for
+     * the estimates being somewhat inaccurate. */
+    private static final int UNITS_PER_THREAD = 4;
+    /** Jobs that cost more than this many units are split. */
+    private static final int SPLIT_FACTOR = 2;
+    /** Ranges with fewer strings than this are never split. */
+    private static final int SPLIT_MINIMUM = 1024;
+    /** Maximum number of strings examined to estimate the cost. */
+    private static final int COST_SAMPLES = 8;
+
+    /**
+     * Creates a new instance of JobScheduler.
+     */
+    private JobScheduler() {
+    }
+
+    /**
+     * Estimates the cost of sorting a number of strings, based on the
+     * average length of a few of those strings beyond the given depth.
+     *
+     * @param  sample  array containing strings to be examined.
+     * @param  low     first position to consider (inclusive).
+     * @param  high    last position to consider (exclusive).
+     * @param  depth   number of characters already consumed.
+     * @param  count   number of strings to be sorted.
+     * @return  estimated cost of the sort.
+     */
+    static long estimate(CharSequence[] sample, int low, int high, int depth,
+            int count) {
+        int n = high - low;
+        if (n < 1) {
+            return count;
+        }
+        int step = Math.max(1, n / COST_SAMPLES);
+        long length = 0;
+        int samples = 0;
+        for (int i = low; i < high && samples < COST_SAMPLES; i += step) {
+            length += Math.max(1, sample[i].length() - depth);
+            samples++;
+        }
+        return count * (length / samples);
+    }
+
+    /**
+     * Combines the given jobs into work units of roughly equal cost,
+     * splitting any job that is much larger than a unit.
+     *
+     * @param  jobs    the jobs, in output order.
+     * @param  engine  engine with which the units will be run.
+     * @return  the work units to be run.
+     */
+    static List<Callable<Object>> pack(List<? extends Job> jobs, ForkJoinEngine engine) {
+        long[] costs = new long[jobs.size()];
+        long total = 0;
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = jobs.get(i).cost();
+            total += costs[i];
+        }
+        long target = Math.max(1, total / (engine.getParallelism() * UNITS_PER_THREAD));
+        List<Callable<Object>> units = new ArrayList<Callable<Object>>();
+        List<Job> group = new ArrayList<Job>();
+        long sum = 0;
+        for (int i = 0; i < costs.length; i++) {
+            Job job = jobs.get(i);
+            if (costs[i] > SPLIT_FACTOR * target) {
+                flush(group, units);
+                sum = 0;
+                units.add(job.split(target, engine));
+            } else {
+                group.add(job);
+                sum += costs[i];
+                if (sum >= target) {
+                    flush(group, units);
+                    sum = 0;
+                }
+            }
+        }
+        flush(group, units);
+        return units;
+    }
+
+    /**
+     * Adds the grouped jobs to the list of units, then clears the group.
+     *
+     * @param  group  consecutive jobs to be run as one unit.
+     * @param  units  list of work units.
+     */
+    private static void flush(List<Job> group, List<Callable<Object>> units) {
+        if (group.size() == 1) {
+            units.add(group.get(0));
+        } else if (group.size() > 1) {
+            units.add(new UnitJob(new ArrayList<Job>(group)));
+        }
+        group.clear();
+    }
+
+    /**
+     * Sorts the strings in the given range using multiple threads, by
+     * partitioning the range (as multikey quicksort does) until each
+     * part is within the target cost, then sorting the parts in parallel.
+     *
+     * @param  a       the array of strings to sort.
+     * @param  low     low offset into the array (inclusive).
+     * @param  high    high offset into the array (exclusive).
+     * @param  depth   offset of first character in each string to compare.
+     * @param  target  desired cost of each part.
+     * @param  engine  engine with which to run the jobs.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    static void sortParallel(CharSequence[] a, int low, int high, int depth,
+            long target, ForkJoinEngine engine) throws InterruptedException {
+        List<Callable<Object>> parts = new ArrayList<Callable<Object>>();
+        split(a, low, high, depth, target, parts);
+        engine.run(parts);
+    }
+
+    /**
+     * Partitions the range of strings until each part is within the
+     * target cost, adding a sort job for each part.
+     *
+     * @param  a       the array of strings to sort.
+     * @param  low     low offset into the array (inclusive).
+     * @param  high    high offset into the array (exclusive).
+     * @param  depth   offset of first character in each string to compare.
+     * @param  target  desired cost of each part.
+     * @param  parts   list to which sort jobs are added.
+     */
+    private static void split(CharSequence[] a, int low, int high, int depth,
+            long target, List<Callable<Object>> parts) {
+        while (high - low > 1) {
+            int n = high - low;
+            if (n < SPLIT_MINIMUM || estimate(a, low, high, depth, n) <= target) {
+                parts.add(new RangeJob(a, low, high, depth));
+                return;
+            }
+            int[] bounds = MultikeyQuicksort.partition(a, low, high, depth);
+            split(a, low, bounds[0], depth, target, parts);
+            split(a, bounds[1], high, depth, target, parts);
+            if (bounds[2] == 0) {
+                // The equal strings have all ended, nothing left to sort.
+                return;
+            }
+            low = bounds[0];
+            high = bounds[1];
+            depth++;
+        }
+    }
+
+    /**
+     * A job produced by the trie traversal, which may be combined with
+     * other jobs, or split into smaller jobs, by the scheduler.
+     */
+    abstract static class Job implements Callable<Object> {
+
+        /**
+         * Returns the estimated cost of running this job.
+         *
+         * @return  estimated cost.
+         */
+        abstract long cost();
+
+        /**
+         * Returns a job that performs the same work as this job using
+         * multiple threads. The default is to return this job, for those
+         * jobs that cannot be split.
+         *
+         * @param  target  desired cost of each part of the work.
+         * @param  engine  engine with which to run the parts.
+         * @return  job to run in place of this one.
+         */
+        Callable<Object> split(long target, ForkJoinEngine engine) {
+            return this;
+        }
+    }
+
+    /**
+     * Runs a series of consecutive jobs in order.
+     */
+    private static class UnitJob implements Callable<Object> {
+        /** The jobs to be run. */
+        private final List<Job> jobs;
+
+        /**
+         * Creates a new instance of UnitJob.
+         *
+         * @param  jobs  the jobs to be run.
+         */
+        UnitJob(List<Job> jobs) {
+            this.jobs = jobs;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            for (Job job : jobs) {
+                job.call();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Copies the strings of a large bucket to the output, and then sorts
+     * those strings in parallel.
+     */
+    static class SplitJob implements Callable<Object> {
+        /** Job that copies the strings to the output. */
+        private final Callable<Object> copier;
+        /** The array to which the strings are copied. */
+        private final CharSequence[] output;
+        /** Offset of the first string in the output (inclusive). */
+        private final int low;
+        /** Offset of the last string in the output (exclusive). */
+        private final int high;
+        /** Number of characters the strings have in common. */
+        private final int depth;
+        /** Desired cost of each part of the sort. */
+        private final long target;
+        /** Engine with which to run the parts. */
+        private final ForkJoinEngine engine;
+
+        /**
+         * Creates a new instance of SplitJob.
+         *
+         * @param  copier  job that copies the strings to the output.
+         * @param  output  array to which the strings are copied.
+         * @param  low     offset of the first string (inclusive).
+         * @param  high    offset of the last string (exclusive).
+         * @param  depth   number of characters in common.
+         * @param  target  desired cost of each part of the sort.
+         * @param  engine  engine with which to run the parts.
+         */
+        SplitJob(Callable<Object> copier, CharSequence[] output, int low,
+                int high, int depth, long target, ForkJoinEngine engine) {
+            this.copier = copier;
+            this.output = output;
+            this.low = low;
+            this.high = high;
+            this.depth = depth;
+            this.target = target;
+            this.engine = engine;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            copier.call();
+            sortParallel(output, low, high, depth, target, engine);
+            return null;
+        }
+    }
+
+    /**
+     * Sorts a range of strings in place.
+     */
+    private static class RangeJob implements Callable<Object> {
+        /** The array of strings to sort. */
+        private final CharSequence[] strings;
+        /** Low offset into the array (inclusive). */
+        private final int low;
+        /** High offset into the array (exclusive). */
+        private final int high;
+        /** Offset of first character in each string to compare. */
+        private final int depth;
+
+        /**
+         * Creates a new instance of RangeJob.
+         *
+         * @param  strings  array of strings to sort.
+         * @param  low      low offset into the array (inclusive).
+         * @param  high     high offset into the array (exclusive).
+         * @param  depth    offset of first character to compare.
+         */
+        RangeJob(CharSequence[] strings, int low, int high, int depth) {
+            this.strings = strings;
+            this.low = low;
+            this.high = high;
+            this.depth = depth;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            CachingMultikeyQuicksort.sort(strings, low, high, depth);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+/**
+ * Merges any number of sorted runs held in memory into a single sorted
+ * sequence, using a tournament tree of losers, as described by Knuth
+ * (TAOCP vol. 3, 5.4.1). Each element output costs about log k
+ * comparisons, where k is the number of runs, with the tree replaying
+ * only the matches on the path of the run that supplied the last element.
+ * Once all but one run is exhausted, the remainder of that run is copied
+ * in bulk.
+ *
+ * <p>When equal elements appear in more than one run, those of the
+ * earlier run come first, such that the merge is stable with respect to
+ * the order of the runs.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public class KWayMerge {
+
+    /**
+     * Creates a new instance of KWayMerge.
+     */
+    private KWayMerge() {
+    }
+
+    /**
+     * Merges the sorted runs into the destination array.
+     *
+     * @param  <T>     type of elements being merged.
+     * @param  runs    the sorted runs (none of which may be null).
+     * @param  dest    array to receive the merged elements.
+     * @param  offset  position in dest of the first merged element.
+     * @throws  IllegalArgumentException  if dest does not have room for
+     *          all of the elements from offset onward.
+     */
+    public static <T extends Comparable<? super T>> void merge(T[][] runs,
+            T[] dest, int offset) {
+        int k = runs.length;
+        int[] starts = new int[k];
+        int[] ends = new int[k];
+        for (int i = 0; i < k; i++) {
+            ends[i] = runs[i].length;
+        }
+        merge(runs, starts, ends, dest, offset);
+    }
+
+    /**
+     * Merges consecutive sorted runs within an array into the destination
+     * array, which must not be the same as the source.
+     *
+     * @param  <T>     type of elements being merged.
+     * @param  source  array containing the sorted runs.
+     * @param  bounds  boundaries of the runs, such that run i covers the
+     *                 positions from bounds[i] up to bounds[i + 1].
+     * @param  dest    array to receive the merged elements.
+     * @param  offset  position in dest of the first merged element.
+     * @throws  IllegalArgumentException  if the bounds are decreasing or
+     *          outside the source, if dest does not have room for all of
+     *          the elements, or if dest is the source.
+     */
+    public static <T extends Comparable<? super T>> void merge(T[] source,
+            int[] bounds, T[] dest, int offset) {
+        if (source == dest) {
+            throw new IllegalArgumentException("cannot merge in place");
+        }
+        int k = Math.max(0, bounds.length - 1);
+        int[] starts = new int[k];
+        int[] ends = new int[k];
+        @SuppressWarnings("unchecked")
+        T[][] runs = (T[][]) new Comparable<?>[k][];
+        for (int i = 0; i < k; i++) {
+            if (bounds[i] < 0 || bounds[i] > bounds[i + 1] || bounds[i + 1] > source.length) {
+                throw new IllegalArgumentException("bad bounds for run " + i);
+            }
+            runs[i] = source;
+            starts[i] = bounds[i];
+            ends[i] = bounds[i + 1];
+        }
+        merge(runs, starts, ends, dest, offset);
+    }
+
+    /**
+     * Merges the given ranges of the sorted runs into the destination.
+     *
+     * @param  <T>     type of elements being merged.
+     * @param  runs    arrays containing the sorted runs.
+     * @param  starts  first position of each run; advanced by the merge.
+     * @param  ends    position following the last element of each run.
+     * @param  dest    array to receive the merged elements.
+     * @param  offset  position in dest of the first merged element.
+     */
+    private static <T extends Comparable<? super T>> void merge(T[][] runs,
+            int[] starts, int[] ends, T[] dest, int offset) {
+        int k = runs.length;
+        long total = 0;
+        for (int i = 0; i < k; i++) {
+            total += ends[i] - starts[i];
+        }
+        if (offset < 0 || offset + total > dest.length) {
+            throw new IllegalArgumentException("not enough room in destination");
+        }
+        if (k == 0) {
+            return;
+        }
+        // The next element of each run, or null if the run is exhausted.
+        @SuppressWarnings("unchecked")
+        T[] keys = (T[]) new Comparable<?>[k];
+        int remaining = 0;
+        for (int i = 0; i < k; i++) {
+            if (starts[i] < ends[i]) {
+                keys[i] = runs[i][starts[i]];
+                remaining++;
+            }
+        }
+        // Loser of the match at each node, with the winner at zero.
+        int[] tree = new int[k];
+        tree[0] = build(keys, tree, 1);
+        int out = offset;
+        while (remaining > 1) {
+            int winner = tree[0];
+            dest[out++] = keys[winner];
+            int p = ++starts[winner];
+            T key;
+            if (p < ends[winner]) {
+                key = runs[winner][p];
+            } else {
+                // This run has been exhausted.
+                key = null;
+                remaining--;
+            }
+            keys[winner] = key;
+            // Replay the matches on the path from the winner's leaf.
+            for (int node = (winner + k) >> 1; node > 0; node >>= 1) {
+                int other = tree[node];
+                if (beats(keys, other, winner)) {
+                    tree[node] = winner;
+                    winner = other;
+                }
+            }
+            tree[0] = winner;
+        }
+        if (remaining == 1) {
+            // Copy the remainder of the last run.
+            int w = tree[0];
+            System.arraycopy(runs[w], starts[w], dest, out, ends[w] - starts[w]);
+            starts[w] = ends[w];
+        }
+    }
+
+    /**
+     * Determines if run a wins over run b, with an exhausted run losing
+     * to all others, and equal elements won by the earlier run.
+     *
+     * @param  <T>   type of elements being merged.
+     * @param  keys  the next element of each run.
+     * @param  a     first run.
+     * @param  b     second run.
+     * @return  true if a wins, false otherwise.
+     */
+    private static <T extends Comparable<? super T>> boolean beats(T[] keys, int a, int b) {
+        T ka = keys[a];
+        T kb = keys[b];
+        if (ka == null) {
+            return false;
+        } else if (kb == null) {
+            return true;
+        }
+        int c = ka.compareTo(kb);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    /**
+     * Plays the matches of the subtree rooted at the given node,
+     * recording the losers in the tree. The leaves of the tree are the
+     * nodes k through 2k - 1, one for each run.
+     *
+     * @param  <T>   type of elements being merged.
+     * @param  keys  the next element of each run.
+     * @param  tree  receives the loser of each match.
+     * @param  node  the root of the subtree.
+     * @return  the winner of the subtree.
+     */
+    private static <T extends Comparable<? super T>> int build(T[] keys, int[] tree, int node) {
+        int k = keys.length;
+        if (node >= k) {
+            return node - k;
+        }
+        int a = build(keys, tree, 2 * node);
+        int b = build(keys, tree, 2 * node + 1);
+        if (beats(keys, b, a)) {
+            tree[node] = a;
+            return b;
+        }
+        tree[node] = b;
+        return a;
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+/**
+ * Provides the string key by which an object is to be sorted.
+ *
+ * @param  <T>  type of object from which the key is taken.
+ * @author Nathan Fiedler
+ */
+public interface KeyExtractor<T> {
+
+    /**
+     * Returns the key for the given object. The key must not change
+     * while the sort is in progress.
+     *
+     * @param  item  object whose key is wanted.
+     * @return  the (non-null) key for the object.
+     */
+    CharSequence getKey(T item);
+}
@@ -5,15 +5,15 @@
  */
 package org.burstsort4j;
 
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Observable;
-import java.util.Observer;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * An implementation of the lazy funnelsort algorithm as described by Brodal,
@@ -22,6 +22,12 @@ import java.util.concurrent.TimeUnit;
  * String-based sort like some of the others in this package, but rather
  * sorts instances of {@code Comparable}, much like mergesort and quicksort.
  *
+ * <p>The buffers of each funnel are carved from a single array, the
+ * {@link Arena} of the sorting thread, in the recursive (van Emde Boas)
+ * order of the funnel, such that each subtree of the funnel occupies a
+ * contiguous region of memory. The arena is kept for the next funnel,
+ * both within a sort and across sorts.</p>
+ *
  * @author Nathan Fiedler
  */
 public class LazyFunnelsort {
@@ -47,42 +53,164 @@ public class LazyFunnelsort {
         if (inputs == null || inputs.length < 2) {
             return;
         }
-        sort(inputs, 0, inputs.length, false);
+        sort(inputs, 0, inputs.length, null);
+        Arena.release();
     }
 
     /**
      * Sorts the set of Comparables using the "lazy" funnelsort algorithm
      * as described by Brodal, Fagerberg, and Vinther. The sorting is
      * performed using multiple threads in order to shorten the overall
-     * sort time.
+     * sort time, both for sorting the subarrays and for merging them.
+     * The threads are drawn from a fork/join pool that is shared by all
+     * of the sorts, with the calling thread taking part.
      *
      * @param  inputs  array of Comparables to be sorted.
      */
     public static void sortThreaded(Comparable[] inputs) {
+        sortThreaded(inputs, ForkJoinEngine.shared());
+    }
+
+    /**
+     * Sorts the set of Comparables using multiple threads, as with
+     * {@link #sortThreaded(Comparable[])}, but with at most the given
+     * number of threads, including the calling thread.
+     *
+     * @param  inputs       array of Comparables to be sorted.
+     * @param  parallelism  maximum number of threads to use.
+     * @throws  IllegalArgumentException  if parallelism is less than one.
+     */
+    public static void sortThreaded(Comparable[] inputs, int parallelism) {
+        sortThreaded(inputs, ForkJoinEngine.create(parallelism));
+    }
+
+    /**
+     * Sorts the set of Comparables using the given fork/join pool, with
+     * the calling thread taking part in the work.
+     *
+     * @param  inputs  array of Comparables to be sorted.
+     * @param  pool    the fork/join pool in which to run the jobs.
+     */
+    public static void sortThreaded(Comparable[] inputs, ForkJoinPool pool) {
+        sortThreaded(inputs, ForkJoinEngine.create(pool));
+    }
+
+    /**
+     * Sorts the set of Comparables using the given executor, with the
+     * calling thread taking part in the work. The executor is not shut
+     * down by this method.
+     *
+     * @param  inputs    array of Comparables to be sorted.
+     * @param  executor  the executor with which to run the jobs.
+     */
+    public static void sortThreaded(Comparable[] inputs, Executor executor) {
+        sortThreaded(inputs, ForkJoinEngine.create(executor));
+    }
+
+    /**
+     * Sorts the set of Comparables using multiple threads, with the merge
+     * performed by a {@link PipelinedFunnel}, in which the left mergers of
+     * the funnel run on their own threads, concurrently with the right
+     * merger. The subarrays are sorted in parallel, as with
+     * {@link #sortThreaded(Comparable[])}.
+     *
+     * <p>The right merger bounds the speed of the pipeline, which makes
+     * {@code sortThreaded} the faster choice given many threads.</p>
+     *
+     * @param  inputs  array of Comparables to be sorted.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static void sortPipelined(Comparable[] inputs) {
+        if (inputs == null || inputs.length < 2) {
+            return;
+        }
+        int count = inputs.length;
+        if (count <= QUICKSORT_THRESHOLD) {
+            Quicksort.sort(inputs, 0, count - 1);
+            return;
+        }
+        final int num_blocks = Math.round((float) Math.cbrt((double) count));
+        final int block_size = count / num_blocks;
+        List<Callable<Object>> jobs = new ArrayList<Callable<Object>>();
+        for (int ii = 0; ii < num_blocks; ii++) {
+            int mark = ii * block_size;
+            int size = ii + 1 < num_blocks ? block_size : count - mark;
+            jobs.add(new SortJob(inputs, mark, size));
+        }
+        try {
+            ForkJoinEngine.shared().run(jobs);
+        } catch (InterruptedException ie) {
+            throw new RuntimeException("Sorters interrupted!", ie);
+        }
+        mergePipelined(inputs, num_blocks, block_size);
+    }
+
+    /**
+     * Merges the sorted blocks of the array using a pipelined funnel.
+     *
+     * @param  <T>         type of elements being merged.
+     * @param  inputs      array of sorted blocks, to be overwritten with
+     *                     the merged results.
+     * @param  num_blocks  number of sorted blocks.
+     * @param  block_size  number of elements in each block, save for the
+     *                     last, which extends to the end of the array.
+     */
+    private static <T extends Comparable<? super T>> void mergePipelined(
+            T[] inputs, int num_blocks, int block_size) {
+        int count = inputs.length;
+        // The merged output is written over the inputs, hence the
+        // sorted blocks are read from a copy.
+        List<T> copy = Arrays.asList(inputs.clone());
+        List<Iterator<T>> runs = new ArrayList<Iterator<T>>(num_blocks);
+        for (int ii = 0; ii < num_blocks; ii++) {
+            int mark = ii * block_size;
+            int end = ii + 1 < num_blocks ? mark + block_size : count;
+            runs.add(copy.subList(mark, end).iterator());
+        }
+        PipelinedFunnel<T> funnel = new PipelinedFunnel<T>(runs);
+        try {
+            for (int ii = 0; ii < count; ii++) {
+                inputs[ii] = funnel.next();
+            }
+        } finally {
+            funnel.close();
+        }
+    }
+
+    /**
+     * Sorts the set of Comparables using the given engine to sort the
+     * subarrays in parallel.
+     *
+     * @param  inputs  array of Comparables to be sorted.
+     * @param  engine  engine with which to run the jobs.
+     */
+    private static void sortThreaded(Comparable[] inputs, ForkJoinEngine engine) {
         if (inputs == null || inputs.length < 2) {
             return;
         }
-        sort(inputs, 0, inputs.length, true);
+        sort(inputs, 0, inputs.length, engine);
+        Arena.release();
     }
 
     /**
      * Sorts the elements within the array starting at the offset and
      * ending at offset plus the count.
      *
-     * @param  inputs    array containing elements to be sorted.
-     * @param  offset    first position within array to be sorted.
-     * @param  count     number of elements from offset to be sorted.
-     * @param  threaded  true to use multiple threads, false otherwise.
+     * @param  inputs  array containing elements to be sorted.
+     * @param  offset  first position within array to be sorted.
+     * @param  count   number of elements from offset to be sorted.
+     * @param  engine  engine with which to sort the subarrays in
+     *                 parallel, or null to use the current thread.
      */
     @SuppressWarnings("unchecked")
     private static void sort(final Comparable[] inputs, final int offset,
-            final int count, boolean threaded) {
+            final int count, ForkJoinEngine engine) {
         if (count > QUICKSORT_THRESHOLD) {
             // Divide input into n^(1/3) arrays of size n^(2/3) and sort each.
             final int num_blocks = Math.round((float) Math.cbrt((double) count));
             final int block_size = count / num_blocks;
             int mark = offset;
-            if (threaded) {
+            if (engine != null) {
                 // In multi-threaded mode, create a set of jobs to sort each
                 // of the subarrays and run those jobs on multiple threads.
                 List<Callable<Object>> jobs = new ArrayList<Callable<Object>>();
@@ -94,34 +222,33 @@ public class LazyFunnelsort {
                 if (leftover > 0) {
                     jobs.add(new SortJob(inputs, mark, leftover));
                 }
-                // Use the number of available processors to determine the
-                // size of the thread pool, since having more threads does
-                // not improve overall performance with a CPU-intensive task.
-                ExecutorService executor = Executors.newFixedThreadPool(
-                        Runtime.getRuntime().availableProcessors());
                 try {
-                    executor.invokeAll(jobs);
-                    // Shut down to let the VM exit normally.
-                    executor.shutdown();
-                    executor.awaitTermination(1, TimeUnit.DAYS);
+                    engine.run(jobs);
                 } catch (InterruptedException ie) {
                     throw new RuntimeException("Sorters interrupted!", ie);
                 }
-                // Once the subarrays have been sorted, we merge them in a
-                // single thread, just as in the single-threaded case.
+                // Once the subarrays have been sorted, we merge them,
+                // also in parallel when there is more than one thread.
             } else {
                 // In single-threaded mode, just sort the subarrays
                 // sequentially in the current thread.
                 for (int ii = 1; ii < num_blocks; ii++) {
-                    sort(inputs, mark, block_size, false);
+                    sort(inputs, mark, block_size, null);
                     mark += block_size;
                 }
                 int leftover = count - (mark - offset);
                 if (leftover > 0) {
-                    sort(inputs, mark, leftover, false);
+                    sort(inputs, mark, leftover, null);
                 }
             }
 
+            if (engine != null && engine.getParallelism() > 1) {
+                // Split the merge into independent parts and merge
+                // those in parallel as well.
+                mergeThreaded(inputs, offset, count, num_blocks, block_size, engine);
+                return;
+            }
+
             // Merge the n^(1/3) sorted arrays using a k-merger.
             List<CircularBuffer<Comparable>> buffers =
                     new ArrayList<CircularBuffer<Comparable>>(num_blocks);
@@ -134,8 +261,11 @@ public class LazyFunnelsort {
             if (leftover > 0) {
                 buffers.add(new CircularBuffer<Comparable>(inputs, mark, leftover, false));
             }
-            CircularBuffer<Comparable> output = new CircularBuffer<Comparable>(count);
-            Kmerger merger = MergerFactory.createMerger(buffers, 0, buffers.size(), output);
+            // The subarrays have been sorted by now, so the arena of this
+            // thread is free to hold the output and the funnel's buffers.
+            Arena arena = Arena.forThread(count + MergerFactory.space(buffers.size()));
+            CircularBuffer<Comparable> output = arena.buffer(count);
+            Kmerger merger = MergerFactory.createMerger(buffers, 0, buffers.size(), output, arena);
             merger.merge();
             output.drain(inputs, offset);
             //
@@ -150,6 +280,210 @@ public class LazyFunnelsort {
         }
     }
 
+    /**
+     * Merges the sorted blocks of the given range using multiple threads.
+     * The output is divided into one part for each thread, and the blocks
+     * are cut at the boundaries of those parts (see {@link #coRank}), such
+     * that each part may be merged by its own funnel, independently of the
+     * others. The parts are written directly into the inputs array, hence
+     * the blocks are read from a copy.
+     *
+     * @param  inputs     array containing the sorted blocks.
+     * @param  offset     first position within array to be merged.
+     * @param  count      number of elements from offset to be merged.
+     * @param  blocks     number of sorted blocks.
+     * @param  blockSize  size of each block, save the last, which holds
+     *                    the remaining elements.
+     * @param  engine     engine with which to run the merge jobs.
+     */
+    private static void mergeThreaded(Comparable[] inputs, int offset,
+            int count, int blocks, int blockSize, ForkJoinEngine engine) {
+        Comparable[] copy = new Comparable[count];
+        System.arraycopy(inputs, offset, copy, 0, count);
+        int[] starts = new int[blocks];
+        int[] ends = new int[blocks];
+        for (int ii = 0; ii < blocks; ii++) {
+            starts[ii] = ii * blockSize;
+            ends[ii] = ii + 1 < blocks ? starts[ii] + blockSize : count;
+        }
+        // Keep the parts large enough to be worth the cutting.
+        int parts = Math.min(engine.getParallelism(), count / QUICKSORT_THRESHOLD);
+        List<Callable<Object>> jobs = new ArrayList<Callable<Object>>(parts);
+        for (int ii = 0; ii < parts; ii++) {
+            int first = (int) ((long) count * ii / parts);
+            int last = (int) ((long) count * (ii + 1) / parts);
+            jobs.add(new MergeJob(copy, starts, ends, first, last, inputs, offset));
+        }
+        try {
+            engine.run(jobs);
+        } catch (InterruptedException ie) {
+            throw new RuntimeException("Mergers interrupted!", ie);
+        }
+    }
+
+    /**
+     * Finds where to cut each of the sorted blocks such that the elements
+     * before the cuts are the first {@code rank} elements of the merged
+     * output. The cuts are found by searching for the element of the given
+     * rank, narrowing the range of each block in which it may lie using
+     * binary searches for a candidate element in all of the blocks. Equal
+     * elements that straddle the cut are taken from the earlier blocks
+     * first, which makes the cuts for a larger rank never less than those
+     * for a smaller rank.
+     *
+     * @param  data    array containing the sorted blocks.
+     * @param  starts  first position of each block.
+     * @param  ends    position following the last element of each block.
+     * @param  rank    number of elements to appear before the cuts.
+     * @return  position of the cut within each block.
+     */
+    @SuppressWarnings("unchecked")
+    private static int[] coRank(Comparable[] data, int[] starts, int[] ends, int rank) {
+        int k = starts.length;
+        int total = 0;
+        for (int ii = 0; ii < k; ii++) {
+            total += ends[ii] - starts[ii];
+        }
+        if (rank <= 0) {
+            return starts.clone();
+        } else if (rank >= total) {
+            return ends.clone();
+        }
+        // The element of the given rank lies within these ranges.
+        int[] lo = starts.clone();
+        int[] hi = ends.clone();
+        int[] lower = new int[k];
+        int[] upper = new int[k];
+        while (true) {
+            // Take the middle of the largest range as the candidate.
+            int widest = 0;
+            for (int ii = 1; ii < k; ii++) {
+                if (hi[ii] - lo[ii] > hi[widest] - lo[widest]) {
+                    widest = ii;
+                }
+            }
+            Comparable v = data[(lo[widest] + hi[widest]) >>> 1];
+            // Count the elements less than, and not greater than, v.
+            int below = 0;
+            int through = 0;
+            for (int ii = 0; ii < k; ii++) {
+                int l = starts[ii];
+                int h = ends[ii];
+                while (l < h) {
+                    int m = (l + h) >>> 1;
+                    if (data[m].compareTo(v) < 0) {
+                        l = m + 1;
+                    } else {
+                        h = m;
+                    }
+                }
+                lower[ii] = l;
+                h = ends[ii];
+                while (l < h) {
+                    int m = (l + h) >>> 1;
+                    if (data[m].compareTo(v) <= 0) {
+                        l = m + 1;
+                    } else {
+                        h = m;
+                    }
+                }
+                upper[ii] = l;
+                below += lower[ii] - starts[ii];
+                through += upper[ii] - starts[ii];
+            }
+            if (through <= rank) {
+                // Candidate is too small.
+                for (int ii = 0; ii < k; ii++) {
+                    lo[ii] = Math.max(lo[ii], upper[ii]);
+                }
+            } else if (below > rank) {
+                // Candidate is too large.
+                for (int ii = 0; ii < k; ii++) {
+                    hi[ii] = Math.min(hi[ii], lower[ii]);
+                }
+            } else {
+                // Found the element, now divide up its equals.
+                int needed = rank - below;
+                for (int ii = 0; ii < k; ii++) {
+                    int n = Math.min(needed, upper[ii] - lower[ii]);
+                    lower[ii] += n;
+                    needed -= n;
+                }
+                return lower;
+            }
+        }
+    }
+
+    /**
+     * A MergeJob merges one part of the output, from the blocks as cut by
+     * {@link #coRank}, writing the results directly into the array.
+     */
+    private static class MergeJob implements Callable<Object> {
+
+        /** Copy of the sorted blocks. */
+        private final Comparable[] data;
+        /** First position of each block. */
+        private final int[] starts;
+        /** Position following the last element of each block. */
+        private final int[] ends;
+        /** Rank of the first element in this part. */
+        private final int first;
+        /** Rank following the last element in this part. */
+        private final int last;
+        /** Array to which the merged output is written. */
+        private final Comparable[] outputs;
+        /** Position in outputs of the element of rank zero. */
+        private final int offset;
+
+        /**
+         * Creates a new instance of MergeJob.
+         *
+         * @param  data     copy of the sorted blocks.
+         * @param  starts   first position of each block.
+         * @param  ends     position following the last element of each block.
+         * @param  first    rank of the first element in this part.
+         * @param  last     rank following the last element in this part.
+         * @param  outputs  array to which merged output is written.
+         * @param  offset   position in outputs of the element of rank zero.
+         */
+        MergeJob(Comparable[] data, int[] starts, int[] ends, int first,
+                int last, Comparable[] outputs, int offset) {
+            this.data = data;
+            this.starts = starts;
+            this.ends = ends;
+            this.first = first;
+            this.last = last;
+            this.outputs = outputs;
+            this.offset = offset;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            int[] low = coRank(data, starts, ends, first);
+            int[] high = coRank(data, starts, ends, last);
+            List<CircularBuffer<Comparable>> buffers =
+                    new ArrayList<CircularBuffer<Comparable>>(low.length);
+            for (int ii = 0; ii < low.length; ii++) {
+                if (high[ii] > low[ii]) {
+                    buffers.add(new CircularBuffer<Comparable>(
+                            data, low[ii], high[ii] - low[ii], false));
+                }
+            }
+            if (!buffers.isEmpty()) {
+                // Use this part of the array as an empty output buffer,
+                // which the merger will fill exactly.
+                CircularBuffer<Comparable> output = new CircularBuffer<Comparable>(
+                        outputs, offset + first, last - first, false);
+                output.clear();
+                Arena arena = Arena.forThread(MergerFactory.space(buffers.size()));
+                Kmerger merger = MergerFactory.createMerger(buffers, 0, buffers.size(), output, arena);
+                merger.merge();
+                Arena.release();
+            }
+            return null;
+        }
+    }
+
     /**
      * A SortJob is a simple Callable that invokes the sort() method with
      * the values given in the constructor.
@@ -178,7 +512,8 @@ public class LazyFunnelsort {
 
         @Override
         public Object call() throws Exception {
-            sort(inputs, offset, count, false);
+            sort(inputs, offset, count, null);
+            Arena.release();
             return null;
         }
     }
@@ -200,6 +535,9 @@ public class LazyFunnelsort {
      */
     static class MergerFactory {
 
+        /** Largest number of inputs for the insertion merger. */
+        private static final int INSERTION_FANIN = 4;
+
         private MergerFactory() {
         }
 
@@ -213,13 +551,35 @@ public class LazyFunnelsort {
          * @param  output  buffer to which merged results are written.
          * @return  a Kmerger instance.
          */
-        @SuppressWarnings("unchecked")
         public static Kmerger createMerger(
                 List<CircularBuffer<Comparable>> inputs, int offset,
                 int count, CircularBuffer<Comparable> output) {
+            return createMerger(inputs, offset, count, output, null);
+        }
+
+        /**
+         * Creates a new instance of Kmerger to merge the input buffers,
+         * with any buffers within the merger taken from the given arena.
+         *
+         * @param  inputs  streams of sorted input to be merged.
+         * @param  offset  first element in list to be merged.
+         * @param  count   number of elements in list to be merged, starting
+         *                 from the {@code offset} position.
+         * @param  output  buffer to which merged results are written.
+         * @param  arena   arena from which to take buffers, with room
+         *                 for {@link #space(int)} elements; if null, the
+         *                 buffers are allocated individually.
+         * @return  a Kmerger instance.
+         */
+        @SuppressWarnings("unchecked")
+        public static Kmerger createMerger(
+                List<CircularBuffer<Comparable>> inputs, int offset,
+                int count, CircularBuffer<Comparable> output, Arena arena) {
             // Tests indicate the values of 8 and 16 do not help performance.
-            if (count > 4) {
-                return new BufferMerger(inputs, offset, count, output);
+            // Neither does a loser tree (see KWayMerge) in place of the
+            // insertion merger, whether for 4 inputs or up to 64.
+            if (count > INSERTION_FANIN) {
+                return new BufferMerger(inputs, offset, count, output, arena);
             } else {
                 // Convert the sublist to an array for insertion merger.
                 CircularBuffer[] buffers = new CircularBuffer[count];
@@ -231,6 +591,113 @@ public class LazyFunnelsort {
                 return new InsertionMerger(buffers, output);
             }
         }
+
+        /**
+         * Computes the number of elements held by the buffers within a
+         * merger of the given number of inputs, not counting the inputs
+         * and output of the merger.
+         *
+         * @param  count  number of inputs to be merged.
+         * @return  total capacity of the buffers.
+         */
+        static int space(int count) {
+            if (count <= INSERTION_FANIN) {
+                return 0;
+            }
+            int[] groups = BufferMerger.groups(count);
+            int total = space(groups.length);
+            for (int size : groups) {
+                total += BufferMerger.bufferSize(count) + space(size);
+            }
+            return total;
+        }
+    }
+
+    /**
+     * An arena holds the buffers of a funnel in one contiguous array, in
+     * the order in which they are taken. Each thread has an arena of its
+     * own, which is kept (softly referenced) to be used again by the next
+     * funnel of that thread.
+     */
+    static class Arena {
+
+        /** The arena of each thread, if it has one. */
+        private static final ThreadLocal<SoftReference<Arena>> ARENAS =
+                new ThreadLocal<SoftReference<Arena>>();
+        /** The array from which the buffers are taken. */
+        private Comparable[] space = new Comparable[0];
+        /** Position of the next buffer to be taken. */
+        private int next;
+        /** Highest position used since the arena was last released. */
+        private int used;
+
+        /**
+         * Returns the arena of the current thread, emptied and with room
+         * for at least the given number of elements.
+         *
+         * @param  capacity  number of elements required.
+         * @return  the arena.
+         */
+        static Arena forThread(int capacity) {
+            SoftReference<Arena> ref = ARENAS.get();
+            Arena arena = ref == null ? null : ref.get();
+            if (arena == null) {
+                arena = new Arena();
+                ARENAS.set(new SoftReference<Arena>(arena));
+            }
+            if (arena.space.length < capacity) {
+                arena.space = new Comparable[capacity];
+                arena.used = 0;
+            }
+            arena.next = 0;
+            return arena;
+        }
+
+        /**
+         * Clears the arena of the current thread, if any, such that it
+         * no longer refers to the elements that were sorted.
+         */
+        static void release() {
+            SoftReference<Arena> ref = ARENAS.get();
+            Arena arena = ref == null ? null : ref.get();
+            if (arena != null) {
+                Arrays.fill(arena.space, 0, arena.used, null);
+                arena.used = 0;
+            }
+        }
+
+        /**
+         * Takes an empty buffer of the given capacity from the arena.
+         *
+         * @param  capacity  capacity of the buffer.
+         * @return  the new buffer.
+         */
+        CircularBuffer<Comparable> buffer(int capacity) {
+            CircularBuffer<Comparable> buffer =
+                    new CircularBuffer<Comparable>(space, next, capacity, false);
+            buffer.clear();
+            next += capacity;
+            used = Math.max(used, next);
+            return buffer;
+        }
+
+        /**
+         * Returns the position of the next buffer to be taken.
+         *
+         * @return  position within the arena.
+         */
+        int position() {
+            return next;
+        }
+
+        /**
+         * Sets the position of the next buffer to be taken.
+         *
+         * @param  position  position within the arena.
+         */
+        void position(int position) {
+            next = position;
+        }
     }
 
     /**
@@ -238,7 +705,7 @@ public class LazyFunnelsort {
      * each of size k^(1/2), creating additional mergers for those
      * groups, and ultimately merging their output into a single buffer.
      */
-    private static class BufferMerger implements Kmerger, Observer {
+    private static class BufferMerger implements Kmerger, CircularBuffer.Source {
 
         /** The output buffer for this merger. */
         private final CircularBuffer<Comparable> output;
@@ -255,13 +722,69 @@ public class LazyFunnelsort {
          * @param  count   number of elements in list to be merged, starting
          *                 from the {@code offset} position.
          * @param  output  buffer to which merged results are written.
+         * @param  arena   arena from which to take buffers, or null to
+         *                 allocate each buffer separately.
          */
         BufferMerger(List<CircularBuffer<Comparable>> inputs,
-                int offset, int count, CircularBuffer<Comparable> output) {
+                int offset, int count, CircularBuffer<Comparable> output,
+                Arena arena) {
             this.output = output;
-            output.addObserver(this);
-            int k = count;
-            int k3half2 = Math.round((float) Math.sqrt((double) k * k * k)) * 2;
+            int k3half2 = bufferSize(count);
+            int[] groups = groups(count);
+            Li = new ArrayList<Kmerger>(groups.length);
+            // The buffers of the R merger come first in the arena,
+            // followed by its inputs, and then the left mergers.
+            int top = 0;
+            if (arena != null) {
+                top = arena.position();
+                arena.position(top + MergerFactory.space(groups.length));
+            }
+            // Set up the list of buffers for the right side merger.
+            List<CircularBuffer<Comparable>> buffers =
+                    new ArrayList<CircularBuffer<Comparable>>(groups.length);
+            for (int ii = 0; ii < groups.length; ii++) {
+                buffers.add(arena == null ? new CircularBuffer<Comparable>(k3half2)
+                        : arena.buffer(k3half2));
+            }
+            // Create mergers for the left inputs by dividing up the
+            // inputs into roughly equal-sized sublists.
+            int mark = offset;
+            for (int ii = 0; ii < groups.length; ii++) {
+                Li.add(MergerFactory.createMerger(inputs, mark, groups[ii],
+                        buffers.get(ii), arena));
+                mark += groups[ii];
+            }
+            if (arena != null) {
+                int end = arena.position();
+                arena.position(top);
+                R = MergerFactory.createMerger(buffers, 0, buffers.size(), output, arena);
+                arena.position(end);
+            } else {
+                R = MergerFactory.createMerger(buffers, 0, buffers.size(), output);
+            }
+            // Take over refilling the output from the R merger.
+            output.setSource(this);
+        }
+
+        /**
+         * Computes the capacity of the buffers between the left mergers
+         * and the R merger, being twice k^(3/2).
+         *
+         * @param  k  number of inputs to the merger.
+         * @return  capacity of each buffer.
+         */
+        static int bufferSize(int k) {
+            return Math.round((float) Math.sqrt((double) k * k * k)) * 2;
+        }
+
+        /**
+         * Divides the inputs of a merger into groups, one for each of the
+         * left mergers.
+         *
+         * @param  k  number of inputs to the merger.
+         * @return  number of inputs in each group.
+         */
+        static int[] groups(int k) {
             double k2 = Math.sqrt((double) k);
             // The kroot is used to determine the number of mergers to
             // create, which we want to be reasonable, so we round.
@@ -270,26 +793,15 @@ public class LazyFunnelsort {
             // merger, of which we want to have an even distribution,
             // and so the ceiling of this value is taken.
             int kspread = (int) Math.ceil(k2);
-            Li = new ArrayList<Kmerger>(kroot);
-            // Set up the list of buffers for the right side merger.
-            List<CircularBuffer<Comparable>> buffers =
-                    new ArrayList<CircularBuffer<Comparable>>();
-            // Create mergers for the left inputs by dividing up the
-            // inputs into roughly equal-sized sublists.
-            int mark = offset;
-            for (int ii = 1; ii < kroot; ii++) {
-                CircularBuffer<Comparable> buffer = new CircularBuffer<Comparable>(k3half2);
-                buffers.add(buffer);
-                Li.add(MergerFactory.createMerger(inputs, mark, kspread, buffer));
-                mark += kspread;
+            int leftover = k - (kroot - 1) * kspread;
+            int[] groups = new int[leftover > 0 ? kroot : kroot - 1];
+            for (int ii = 0; ii < groups.length; ii++) {
+                groups[ii] = kspread;
             }
-            int leftover = count - (mark - offset);
             if (leftover > 0) {
-                CircularBuffer<Comparable> buffer = new CircularBuffer<Comparable>(k3half2);
-                buffers.add(buffer);
-                Li.add(MergerFactory.createMerger(inputs, mark, leftover, buffer));
+                groups[kroot - 1] = leftover;
             }
-            R = MergerFactory.createMerger(buffers, 0, buffers.size(), output);
+            return groups;
         }
 
         @Override
@@ -306,9 +818,8 @@ public class LazyFunnelsort {
         }
 
         @Override
-        public void update(Observable o, Object arg) {
-            // The buffer that we are observing has become empty,
-            // try to fill it again.
+        public void refill() {
+            // The output buffer has become empty, try to fill it again.
             merge();
         }
     }
@@ -317,7 +828,7 @@ public class LazyFunnelsort {
      * A k-merger that merges multiple inputs, using an efficient
      * insertion d-way mergesort.
      */
-    private static class InsertionMerger implements Kmerger, Observer {
+    private static class InsertionMerger implements Kmerger, CircularBuffer.Source {
 
         /** List of input buffers. */
         private CircularBuffer[] buffers;
@@ -338,7 +849,7 @@ public class LazyFunnelsort {
             bufferCount = buffers.length;
             this.buffers = buffers;
             this.output = output;
-            output.addObserver(this);
+            output.setSource(this);
         }
 
         @Override
@@ -424,7 +935,7 @@ public class LazyFunnelsort {
         }
 
         @Override
-        public void update(Observable o, Object arg) {
+        public void refill() {
             // Attempt to populate the recently emptied output buffer.
             merge();
         }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+/**
+ * A stable string mergesort that keeps the length of the longest common
+ * prefix (LCP) of each string and its predecessor, as described by
+ * W. Ng and K. Kakehi in "Merging String Sequences by Longest Common
+ * Prefixes" (2008). When merging two runs, the LCP values decide most
+ * comparisons without examining any characters, and the remaining
+ * comparisons start after the characters known to be shared, such that
+ * no character is compared more than once per level of the merge.
+ *
+ * <p>Equal strings remain in the order in which they were given, which
+ * makes this sort suitable for sorting the buckets of a stable burstsort.
+ * Small ranges are sorted using insertion sort, which is also stable.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public class LcpMergesort {
+
+    /** Ranges of fewer than this many strings are sorted by insertion
+     * sort. */
+    private static final int THRESHOLD = 16;
+
+    /**
+     * Creates a new instance of LcpMergesort.
+     */
+    private LcpMergesort() {
+    }
+
+    /**
+     * Retrieve the character in string s at offset d. If d is greater
+     * than or equal to the length of the string, return zero. This
+     * simulates fixed-length strings that are zero-padded.
+     *
+     * @param  s  string.
+     * @param  d  offset.
+     * @return  character in s at d, or zero.
+     */
+    private static char charAt(CharSequence s, int d) {
+        return d < s.length() ? s.charAt(d) : 0;
+    }
+
+    /**
+     * Sorts the array of strings using a stable LCP mergesort.
+     *
+     * @param  strings  array of strings to be sorted.
+     */
+    public static void sort(CharSequence[] strings) {
+        if (strings != null && strings.length > 1) {
+            sort(strings, 0, strings.length, 0);
+        }
+    }
+
+    /**
+     * Sorts the array of strings using a stable LCP mergesort.
+     *
+     * <p>Only characters in the strings starting from the given offset
+     * <em>depth</em> are considered. That is, the method will ignore all
+     * characters appearing before the <em>depth</em> character.</p>
+     *
+     * @param  strings  array of strings to sort.
+     * @param  low      low offset into the array (inclusive).
+     * @param  high     high offset into the array (exclusive).
+     * @param  depth    offset of first character in each string to compare.
+     */
+    public static void sort(CharSequence[] strings, int low, int high, int depth) {
+        if (strings != null && low >= 0 && high - low > 1 && depth >= 0) {
+            int n = high - low;
+            int half = (n + 1) / 2;
+            msort(strings, low, high, depth, new int[n], low,
+                    new CharSequence[half], new int[half]);
+        }
+    }
+
+    /**
+     * Finds the length of the common prefix of two strings, knowing that
+     * they share at least the first <em>depth</em> characters.
+     *
+     * @param  a      first string.
+     * @param  b      second string.
+     * @param  depth  number of characters known to be shared.
+     * @return  length of the common prefix.
+     */
+    private static int lcp(CharSequence a, CharSequence b, int depth) {
+        int h = depth;
+        char c = charAt(a, h);
+        while (c != 0 && c == charAt(b, h)) {
+            h++;
+            c = charAt(a, h);
+        }
+        return h;
+    }
+
+    /**
+     * The recursive portion of the mergesort, which sorts the range of
+     * strings and sets the LCP of each string with its predecessor.
+     *
+     * @param  a      the array of strings to sort.
+     * @param  low    low offset into the array (inclusive).
+     * @param  high   high offset into the array (exclusive).
+     * @param  depth  number of characters shared by all of the strings.
+     * @param  lcp    the LCP values, offset by <em>base</em>.
+     * @param  base   offset of the array that corresponds to lcp[0].
+     * @param  tmp    scratch space for the strings of the left run.
+     * @param  tlcp   scratch space for the LCP values of the left run.
+     */
+    private static void msort(CharSequence[] a, int low, int high, int depth,
+            int[] lcp, int base, CharSequence[] tmp, int[] tlcp) {
+        if (high - low < THRESHOLD) {
+            Insertionsort.sort(a, low, high, depth);
+            for (int i = low + 1; i < high; i++) {
+                lcp[i - base] = lcp(a[i - 1], a[i], depth);
+            }
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        msort(a, low, mid, depth, lcp, base, tmp, tlcp);
+        msort(a, mid, high, depth, lcp, base, tmp, tlcp);
+        // If the runs are already in order, there is nothing to merge.
+        int h = lcp(a[mid - 1], a[mid], depth);
+        if (charAt(a[mid - 1], h) <= charAt(a[mid], h)) {
+            lcp[mid - base] = h;
+            return;
+        }
+        int n1 = mid - low;
+        System.arraycopy(a, low, tmp, 0, n1);
+        System.arraycopy(lcp, low - base, tlcp, 0, n1);
+        merge(a, low, mid, high, depth, lcp, base, tmp, tlcp);
+    }
+
+    /**
+     * Merges the left run, held in the scratch space, with the right run,
+     * which is in place at the end of the range. At each step <em>ka</em>
+     * and <em>kb</em> are the LCP of the heads of the two runs with the
+     * string most recently written to the output. If they differ, the
+     * head with the longer LCP is the smaller string; otherwise the heads
+     * are compared starting after their shared characters.
+     *
+     * @param  a      the array of strings.
+     * @param  low    start of the output, and of the left run.
+     * @param  mid    start of the right run.
+     * @param  high   end of the right run (exclusive).
+     * @param  depth  number of characters shared by all of the strings.
+     * @param  lcp    the LCP values, offset by <em>base</em>.
+     * @param  base   offset of the array that corresponds to lcp[0].
+     * @param  tmp    strings of the left run.
+     * @param  tlcp   LCP values of the left run.
+     */
+    private static void merge(CharSequence[] a, int low, int mid, int high,
+            int depth, int[] lcp, int base, CharSequence[] tmp, int[] tlcp) {
+        int n1 = mid - low;
+        int i = 0;
+        int j = mid;
+        int k = low;
+        int ka = depth;
+        int kb = depth;
+        while (i < n1 && j < high) {
+            boolean left;
+            if (ka > kb) {
+                left = true;
+            } else if (ka < kb) {
+                left = false;
+            } else {
+                CharSequence x = tmp[i];
+                CharSequence y = a[j];
+                int h = ka;
+                char cx = charAt(x, h);
+                char cy = charAt(y, h);
+                while (cx == cy && cx != 0) {
+                    h++;
+                    cx = charAt(x, h);
+                    cy = charAt(y, h);
+                }
+                // Prefer the left run when equal, for stability.
+                left = cx <= cy;
+                if (left) {
+                    kb = h;
+                } else {
+                    ka = h;
+                }
+            }
+            if (left) {
+                a[k] = tmp[i];
+                lcp[k - base] = ka;
+                i++;
+                if (i < n1) {
+                    ka = tlcp[i];
+                }
+            } else {
+                a[k] = a[j];
+                lcp[k - base] = kb;
+                j++;
+                if (j < high) {
+                    kb = lcp[j - base];
+                }
+            }
+            k++;
+        }
+        while (i < n1) {
+            a[k] = tmp[i];
+            lcp[k - base] = ka;
+            i++;
+            if (i < n1) {
+                ka = tlcp[i];
+            }
+            k++;
+        }
+        if (j < high) {
+            // The rest of the right run is already in place.
+            lcp[j - base] = kb;
+        }
+    }
+}
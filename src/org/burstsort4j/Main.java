@@ -11,6 +11,7 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import java.io.InputStreamReader;
@@ -32,6 +33,8 @@ public class Main {
     private static final String BURSTSORT = "--burstsort";
     private static final String FUNNELSORT = "--funnelsort";
     private static final String MULTIKEY = "--multikey";
+    private static final String UNIQUE = "--unique";
+    private static final String COUNT = "--count";
 
     private Main() {
     }
@@ -42,20 +45,28 @@ public class Main {
      * @param  args  command line arguments.
      */
     public static void main(String[] args) {
-        if (args.length < 2 || args.length > 3) {
+        String sort = BURSTSORT;
+        boolean unique = false;
+        boolean count = false;
+        int i = 0;
+        while (i < args.length && args[i].startsWith("--")) {
+            if (args[i].equals(UNIQUE)) {
+                unique = true;
+            } else if (args[i].equals(COUNT)) {
+                count = true;
+            } else {
+                sort = args[i];
+            }
+            i++;
+        }
+        if (args.length - i != 2) {
             usage();
         }
-        String input;
-        String output;
-        String sort;
-        if (args.length == 3) {
-            sort = args[0];
-            input = args[1];
-            output = args[2];
-        } else {
-            sort = BURSTSORT;
-            input = args[0];
-            output = args[1];
+        String input = args[i];
+        String output = args[i + 1];
+        if ((unique || count) && !sort.equals(BURSTSORT)) {
+            // Only burstsort collapses the duplicates as it sorts.
+            usage();
         }
 
         // Read in the input file.
@@ -66,7 +77,12 @@ public class Main {
 
         // Sort the data using the selected sort.
         long s1 = System.currentTimeMillis();
-        if (sort.equals(FUNNELSORT)) {
+        int[] counts = null;
+        if (unique || count) {
+            counts = count ? new int[data.length] : null;
+            int n = Burstsort.sortDistinct(data, counts);
+            data = Arrays.copyOf(data, n);
+        } else if (sort.equals(FUNNELSORT)) {
             LazyFunnelsort.sort(data);
         } else if (sort.equals(BURSTSORT)) {
             Burstsort.sort(data);
@@ -80,7 +96,7 @@ public class Main {
 
         // Write the results to the output file.
         long w1 = System.currentTimeMillis();
-        writeFile(output, data);
+        writeFile(output, data, counts);
         long w2 = System.currentTimeMillis();
         System.out.format("Write time: %dms\n", w2 - w1);
     }
@@ -99,7 +115,12 @@ public class Main {
         System.out.println("\t--funnelsort");
         System.out.println("\t\tSort using the Lazy Funnelsort algorithm.\n");
         System.out.println("\t--multikey");
-        System.out.println("\t\tSort using the Multikey Quicksort algorithm.");
+        System.out.println("\t\tSort using the Multikey Quicksort algorithm.\n");
+        System.out.println("\t--unique");
+        System.out.println("\t\tWrite only one of each group of equal lines (uses Burstsort).\n");
+        System.out.println("\t--count");
+        System.out.println("\t\tAs with --unique, but prefix each line with the number");
+        System.out.println("\t\tof times it occurs, as does 'uniq -c'.");
         System.exit(0);
     }
 
@@ -136,10 +157,12 @@ public class Main {
     /**
      * Write the given array of strings to the named file.
      *
-     * @param  name  file name to write to.
-     * @param  data  the strings to be written.
+     * @param  name    file name to write to.
+     * @param  data    the strings to be written.
+     * @param  counts  if non-null, the number of occurrences of each
+     *                 string, written before the string.
      */
-    private static void writeFile(String name, String[] data) {
+    private static void writeFile(String name, String[] data, int[] counts) {
         try {
             Writer fw;
             if (name.toLowerCase().endsWith(".gz")) {
@@ -150,8 +173,11 @@ public class Main {
               fw = new FileWriter(name);
             }
             BufferedWriter bw = new BufferedWriter(fw);
-            for (String output : data) {
-                bw.write(output);
+            for (int i = 0; i < data.length; i++) {
+                if (counts != null) {
+                    bw.write(String.format("%7d ", counts[i]));
+                }
+                bw.write(data[i]);
                 bw.newLine();
             }
             bw.close();
@@ -11,6 +11,10 @@ package org.burstsort4j;
  * their "Fast algorithms for sorting and searching strings" paper
  * published in 1997.
  *
+ * <p>In addition to character sequences, arrays of byte keys (such as
+ * UTF-8 encoded text) may be sorted, in which case the bytes are compared
+ * as unsigned values. For UTF-8 this matches the code point order.</p>
+ *
  * @author Nathan Fiedler
  */
 public class MultikeyQuicksort {
@@ -38,6 +42,19 @@ public class MultikeyQuicksort {
         return d < s.length() ? s.charAt(d) : 0;
     }
 
+    /**
+     * Retrieve the byte in key s at offset d, as an unsigned value. If d
+     * is greater than or equal to the length of the key, return zero.
+     * This simulates fixed-length keys that are zero-padded.
+     *
+     * @param  s  key.
+     * @param  d  offset.
+     * @return  unsigned byte in s at d, or zero.
+     */
+    private static int byteAt(byte[] s, int d) {
+        return d < s.length ? s[d] & 0xff : 0;
+    }
+
     /**
      * Swap the elements between to subarrays.
      *
@@ -91,6 +108,164 @@ public class MultikeyQuicksort {
         }
     }
 
+    /**
+     * Sorts the array of strings using a multikey quicksort, with the
+     * characters in the given order.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  order    the order of the characters.
+     */
+    public static void sort(CharSequence[] strings, CharOrder order) {
+        if (strings != null) {
+            sort(strings, 0, strings.length, 0, order);
+        }
+    }
+
+    /**
+     * Sorts the range of strings using a multikey quicksort, with the
+     * characters in the given order. Only characters in the strings
+     * starting from the given offset <em>depth</em> are considered.
+     *
+     * @param  strings  array of strings to sort.
+     * @param  low      low offset into the array (inclusive).
+     * @param  high     high offset into the array (exclusive).
+     * @param  depth    offset of first character in each string to compare.
+     * @param  order    the order of the characters.
+     */
+    public static void sort(CharSequence[] strings, int low, int high, int depth,
+            CharOrder order) {
+        if (strings != null && strings.length > 1 && low >= 0 && low < high && depth >= 0) {
+            if (order.isNatural()) {
+                ssort(strings, low, high - low, depth);
+            } else {
+                ssort(strings, low, high - low, depth, order.ascending());
+            }
+            if (order.isDescending()) {
+                reverse(strings, low, high);
+            }
+        }
+    }
+
+    /**
+     * Sorts the array of strings using a multikey quicksort, and at the
+     * same time sets <code>lcp[i]</code> to the length of the longest
+     * common prefix of <code>strings[i - 1]</code> and
+     * <code>strings[i]</code>, with <code>lcp[0]</code> set to zero. The
+     * prefix lengths are known from the depth at which each partition
+     * separates the strings, so the characters are not examined again.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  lcp      receives the longest common prefix lengths.
+     * @throws  IllegalArgumentException  if lcp is shorter than strings.
+     */
+    public static void sort(CharSequence[] strings, int[] lcp) {
+        if (strings != null) {
+            if (lcp.length < strings.length) {
+                throw new IllegalArgumentException("lcp must be at least as long as strings");
+            }
+            if (strings.length > 0) {
+                lcp[0] = 0;
+            }
+            sort(strings, 0, strings.length, 0, lcp, 0);
+        }
+    }
+
+    /**
+     * Sorts the range of strings using a multikey quicksort, setting the
+     * longest common prefix of each string after the first with its
+     * predecessor, as with {@link #sort(CharSequence[], int[])}. The
+     * value for <code>strings[i]</code> is stored in
+     * <code>lcp[i + offset]</code>, and the value for the first string
+     * in the range is left unchanged.
+     *
+     * @param  strings  array of strings to sort.
+     * @param  low      low offset into the array (inclusive).
+     * @param  high     high offset into the array (exclusive).
+     * @param  depth    length of the prefix shared by all of the strings.
+     * @param  lcp      receives the longest common prefix lengths.
+     * @param  offset   added to the position of a string to find its
+     *                  entry in the lcp array.
+     */
+    static void sort(CharSequence[] strings, int low, int high, int depth,
+            int[] lcp, int offset) {
+        if (low >= 0 && high - low > 1 && depth >= 0) {
+            ssort(strings, low, high - low, depth, lcp, offset);
+        }
+    }
+
+    /**
+     * Reverses the order of the elements in the given range.
+     *
+     * @param  a     the array of elements.
+     * @param  low   low offset into the array (inclusive).
+     * @param  high  high offset into the array (exclusive).
+     */
+    static void reverse(Object[] a, int low, int high) {
+        for (int i = low, j = high - 1; i < j; i++, j--) {
+            Object t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    /**
+     * Determines the order of the given strings using a multikey
+     * quicksort, without moving the strings. The result is a permutation
+     * such that <code>strings[result[0]]</code> is the smallest string,
+     * <code>strings[result[1]]</code> the next smallest, and so on. The
+     * order of the indices of equal strings is not defined.
+     *
+     * <p>This is useful when the strings are the key for other arrays of
+     * data (e.g. the columns of a table), each of which may then be put
+     * in order using the same permutation.</p>
+     *
+     * @param  strings  array of strings to be ordered.
+     * @return  indices of the strings in sorted order, or null if the
+     *          strings array is null.
+     */
+    public static int[] sortIndices(CharSequence[] strings) {
+        if (strings == null) {
+            return null;
+        }
+        int[] indices = new int[strings.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        if (indices.length > 1) {
+            ssort(strings, indices, 0, indices.length, 0);
+        }
+        return indices;
+    }
+
+    /**
+     * Sorts the array of byte keys using a multikey quicksort, comparing
+     * the bytes as unsigned values. For very small subarrays, an insertion
+     * sort is used.
+     *
+     * @param  keys  array of keys to be sorted.
+     */
+    public static void sort(byte[][] keys) {
+        if (keys != null && keys.length > 1) {
+            ssort(keys, 0, keys.length, 0);
+        }
+    }
+
+    /**
+     * Sorts the array of byte keys using a multikey quicksort, comparing
+     * the bytes as unsigned values. Only the bytes in the keys starting
+     * from the given offset <em>depth</em> are considered.
+     *
+     * @param  keys   array of keys to sort.
+     * @param  low    low offset into the array (inclusive).
+     * @param  high   high offset into the array (exclusive).
+     * @param  depth  offset of first byte in each key to compare.
+     */
+    public static void sort(byte[][] keys, int low, int high, int depth) {
+        if (keys != null && keys.length > 1 && low >= 0 && low < high && depth >= 0) {
+            ssort(keys, low, high - low, depth);
+        }
+    }
+
     /**
      * Find the median of three characters, found in the given strings
      * at character position <em>depth</em>. One of the three integer
@@ -196,4 +371,531 @@ public class MultikeyQuicksort {
             ssort(a, base + n - r, r, depth);
         }
     }
+
+    /**
+     * Find the median of three characters, ranked according to the given
+     * order, found in the given strings at character position
+     * <em>depth</em>.
+     *
+     * @param  a      array of strings.
+     * @param  l      low index.
+     * @param  m      middle index.
+     * @param  h      high index.
+     * @param  depth  character offset.
+     * @param  order  the order of the characters.
+     * @return  the position of the median string.
+     */
+    private static int med3(CharSequence[] a, int l, int m, int h, int depth,
+            CharOrder order) {
+        char va = order.rankAt(a[l], depth);
+        char vb = order.rankAt(a[m], depth);
+        if (va == vb) {
+            return l;
+        }
+        char vc = order.rankAt(a[h], depth);
+        if (vc == va || vc == vb) {
+            return h;
+        }
+        return va < vb ? (vb < vc ? m : (va < vc ? h : l))
+                : (vb > vc ? m : (va < vc ? l : h));
+    }
+
+    /**
+     * The recursive portion of multikey quicksort, comparing the ranks
+     * of the characters in the given (ascending) order.
+     *
+     * @param  a      the array of strings to sort.
+     * @param  base   zero-based offset into array to be considered.
+     * @param  n      length of subarray to consider.
+     * @param  depth  the zero-based offset into the strings.
+     * @param  order  the order of the characters.
+     */
+    private static void ssort(CharSequence[] a, int base, int n, int depth,
+            CharOrder order) {
+        if (n < THRESHOLD) {
+            Insertionsort.sort(a, base, base + n, depth, order);
+            return;
+        }
+        int pl = base;
+        int pm = base + n / 2;
+        int pn = base + n - 1;
+        int r;
+        if (n > 30) {
+            // On larger arrays, find a pseudo median of nine elements.
+            int d = n / 8;
+            pl = med3(a, base, base + d, base + 2 * d, depth, order);
+            pm = med3(a, base + n / 2 - d, pm, base + n / 2 + d, depth, order);
+            pn = med3(a, base + n - 1 - 2 * d, base + n - 1 - d, pn, depth, order);
+        }
+        pm = med3(a, pl, pm, pn, depth, order);
+        CharSequence t = a[base];
+        a[base] = a[pm];
+        a[pm] = t;
+        int v = order.rankAt(a[base], depth);
+        boolean allzeros = v == 0;
+        int le = base + 1, lt = le;
+        int gt = base + n - 1, ge = gt;
+        while (true) {
+            for (; lt <= gt && (r = order.rankAt(a[lt], depth) - v) <= 0; lt++) {
+                if (r == 0) {
+                    t = a[le];
+                    a[le] = a[lt];
+                    a[lt] = t;
+                    le++;
+                } else {
+                    allzeros = false;
+                }
+            }
+            for (; lt <= gt && (r = order.rankAt(a[gt], depth) - v) >= 0; gt--) {
+                if (r == 0) {
+                    t = a[gt];
+                    a[gt] = a[ge];
+                    a[ge] = t;
+                    ge--;
+                } else {
+                    allzeros = false;
+                }
+            }
+            if (lt > gt) {
+                break;
+            }
+            t = a[lt];
+            a[lt] = a[gt];
+            a[gt] = t;
+            lt++;
+            gt--;
+        }
+        pn = base + n;
+        r = Math.min(le - base, lt - le);
+        vecswap(a, base, lt - r, r);
+        r = Math.min(ge - gt, pn - ge - 1);
+        vecswap(a, lt, pn - r, r);
+        if ((r = lt - le) > 1) {
+            ssort(a, base, r, depth, order);
+        }
+        if (!allzeros) {
+            // Only descend if there was at least one string that was
+            // of equal or greater length than current depth.
+            ssort(a, base + r, le + n - ge - 1, depth + 1, order);
+        }
+        if ((r = ge - gt) > 1) {
+            ssort(a, base + n - r, r, depth, order);
+        }
+    }
+
+    /**
+     * Finds the length of the common prefix of two strings, knowing that
+     * they share at least the first <em>depth</em> characters.
+     *
+     * @param  a      first string.
+     * @param  b      second string.
+     * @param  depth  number of characters known to be shared.
+     * @return  length of the common prefix.
+     */
+    private static int lcp(CharSequence a, CharSequence b, int depth) {
+        int h = depth;
+        char c = charAt(a, h);
+        while (c != 0 && c == charAt(b, h)) {
+            h++;
+            c = charAt(a, h);
+        }
+        return h;
+    }
+
+    /**
+     * The recursive portion of multikey quicksort, which also sets the
+     * longest common prefix of each string with its predecessor. The
+     * strings on either side of a partition boundary share exactly
+     * <em>depth</em> characters, as do equal strings that end here.
+     *
+     * @param  a       the array of strings to sort.
+     * @param  base    zero-based offset into array to be considered.
+     * @param  n       length of subarray to consider.
+     * @param  depth   the zero-based offset into the strings.
+     * @param  lcp     receives the longest common prefix lengths.
+     * @param  offset  added to the position of a string to find its
+     *                 entry in the lcp array.
+     */
+    private static void ssort(CharSequence[] a, int base, int n, int depth,
+            int[] lcp, int offset) {
+        if (n < THRESHOLD) {
+            Insertionsort.sort(a, base, base + n, depth);
+            for (int i = base + 1; i < base + n; i++) {
+                lcp[i + offset] = lcp(a[i - 1], a[i], depth);
+            }
+            return;
+        }
+        int pl = base;
+        int pm = base + n / 2;
+        int pn = base + n - 1;
+        int r;
+        if (n > 30) {
+            // On larger arrays, find a pseudo median of nine elements.
+            int d = n / 8;
+            pl = med3(a, base, base + d, base + 2 * d, depth);
+            pm = med3(a, base + n / 2 - d, pm, base + n / 2 + d, depth);
+            pn = med3(a, base + n - 1 - 2 * d, base + n - 1 - d, pn, depth);
+        }
+        pm = med3(a, pl, pm, pn, depth);
+        CharSequence t = a[base];
+        a[base] = a[pm];
+        a[pm] = t;
+        int v = charAt(a[base], depth);
+        int le = base + 1, lt = le;
+        int gt = base + n - 1, ge = gt;
+        while (true) {
+            for (; lt <= gt && (r = charAt(a[lt], depth) - v) <= 0; lt++) {
+                if (r == 0) {
+                    t = a[le];
+                    a[le] = a[lt];
+                    a[lt] = t;
+                    le++;
+                }
+            }
+            for (; lt <= gt && (r = charAt(a[gt], depth) - v) >= 0; gt--) {
+                if (r == 0) {
+                    t = a[gt];
+                    a[gt] = a[ge];
+                    a[ge] = t;
+                    ge--;
+                }
+            }
+            if (lt > gt) {
+                break;
+            }
+            t = a[lt];
+            a[lt] = a[gt];
+            a[gt] = t;
+            lt++;
+            gt--;
+        }
+        pn = base + n;
+        r = Math.min(le - base, lt - le);
+        vecswap(a, base, lt - r, r);
+        r = Math.min(ge - gt, pn - ge - 1);
+        vecswap(a, lt, pn - r, r);
+        int less = lt - le;
+        int equal = le + n - ge - 1;
+        int greater = ge - gt;
+        if (less > 1) {
+            ssort(a, base, less, depth, lcp, offset);
+        }
+        if (less > 0) {
+            lcp[base + less + offset] = depth;
+        }
+        if (v == 0) {
+            // The equal strings all end here.
+            for (int i = base + less + 1; i < base + less + equal; i++) {
+                lcp[i + offset] = depth;
+            }
+        } else if (equal > 1) {
+            ssort(a, base + less, equal, depth + 1, lcp, offset);
+        }
+        if (greater > 0) {
+            lcp[base + n - greater + offset] = depth;
+        }
+        if (greater > 1) {
+            ssort(a, base + n - greater, greater, depth, lcp, offset);
+        }
+    }
+
+    /**
+     * Swap the elements between to subarrays of indices.
+     *
+     * @param  a  the array of indices.
+     * @param  i  offset of first subarray.
+     * @param  j  offset of second subarray.
+     * @param  n  number of elements to swap.
+     */
+    private static void vecswap(int[] a, int i, int j, int n) {
+        while (n-- > 0) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+            i++;
+            j++;
+        }
+    }
+
+    /**
+     * Find the median of three characters, found in the strings referred
+     * to by the given indices, at character position <em>depth</em>.
+     *
+     * @param  s      array of strings.
+     * @param  a      array of indices into the strings.
+     * @param  l      low index.
+     * @param  m      middle index.
+     * @param  h      high index.
+     * @param  depth  character offset.
+     * @return  the position of the median index.
+     */
+    private static int med3(CharSequence[] s, int[] a, int l, int m, int h, int depth) {
+        char va = charAt(s[a[l]], depth);
+        char vb = charAt(s[a[m]], depth);
+        if (va == vb) {
+            return l;
+        }
+        char vc = charAt(s[a[h]], depth);
+        if (vc == va || vc == vb) {
+            return h;
+        }
+        return va < vb ? (vb < vc ? m : (va < vc ? h : l))
+                : (vb > vc ? m : (va < vc ? l : h));
+    }
+
+    /**
+     * The recursive portion of multikey quicksort, ordering the indices
+     * of the strings rather than the strings themselves.
+     *
+     * @param  s      the array of strings to be compared.
+     * @param  a      the array of indices to sort.
+     * @param  base   zero-based offset into indices to be considered.
+     * @param  n      length of subarray to consider.
+     * @param  depth  the zero-based offset into the strings.
+     */
+    private static void ssort(CharSequence[] s, int[] a, int base, int n, int depth) {
+        if (n < THRESHOLD) {
+            Insertionsort.sort(s, a, base, base + n, depth);
+            return;
+        }
+        int pl = base;
+        int pm = base + n / 2;
+        int pn = base + n - 1;
+        int r;
+        if (n > 30) {
+            // On larger arrays, find a pseudo median of nine elements.
+            int d = n / 8;
+            pl = med3(s, a, base, base + d, base + 2 * d, depth);
+            pm = med3(s, a, base + n / 2 - d, pm, base + n / 2 + d, depth);
+            pn = med3(s, a, base + n - 1 - 2 * d, base + n - 1 - d, pn, depth);
+        }
+        pm = med3(s, a, pl, pm, pn, depth);
+        int t = a[base];
+        a[base] = a[pm];
+        a[pm] = t;
+        int v = charAt(s[a[base]], depth);
+        boolean allzeros = v == 0;
+        int le = base + 1, lt = le;
+        int gt = base + n - 1, ge = gt;
+        while (true) {
+            for (; lt <= gt && (r = charAt(s[a[lt]], depth) - v) <= 0; lt++) {
+                if (r == 0) {
+                    t = a[le];
+                    a[le] = a[lt];
+                    a[lt] = t;
+                    le++;
+                } else {
+                    allzeros = false;
+                }
+            }
+            for (; lt <= gt && (r = charAt(s[a[gt]], depth) - v) >= 0; gt--) {
+                if (r == 0) {
+                    t = a[gt];
+                    a[gt] = a[ge];
+                    a[ge] = t;
+                    ge--;
+                } else {
+                    allzeros = false;
+                }
+            }
+            if (lt > gt) {
+                break;
+            }
+            t = a[lt];
+            a[lt] = a[gt];
+            a[gt] = t;
+            lt++;
+            gt--;
+        }
+        pn = base + n;
+        r = Math.min(le - base, lt - le);
+        vecswap(a, base, lt - r, r);
+        r = Math.min(ge - gt, pn - ge - 1);
+        vecswap(a, lt, pn - r, r);
+        if ((r = lt - le) > 1) {
+            ssort(s, a, base, r, depth);
+        }
+        if (!allzeros) {
+            // Only descend if there was at least one string that was
+            // of equal or greater length than current depth.
+            ssort(s, a, base + r, le + n - ge - 1, depth + 1);
+        }
+        if ((r = ge - gt) > 1) {
+            ssort(s, a, base + n - r, r, depth);
+        }
+    }
+
+    /**
+     * Performs a single partitioning step of multikey quicksort on the
+     * given range, such that the strings whose character at offset
+     * <em>depth</em> is less than the pivot character come first, then
+     * those equal to the pivot, and finally those that are greater.
+     * Used to divide a large range into parts that may be sorted
+     * independently of each other.
+     *
+     * @param  a      array of strings to partition.
+     * @param  low    low offset into the array (inclusive).
+     * @param  high   high offset into the array (exclusive); the range
+     *                must contain at least three strings.
+     * @param  depth  offset of the character to compare.
+     * @return  the start of the equal strings, the start of the greater
+     *          strings, and the pivot character, in that order.
+     */
+    static int[] partition(CharSequence[] a, int low, int high, int depth) {
+        int n = high - low;
+        int pl = low;
+        int pm = low + n / 2;
+        int pn = high - 1;
+        if (n > 30) {
+            int d = n / 8;
+            pl = med3(a, low, low + d, low + 2 * d, depth);
+            pm = med3(a, low + n / 2 - d, pm, low + n / 2 + d, depth);
+            pn = med3(a, high - 1 - 2 * d, high - 1 - d, pn, depth);
+        }
+        pm = med3(a, pl, pm, pn, depth);
+        CharSequence t = a[low];
+        a[low] = a[pm];
+        a[pm] = t;
+        int v = charAt(a[low], depth);
+        int le = low + 1, lt = le;
+        int gt = high - 1, ge = gt;
+        int r;
+        while (true) {
+            for (; lt <= gt && (r = charAt(a[lt], depth) - v) <= 0; lt++) {
+                if (r == 0) {
+                    t = a[le];
+                    a[le] = a[lt];
+                    a[lt] = t;
+                    le++;
+                }
+            }
+            for (; lt <= gt && (r = charAt(a[gt], depth) - v) >= 0; gt--) {
+                if (r == 0) {
+                    t = a[gt];
+                    a[gt] = a[ge];
+                    a[ge] = t;
+                    ge--;
+                }
+            }
+            if (lt > gt) {
+                break;
+            }
+            t = a[lt];
+            a[lt] = a[gt];
+            a[gt] = t;
+            lt++;
+            gt--;
+        }
+        r = Math.min(le - low, lt - le);
+        vecswap(a, low, lt - r, r);
+        r = Math.min(ge - gt, high - ge - 1);
+        vecswap(a, lt, high - r, r);
+        return new int[]{low + lt - le, high - (ge - gt), v};
+    }
+
+    /**
+     * Find the median of three bytes, found in the given keys at offset
+     * <em>depth</em>. One of the three integer values will be returned
+     * based on the comparisons.
+     *
+     * @param  a      array of keys.
+     * @param  l      low index.
+     * @param  m      middle index.
+     * @param  h      high index.
+     * @param  depth  byte offset.
+     * @return  the position of the median key.
+     */
+    private static int med3(byte[][] a, int l, int m, int h, int depth) {
+        int va = byteAt(a[l], depth);
+        int vb = byteAt(a[m], depth);
+        if (va == vb) {
+            return l;
+        }
+        int vc = byteAt(a[h], depth);
+        if (vc == va || vc == vb) {
+            return h;
+        }
+        return va < vb ? (vb < vc ? m : (va < vc ? h : l))
+                : (vb > vc ? m : (va < vc ? l : h));
+    }
+
+    /**
+     * The recursive portion of multikey quicksort for byte keys.
+     *
+     * @param  a      the array of keys to sort.
+     * @param  base   zero-based offset into array to be considered.
+     * @param  n      length of subarray to consider.
+     * @param  depth  the zero-based offset into the keys.
+     */
+    private static void ssort(byte[][] a, int base, int n, int depth) {
+        if (n < THRESHOLD) {
+            Insertionsort.sort(a, base, base + n, depth);
+            return;
+        }
+        int pl = base;
+        int pm = base + n / 2;
+        int pn = base + n - 1;
+        int r;
+        if (n > 30) {
+            // On larger arrays, find a pseudo median of nine elements.
+            int d = n / 8;
+            pl = med3(a, base, base + d, base + 2 * d, depth);
+            pm = med3(a, base + n / 2 - d, pm, base + n / 2 + d, depth);
+            pn = med3(a, base + n - 1 - 2 * d, base + n - 1 - d, pn, depth);
+        }
+        pm = med3(a, pl, pm, pn, depth);
+        byte[] t = a[base];
+        a[base] = a[pm];
+        a[pm] = t;
+        int v = byteAt(a[base], depth);
+        boolean allzeros = v == 0;
+        int le = base + 1, lt = le;
+        int gt = base + n - 1, ge = gt;
+        while (true) {
+            for (; lt <= gt && (r = byteAt(a[lt], depth) - v) <= 0; lt++) {
+                if (r == 0) {
+                    t = a[le];
+                    a[le] = a[lt];
+                    a[lt] = t;
+                    le++;
+                } else {
+                    allzeros = false;
+                }
+            }
+            for (; lt <= gt && (r = byteAt(a[gt], depth) - v) >= 0; gt--) {
+                if (r == 0) {
+                    t = a[gt];
+                    a[gt] = a[ge];
+                    a[ge] = t;
+                    ge--;
+                } else {
+                    allzeros = false;
+                }
+            }
+            if (lt > gt) {
+                break;
+            }
+            t = a[lt];
+            a[lt] = a[gt];
+            a[gt] = t;
+            lt++;
+            gt--;
+        }
+        pn = base + n;
+        r = Math.min(le - base, lt - le);
+        vecswap(a, base, lt - r, r);
+        r = Math.min(ge - gt, pn - ge - 1);
+        vecswap(a, lt, pn - r, r);
+        if ((r = lt - le) > 1) {
+            ssort(a, base, r, depth);
+        }
+        if (!allzeros) {
+            // Only descend if there was at least one key that was
+            // of equal or greater length than current depth.
+            ssort(a, base + r, le + n - ge - 1, depth + 1);
+        }
+        if ((r = ge - gt) > 1) {
+            ssort(a, base + n - r, r, depth);
+        }
+    }
 }
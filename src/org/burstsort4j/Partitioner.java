@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Distributes a set of strings by the character found at a given offset,
+ * such that the strings are grouped together in character order. This is
+ * used by the multi-threaded burstsort implementations to divide the input
+ * into disjoint ranges, each of which may be inserted into a separate
+ * sub-trie by a different thread, with the position of each range in the
+ * sorted output known in advance.
+ *
+ * @author Nathan Fiedler
+ */
+class Partitioner {
+    /** Null terminator character. */
+    private static final char NULLTERM = '\0';
+    /** Size of the complete character set (all UTF-16 code units). */
+    private static final int CHARSET = 65536;
+
+    /**
+     * Creates a new instance of Partitioner.
+     */
+    private Partitioner() {
+    }
+
+    /**
+     * Retrieve the character in string s at offset d. If d is greater
+     * than or equal to the length of the string, return zero. This
+     * simulates fixed-length strings that are zero-padded.
+     *
+     * @param  s  string.
+     * @param  d  offset.
+     * @return  character in s at d, or zero.
+     */
+    private static char charAt(CharSequence s, int d) {
+        return d < s.length() ? s.charAt(d) : NULLTERM;
+    }
+
+    /**
+     * Distributes the strings in the given range of the source array into
+     * the same range of the destination array, grouped by the character
+     * at the given offset. The order of the strings within each group is
+     * preserved.
+     *
+     * @param  src    strings to be distributed.
+     * @param  dst    array to receive the grouped strings.
+     * @param  from   first position to consider (inclusive).
+     * @param  to     last position to consider (exclusive).
+     * @param  depth  offset of the character by which to group.
+     * @return  group offsets, such that the strings with character c
+     *          are found from offsets[c] to offsets[c + 1] in dst.
+     */
+    static int[] partition(CharSequence[] src, CharSequence[] dst,
+            int from, int to, int depth) {
+        int[] offsets = new int[CHARSET + 1];
+        for (int i = from; i < to; i++) {
+            offsets[charAt(src[i], depth) + 1]++;
+        }
+        offsets[0] = from;
+        for (int c = 0; c < CHARSET; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] cursors = new int[CHARSET];
+        System.arraycopy(offsets, 0, cursors, 0, CHARSET);
+        for (int i = from; i < to; i++) {
+            dst[cursors[charAt(src[i], depth)]++] = src[i];
+        }
+        return offsets;
+    }
+
+    /**
+     * Distributes all of the strings in the source array into the
+     * destination array, grouped by the character at the given offset,
+     * using the engine to count and then move the strings in parallel.
+     *
+     * @param  src     strings to be distributed.
+     * @param  dst     array to receive the grouped strings.
+     * @param  depth   offset of the character by which to group.
+     * @param  engine  engine with which to run the jobs.
+     * @return  group offsets, such that the strings with character c
+     *          are found from offsets[c] to offsets[c + 1] in dst.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    static int[] partition(CharSequence[] src, CharSequence[] dst, int depth,
+            ForkJoinEngine engine) throws InterruptedException {
+        int chunks = engine.getParallelism();
+        int size = (src.length + chunks - 1) / chunks;
+        List<HistogramJob> counters = new ArrayList<HistogramJob>();
+        for (int from = 0; from < src.length; from += size) {
+            int to = Math.min(from + size, src.length);
+            counters.add(new HistogramJob(src, from, to, depth));
+        }
+        engine.run(counters);
+        // Compute the start of each group, and in turn the position at
+        // which each range will write its share of that group.
+        int[] offsets = new int[CHARSET + 1];
+        int pos = 0;
+        for (int c = 0; c < CHARSET; c++) {
+            offsets[c] = pos;
+            for (HistogramJob job : counters) {
+                int n = job.counts[c];
+                job.counts[c] = pos;
+                pos += n;
+            }
+        }
+        offsets[CHARSET] = pos;
+        List<ScatterJob> movers = new ArrayList<ScatterJob>();
+        for (HistogramJob job : counters) {
+            movers.add(new ScatterJob(src, dst, job.from, job.to, depth, job.counts));
+        }
+        engine.run(movers);
+        return offsets;
+    }
+
+    /**
+     * Counts the number of strings in a range of the input for each
+     * character at a particular offset.
+     */
+    private static class HistogramJob implements Callable<Object> {
+        /** The strings to be counted. */
+        private final CharSequence[] input;
+        /** First position to consider (inclusive). */
+        private final int from;
+        /** Last position to consider (exclusive). */
+        private final int to;
+        /** Offset of the character to be counted. */
+        private final int depth;
+        /** Number of strings for each character. */
+        private final int[] counts = new int[CHARSET];
+
+        /**
+         * Constructs an instance of HistogramJob.
+         *
+         * @param  input  the strings to be counted.
+         * @param  from   first position to consider (inclusive).
+         * @param  to     last position to consider (exclusive).
+         * @param  depth  offset of the character to be counted.
+         */
+        HistogramJob(CharSequence[] input, int from, int to, int depth) {
+            this.input = input;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            for (int i = from; i < to; i++) {
+                counts[charAt(input[i], depth)]++;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Moves the strings in a range of the input to their group within
+     * the output, as determined by the previously computed positions.
+     */
+    private static class ScatterJob implements Callable<Object> {
+        /** The strings to be moved. */
+        private final CharSequence[] input;
+        /** The array to which the strings are written. */
+        private final CharSequence[] output;
+        /** First position to consider (inclusive). */
+        private final int from;
+        /** Last position to consider (exclusive). */
+        private final int to;
+        /** Offset of the character by which to group. */
+        private final int depth;
+        /** Next output position for each character. */
+        private final int[] cursors;
+
+        /**
+         * Constructs an instance of ScatterJob.
+         *
+         * @param  input    the strings to be moved.
+         * @param  output   array to which the strings are written.
+         * @param  from     first position to consider (inclusive).
+         * @param  to       last position to consider (exclusive).
+         * @param  depth    offset of the character by which to group.
+         * @param  cursors  next output position for each character.
+         */
+        ScatterJob(CharSequence[] input, CharSequence[] output, int from,
+                int to, int depth, int[] cursors) {
+            this.input = input;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+            this.cursors = cursors;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            for (int i = from; i < to; i++) {
+                output[cursors[charAt(input[i], depth)]++] = input[i];
+            }
+            return null;
+        }
+    }
+}
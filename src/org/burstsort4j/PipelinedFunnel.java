@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A streaming k-way merger that works on several threads at once. As in
+ * the lazy funnelsort, the k sorted inputs are divided into about
+ * k^(1/2) groups, each merged by a left merger into its own buffer, with
+ * the right merger merging those buffers. Here, however, each left merger
+ * runs on its own thread, streaming into a {@link ConcurrentCircularBuffer},
+ * while the right merger runs in the thread that consumes the output, such
+ * that the work of the merge is overlapped across the funnel.
+ *
+ * <p>The inputs are read through iterators, and hence may be produced
+ * lazily, for instance by reading runs that were sorted and written to
+ * disk earlier. The iterators are only ever used by the thread of their
+ * left merger. If the output is not read to the end, the merger should be
+ * closed, to stop the threads of the left mergers. Should a left merger
+ * fail, or the elements fail to compare, the merger closes itself before
+ * the exception is thrown from {@code hasNext()} or {@code next()}.</p>
+ *
+ * @param  <T>  type of elements being merged.
+ * @author Nathan Fiedler
+ */
+public class PipelinedFunnel<T extends Comparable<? super T>>
+        implements Iterator<T>, Closeable {
+
+    /** Number of elements passed between threads at a time. */
+    private static final int BATCH_SIZE = 1024;
+    /** Capacity of the buffer between each left merger and the right. */
+    private static final int BUFFER_SIZE = 16384;
+    /** Buffers between the left mergers and the right merger. */
+    private final ConcurrentCircularBuffer<T>[] buffers;
+    /** Batch of elements removed from each buffer. */
+    private final T[][] batches;
+    /** Position of the next element in each batch. */
+    private final int[] positions;
+    /** Number of elements in each batch. */
+    private final int[] limits;
+    /** Groups that still have elements, in order of their next element. */
+    private final int[] order;
+    /** Number of groups in the order array. */
+    private int active;
+    /** True once the first batch of every group has been received. */
+    private boolean primed;
+
+    /**
+     * Creates a new instance of PipelinedFunnel to merge the given inputs,
+     * starting the threads for the left mergers.
+     *
+     * @param  inputs  iterators over the sorted inputs.
+     */
+    @SuppressWarnings("unchecked")
+    public PipelinedFunnel(List<? extends Iterator<? extends T>> inputs) {
+        int k = inputs.size();
+        int groups = Math.max(1, Math.round((float) Math.sqrt((double) k)));
+        buffers = (ConcurrentCircularBuffer<T>[]) new ConcurrentCircularBuffer<?>[groups];
+        batches = (T[][]) new Comparable<?>[groups][];
+        positions = new int[groups];
+        limits = new int[groups];
+        order = new int[groups];
+        int offset = 0;
+        for (int g = 0; g < groups; g++) {
+            // Divide the inputs into roughly equal-sized groups.
+            int end = (int) ((long) k * (g + 1) / groups);
+            Iterator<? extends T>[] group = inputs.subList(offset, end).toArray(
+                    (Iterator<? extends T>[]) new Iterator<?>[end - offset]);
+            offset = end;
+            buffers[g] = new ConcurrentCircularBuffer<T>(BUFFER_SIZE);
+            batches[g] = (T[]) new Comparable<?>[BATCH_SIZE];
+            Thread thread = new Thread(new LeftMerger<T>(group, buffers[g]),
+                    "PipelinedFunnel-" + g);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Receives the next batch of elements for the given group.
+     *
+     * @param  g  the group.
+     * @return  true if elements were received, false if the group has
+     *          no more elements.
+     */
+    private boolean receive(int g) {
+        int n = buffers[g].take(batches[g], 0, BATCH_SIZE);
+        if (n < 0) {
+            return false;
+        }
+        positions[g] = 0;
+        limits[g] = n;
+        return true;
+    }
+
+    /**
+     * Receives the first batch from every group and puts the groups in
+     * order by their first element.
+     */
+    private void prime() {
+        primed = true;
+        for (int g = 0; g < buffers.length; g++) {
+            if (receive(g)) {
+                T head = batches[g][0];
+                int j = active;
+                while (j > 0 && head.compareTo(peek(order[j - 1])) < 0) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = g;
+                active++;
+            }
+        }
+    }
+
+    /**
+     * Returns the next element of the given group.
+     *
+     * @param  g  the group.
+     * @return  next element of the group.
+     */
+    private T peek(int g) {
+        return batches[g][positions[g]];
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!primed) {
+            try {
+                prime();
+            } catch (RuntimeException re) {
+                // Stop the other left mergers, which may be waiting
+                // for space that will never come.
+                close();
+                throw re;
+            }
+        }
+        return active > 0;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int g = order[0];
+        T result = batches[g][positions[g]];
+        batches[g][positions[g]] = null;
+        positions[g]++;
+        try {
+            if (positions[g] == limits[g] && !receive(g)) {
+                // This group has been exhausted.
+                active--;
+                for (int i = 0; i < active; i++) {
+                    order[i] = order[i + 1];
+                }
+            } else {
+                // Insert the group into the correct position by its next element.
+                T s = peek(g);
+                int j = 1;
+                while (j < active && s.compareTo(peek(order[j])) > 0) {
+                    order[j - 1] = order[j];
+                    j++;
+                }
+                order[j - 1] = g;
+            }
+        } catch (RuntimeException re) {
+            // Either a left merger failed or the elements could not be
+            // compared; in both cases stop the remaining left mergers.
+            close();
+            throw re;
+        }
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove not supported");
+    }
+
+    /**
+     * Stops the left mergers, discarding any elements not yet read.
+     */
+    @Override
+    public void close() {
+        for (ConcurrentCircularBuffer<T> buffer : buffers) {
+            buffer.cancel();
+        }
+        active = 0;
+        primed = true;
+    }
+
+    /**
+     * A left merger merges a group of inputs, using an insertion d-way
+     * merge, and passes the results to the right merger in batches.
+     *
+     * @param  <T>  type of elements being merged.
+     */
+    private static class LeftMerger<T extends Comparable<? super T>> implements Runnable {
+
+        /** The inputs to be merged. */
+        private final Iterator<? extends T>[] inputs;
+        /** Buffer to which the results are passed. */
+        private final ConcurrentCircularBuffer<T> output;
+
+        /**
+         * Creates a new instance of LeftMerger.
+         *
+         * @param  inputs  the inputs to be merged.
+         * @param  output  buffer to which the results are passed.
+         */
+        LeftMerger(Iterator<? extends T>[] inputs, ConcurrentCircularBuffer<T> output) {
+            this.inputs = inputs;
+            this.output = output;
+        }
+
+        @Override
+        public void run() {
+            try {
+                merge();
+                output.close();
+            } catch (CancellationException ce) {
+                // The right merger has stopped reading.
+            } catch (Throwable t) {
+                output.fail(t);
+            }
+        }
+
+        /**
+         * Merges the inputs into the output buffer.
+         */
+        @SuppressWarnings("unchecked")
+        private void merge() {
+            int k = inputs.length;
+            Iterator<? extends T>[] iters = (Iterator<? extends T>[]) new Iterator<?>[k];
+            T[] heads = (T[]) new Comparable<?>[k];
+            int count = 0;
+            // Perform an insertion sort of the inputs using the leading values.
+            for (Iterator<? extends T> input : inputs) {
+                if (input.hasNext()) {
+                    T head = input.next();
+                    int j = count;
+                    while (j > 0 && head.compareTo(heads[j - 1]) < 0) {
+                        heads[j] = heads[j - 1];
+                        iters[j] = iters[j - 1];
+                        j--;
+                    }
+                    heads[j] = head;
+                    iters[j] = input;
+                    count++;
+                }
+            }
+            T[] batch = (T[]) new Comparable<?>[BATCH_SIZE];
+            int n = 0;
+            while (count > 0) {
+                batch[n++] = heads[0];
+                if (n == BATCH_SIZE) {
+                    output.put(batch, 0, n);
+                    n = 0;
+                }
+                Iterator<? extends T> t = iters[0];
+                if (t.hasNext()) {
+                    // Insert new candidate into correct position in array.
+                    T s = t.next();
+                    int j = 1;
+                    while (j < count && s.compareTo(heads[j]) > 0) {
+                        heads[j - 1] = heads[j];
+                        iters[j - 1] = iters[j];
+                        j++;
+                    }
+                    heads[j - 1] = s;
+                    iters[j - 1] = t;
+                } else {
+                    // This input has been exhausted.
+                    count--;
+                    for (int i = 0; i < count; i++) {
+                        heads[i] = heads[i + 1];
+                        iters[i] = iters[i + 1];
+                    }
+                }
+            }
+            if (n > 0) {
+                output.put(batch, 0, n);
+            }
+        }
+    }
+}
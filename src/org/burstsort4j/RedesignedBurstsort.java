@@ -10,9 +10,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Array-based implementation of the redesigned Burstsort, referred to as
@@ -24,25 +23,35 @@ import java.util.concurrent.TimeUnit;
  * burstsort, but may run slower as a result of the additional memory
  * allocations and array copies that are performed.</p>
  *
+ * <p>The full range of UTF-16 code units is supported. Each trie node
+ * has a dense table for the Latin-1 characters, while characters above
+ * U+00FF are held in pages that are allocated only when needed.</p>
+ *
  * @author Nathan Fiedler
  */
 public class RedesignedBurstsort {
     /** Null terminator character. */
     private static final char NULLTERM = '\0';
-    /** Maximum number of elements in any given bucket (except null bucket). */
-    private static final short THRESHOLD = 8192;
-    /** Size of the alphabet that is supported. */
+    /** Number of strings from the null bucket copied by each job in the
+     * parallel traversal. */
+    private static final short NULLBUCKET_CHUNK = 8192;
+    /** Size of the alphabet held directly in each trie node (Latin-1);
+     * the remaining characters are held in pages of the same size. */
     private static final short ALPHABET = 256;
-    /** Initial size for new sub-buckets. Combined with the growth factor
-     * it is crucial that the sub-bucket threshold is contained in the
-     * resulting sequence (e.g. 2, 4, 8, 16, 32, 64, 128, 256). */
+    /** Number of bits in the character offset within a page. */
+    private static final int PAGE_SHIFT = 8;
+    /** Number of pages needed to cover all UTF-16 code units. */
+    private static final int PAGES = 256;
+    /** Size of the complete character set (all UTF-16 code units). */
+    private static final int CHARSET = ALPHABET * PAGES;
+    /** Initial size for new sub-buckets. The growth of a sub-bucket is
+     * capped at the sub-bucket threshold, such that all but the last
+     * sub-bucket in a bucket are of exactly that size. */
     private static final short SUBBUCKET_START_SIZE = 16;
     /** The sub-bucket growth factor. The growth factor must strike a
      * balance between spending time allocating and copying arrays and
      * wasting space. */
     private static final short SUBBUCKET_GROWTH_FACTOR = 2;
-    /** Size of the sub-buckets referenced within the bucket index. */
-    private static final short SUBBUCKET_THRESHOLD = 256;
 
     /**
      * Creates a new instance of RedesignedBurstsort.
@@ -71,11 +80,27 @@ public class RedesignedBurstsort {
      * @param  strings  strings to be inserted.
      */
     private static void insert(Node root, CharSequence[] strings) {
-        for (int i = 0; i < strings.length; i++) {
+        insert(root, strings, 0, strings.length, 0);
+    }
+
+    /**
+     * Inserts a range of strings into the burst trie structure, all of
+     * which share a common prefix of the given length, in preparation
+     * for in-order traversal (hence sorting).
+     *
+     * @param  root     root of the (sub-)trie for the common prefix.
+     * @param  strings  strings to be inserted.
+     * @param  from     first position to insert (inclusive).
+     * @param  to       last position to insert (exclusive).
+     * @param  depth    length of the common prefix.
+     */
+    private static void insert(Node root, CharSequence[] strings, int from,
+            int to, int depth) {
+        for (int i = from; i < to; i++) {
             // Start at root each time
             Node curr = root;
             // Locate trie node in which to insert string
-            int p = 0;
+            int p = depth;
             char c = charAt(strings[i], p);
             while (curr.size(c) < 0) {
                 curr = (Node) curr.get(c);
@@ -83,12 +108,12 @@ public class RedesignedBurstsort {
                 c = charAt(strings[i], p);
             }
             curr.add(c, strings[i]);
-            // is bucket size above the THRESHOLD?
-            while (curr.size(c) >= THRESHOLD && c != NULLTERM) {
+            // is bucket size above the threshold?
+            while (curr.size(c) >= curr.threshold && c != NULLTERM) {
                 // advance depth of character
                 p++;
                 // allocate memory for new trie node
-                Node newt = new Node();
+                Node newt = new Node(curr.tuning, p);
                 // burst...
                 char cc = NULLTERM;
                 Object[] bind = (Object[]) curr.get(c);
@@ -98,7 +123,7 @@ public class RedesignedBurstsort {
                     j++;
                     if (j == bind.length) {
                         // Last sub-bucket may not be fully utilized.
-                        int last = curr.size(c) % SUBBUCKET_THRESHOLD;
+                        int last = curr.size(c) % curr.subbucketThreshold;
                         if (last > 0) {
                             limit = last;
                         }
@@ -125,7 +150,7 @@ public class RedesignedBurstsort {
      * @param  strings  array of strings to be sorted.
      */
     public static void sort(CharSequence[] strings) {
-        sort(strings, null);
+        sort(strings, BurstTuning.getDefault(), null);
     }
 
     /**
@@ -137,40 +162,210 @@ public class RedesignedBurstsort {
      * @param  out      if non-null, metrics are printed here.
      */
     public static void sort(CharSequence[] strings, PrintStream out) {
+        sort(strings, BurstTuning.getDefault(), out);
+    }
+
+    /**
+     * Sorts the set of strings using the redesigned burstsort algorithm,
+     * with the given tuning parameters for the trie structure. If the
+     * given output stream is non-null, then metrics regarding the trie
+     * structure will be printed there.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  tuning   parameters for the burst trie.
+     * @param  out      if non-null, metrics are printed here.
+     */
+    public static void sort(CharSequence[] strings, BurstTuning tuning,
+            PrintStream out) {
+        sort(strings, tuning, out, false);
+    }
+
+    /**
+     * Sorts the set of strings using the redesigned burstsort algorithm,
+     * such that equal strings remain in the order in which they were given
+     * (which matters only when the character sequences carry more than
+     * their characters). The trie already preserves the input order within
+     * each bucket, so the buckets are sorted by a stable LCP mergesort
+     * in place of multikey quicksort.
+     *
+     * @param  strings  array of strings to be sorted.
+     */
+    public static void sortStable(CharSequence[] strings) {
+        sort(strings, BurstTuning.getDefault(), null, true);
+    }
+
+    /**
+     * Sorts the set of strings using the redesigned burstsort algorithm.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  tuning   parameters for the burst trie.
+     * @param  out      if non-null, metrics are printed here.
+     * @param  stable   true to keep equal strings in their input order.
+     */
+    private static void sort(CharSequence[] strings, BurstTuning tuning,
+            PrintStream out, boolean stable) {
         if (strings != null && strings.length > 1) {
-            Node root = new Node();
+            Node root = new Node(tuning, 0);
             insert(root, strings);
             if (out != null) {
                 writeMetrics(root, out);
             }
-            traverse(root, strings, 0, 0);
+            traverse(root, strings, 0, 0, stable);
         }
     }
 
     /**
-     * Uses all available processors to sort the trie buckets in parallel,
-     * thus sorting the overal set of strings in less time. Uses a simple
-     * ThreadPoolExecutor with a maximum pool size equal to the number of
-     * available processors (usually equivalent to the number of CPU cores).
+     * Uses all available processors to build the trie and sort the trie
+     * buckets in parallel, thus sorting the overal set of strings in less
+     * time. The work is performed by a fork/join pool that is shared by
+     * all of the sorts, sized to the number of available processors
+     * (usually equivalent to the number of CPU cores), with the calling
+     * thread taking part.
      *
      * @param  strings  array of strings to be sorted.
      * @throws  InterruptedException  if waiting thread was interrupted.
      */
     public static void sortThreadPool(CharSequence[] strings) throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.shared(), BurstTuning.getDefault());
+    }
+
+    /**
+     * Sorts the strings in parallel using the shared fork/join pool, as
+     * with {@link #sortThreadPool(CharSequence[])}, but with the given
+     * tuning parameters for the trie structure.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  tuning   parameters for the burst trie.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static void sortThreadPool(CharSequence[] strings, BurstTuning tuning)
+            throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.shared(), tuning);
+    }
+
+    /**
+     * Sorts the strings in parallel using the shared fork/join pool, as
+     * with {@link #sortThreadPool(CharSequence[])}, but with at most the
+     * given number of threads, including the calling thread.
+     *
+     * @param  strings      array of strings to be sorted.
+     * @param  parallelism  maximum number of threads to use.
+     * @throws  IllegalArgumentException  if parallelism is less than one.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static void sortThreadPool(CharSequence[] strings, int parallelism)
+            throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.create(parallelism),
+                BurstTuning.getDefault());
+    }
+
+    /**
+     * Sorts the strings in parallel using the given fork/join pool, with
+     * the calling thread taking part in the work. The number of threads
+     * is the parallelism of the pool.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  pool     the fork/join pool in which to run the jobs.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static void sortThreadPool(CharSequence[] strings, ForkJoinPool pool)
+            throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.create(pool),
+                BurstTuning.getDefault());
+    }
+
+    /**
+     * Sorts the strings in parallel using the given executor, with the
+     * calling thread taking part in the work. The executor is not shut
+     * down by this method.
+     *
+     * @param  strings   array of strings to be sorted.
+     * @param  executor  the executor with which to run the jobs.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    public static void sortThreadPool(CharSequence[] strings, Executor executor)
+            throws InterruptedException {
+        sortThreadPool(strings, ForkJoinEngine.create(executor),
+                BurstTuning.getDefault());
+    }
+
+    /**
+     * Builds the trie and sorts the trie buckets using the given engine.
+     *
+     * @param  strings  array of strings to be sorted.
+     * @param  engine   engine with which to run the jobs.
+     * @param  tuning   parameters for the burst trie.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    private static void sortThreadPool(CharSequence[] strings, ForkJoinEngine engine,
+            BurstTuning tuning) throws InterruptedException {
         if (strings != null && strings.length > 1) {
-            Node root = new Node();
-            insert(root, strings);
-            List<Callable<Object>> jobs = new ArrayList<Callable<Object>>();
-            traverseParallel(root, strings, 0, 0, jobs);
-            ExecutorService executor = Executors.newFixedThreadPool(
-                    Runtime.getRuntime().availableProcessors());
-            // Using ExecutorService.invokeAll() usually adds more time.
-            for (Callable<Object> job : jobs) {
-                executor.submit(job);
+            Node root = new Node(tuning, 0);
+            int pos = 0;
+            if (strings.length < tuning.getThreshold(0) || engine.getParallelism() < 2) {
+                // Too few strings or threads to build in parallel.
+                insert(root, strings);
+            } else {
+                pos = insertParallel(root, strings, engine);
+            }
+            List<JobScheduler.Job> jobs = new ArrayList<JobScheduler.Job>();
+            traverseParallel(root, strings, pos, 0, jobs);
+            // Combine the many small jobs into balanced work units.
+            engine.run(JobScheduler.pack(jobs, engine));
+        }
+    }
+
+    /**
+     * Builds the trie structure using multiple threads. The strings are
+     * first grouped by their leading character, in parallel, and then a
+     * sub-trie is built for each group by a separate job. Any group that
+     * is too large for one thread is divided again by the second
+     * character. The empty strings are moved directly to the start of
+     * the array, as they need no further processing.
+     *
+     * @param  root     root of the structure.
+     * @param  strings  strings to be inserted.
+     * @param  engine   engine with which to run the jobs.
+     * @return  number of empty strings moved to the start of the array.
+     * @throws  InterruptedException  if waiting thread was interrupted.
+     */
+    private static int insertParallel(Node root, CharSequence[] strings,
+            ForkJoinEngine engine) throws InterruptedException {
+        CharSequence[] scratch = new CharSequence[strings.length];
+        int[] offsets = Partitioner.partition(strings, scratch, 0, engine);
+        int consumed = offsets[1];
+        System.arraycopy(scratch, 0, strings, 0, consumed);
+        int limit = Math.max(root.threshold, strings.length / engine.getParallelism());
+        List<InsertJob> jobs = new ArrayList<InsertJob>();
+        for (int c = 1; c < CHARSET; c++) {
+            int from = offsets[c];
+            int to = offsets[c + 1];
+            if (to - from > limit) {
+                // Every string is now in the scratch array, so this range
+                // of the input can receive the second level of grouping.
+                int[] subsets = Partitioner.partition(scratch, strings, from, to, 1);
+                Node child = new Node(root.tuning, 1);
+                for (int i = subsets[0]; i < subsets[1]; i++) {
+                    child.add(NULLTERM, strings[i]);
+                }
+                for (int cc = 1; cc < CHARSET; cc++) {
+                    if (subsets[cc + 1] > subsets[cc]) {
+                        jobs.add(new InsertJob(child, cc, strings,
+                                subsets[cc], subsets[cc + 1], 2));
+                    }
+                }
+                root.set(c, child);
+            } else if (to > from) {
+                jobs.add(new InsertJob(root, c, scratch, from, to, 1));
             }
-            executor.shutdown();
-            executor.awaitTermination(1, TimeUnit.DAYS);
         }
+        engine.run(jobs);
+        // Attach the sub-tries from this thread, as allocating the pages
+        // of a node is not safe to do concurrently.
+        for (InsertJob job : jobs) {
+            job.parent.set(job.c, job.node);
+        }
+        return consumed;
     }
 
     /**
@@ -182,13 +377,15 @@ public class RedesignedBurstsort {
      * @param  strings  the strings to be ordered.
      * @param  pos      position within array.
      * @param  deep     character offset within strings.
+     * @param  stable   true to keep equal strings in their input order.
      * @return  new pos value.
      */
-    private static int traverse(Node node, CharSequence[] strings, int pos, int deep) {
-        for (char c = 0; c < ALPHABET; c++) {
+    private static int traverse(Node node, CharSequence[] strings, int pos,
+            int deep, boolean stable) {
+        for (int c = 0; c < CHARSET; c = node.next(c)) {
             int count = node.size(c);
             if (count < 0) {
-                pos = traverse((Node) node.get(c), strings, pos, deep + 1);
+                pos = traverse((Node) node.get(c), strings, pos, deep + 1, stable);
             } else if (count > 0) {
                 int off = pos;
                 // Copy the string references from the bucket to the
@@ -201,7 +398,7 @@ public class RedesignedBurstsort {
                     j++;
                     if (j == bind.length) {
                         // Last sub-bucket may not be fully utilized.
-                        int last = count % SUBBUCKET_THRESHOLD;
+                        int last = count % node.subbucketThreshold;
                         if (last > 0) {
                             limit = last;
                         }
@@ -214,7 +411,11 @@ public class RedesignedBurstsort {
                     // destination now that they are all in one array.
                     if (count > 1) {
                         int high = pos + count;
-                        MultikeyQuicksort.sort(strings, pos, high, deep + 1);
+                        if (stable) {
+                            LcpMergesort.sort(strings, pos, high, deep + 1);
+                        } else {
+                            CachingMultikeyQuicksort.sort(strings, pos, high, deep + 1);
+                        }
                     }
                 }
                 pos += count;
@@ -234,9 +435,8 @@ public class RedesignedBurstsort {
      * @return  new pos value.
      */
     private static int traverseParallel(Node node, CharSequence[] strings,
-            int pos, int deep, List<Callable<Object>> jobs) {
-        final int BIND_LIMIT = THRESHOLD / SUBBUCKET_THRESHOLD;
-        for (char c = 0; c < ALPHABET; c++) {
+            int pos, int deep, List<JobScheduler.Job> jobs) {
+        for (int c = 0; c < CHARSET; c = node.next(c)) {
             int count = node.size(c);
             if (count < 0) {
                 pos = traverseParallel((Node) node.get(c), strings, pos,
@@ -244,43 +444,24 @@ public class RedesignedBurstsort {
             } else if (count > 0) {
                 Object[] bind = (Object[]) node.get(c);
                 // For the null bucket, copy the elements without sorting.
+                int sub = node.subbucketThreshold;
                 if (c == 0) {
                     // If this bucket has a lot of entries, then split it up
-                    // into multiple jobs for better parallelism.
-                    if (bind.length > BIND_LIMIT) {
-                        int offset = 0;
-                        int remainder = bind.length % BIND_LIMIT;
-                        for (int j = bind.length / BIND_LIMIT; j > 0; j--) {
-                            int endoff = offset + BIND_LIMIT;
-                            if (remainder == 0 && j == 1) {
-                                // This is the end of the bucket, copy only
-                                // the number of elements stored therein.
-                                jobs.add(new CopySortJob(bind, offset, endoff,
-                                        count % THRESHOLD, strings, pos, -1));
-                                pos += count % THRESHOLD;
-                            } else {
-                                jobs.add(new CopySortJob(bind, offset, endoff,
-                                        THRESHOLD, strings, pos, -1));
-                                pos += THRESHOLD;
-                            }
-                            offset = endoff;
-                        }
-                        if (remainder > 0) {
-                            jobs.add(new CopySortJob(bind, offset, bind.length,
-                                    count % THRESHOLD, strings, pos, -1));
-                            pos += count % THRESHOLD;
-                        }
-                    } else {
-                        // Plain and simple copy job.
-                        jobs.add(new CopySortJob(bind, 0, bind.length, count,
+                    // into multiple jobs for better parallelism, each of
+                    // which copies a run of full sub-buckets (the last of
+                    // which may be only partially filled).
+                    int chunk = Math.max(1, NULLBUCKET_CHUNK / sub);
+                    for (int j = 0; j < bind.length; j += chunk) {
+                        int end = Math.min(j + chunk, bind.length);
+                        int n = Math.min(count - j * sub, (end - j) * sub);
+                        jobs.add(new CopySortJob(bind, j, end, n, sub,
                                 strings, pos, -1));
-                        pos += count;
+                        pos += n;
                     }
                 } else {
-                    // This bucket must be both copied and sorted so we
-                    // cannot break it into smaller chunks, but it should
-                    // already be less than the threshold size anyway.
-                    jobs.add(new CopySortJob(bind, 0, bind.length, count,
+                    // This bucket must be both copied and sorted, which
+                    // the scheduler may split if it is especially costly.
+                    jobs.add(new CopySortJob(bind, 0, bind.length, count, sub,
                             strings, pos, deep + 1));
                     pos += count;
                 }
@@ -310,7 +491,7 @@ public class RedesignedBurstsort {
         while (!stack.isEmpty()) {
             node = stack.pop();
             nodes++;
-            for (char c = 0; c < ALPHABET; c++) {
+            for (int c = 0; c < CHARSET; c = node.next(c)) {
                 int count = node.size(c);
                 if (count < 0) {
                     stack.push((Node) node.get(c));
@@ -361,9 +542,24 @@ public class RedesignedBurstsort {
      * or another trie node. The buckets consist of a bucket index (BIND)
      * which points to sub-buckets that grown on demand.
      *
+     * <p>Characters beyond the Latin-1 range are held in pages, each of
+     * which is itself a node whose entries are indexed by the low byte of
+     * the character. Pages are allocated only when a character from that
+     * range is added, keeping the common case as fast as a plain table.</p>
+     *
      * @author  Nathan Fiedler
      */
     private static class Node {
+        /** The tuning parameters for the trie. */
+        private final BurstTuning tuning;
+        /** Offset of the character by which this node is indexed. */
+        private final int depth;
+        /** Maximum number of strings in the buckets of this node. */
+        private final int threshold;
+        /** Size of the sub-buckets referenced within the bucket index. */
+        private final int subbucketThreshold;
+        /** Initial size for new sub-buckets. */
+        private final int subbucketStartSize;
         /** Reference to the last sub-bucket in the index, if any. */
         private final Object[] lastBucket = new Object[ALPHABET];
         /** Next free slot in the last bucket, if there is a bucket. */
@@ -372,6 +568,24 @@ public class RedesignedBurstsort {
         private final int[] counts = new int[ALPHABET];
         /** Pointers to bucket index or a trie node. */
         private final Object[] ptrs = new Object[ALPHABET];
+        /** Pages for the characters above U+00FF, indexed by the high
+         * byte of the character; null until the first such character
+         * is added to this node. */
+        private Node[] pages;
+
+        /**
+         * Creates a new instance of Node.
+         *
+         * @param  tuning  parameters for the trie.
+         * @param  depth   offset of the character indexing this node.
+         */
+        Node(BurstTuning tuning, int depth) {
+            this.tuning = tuning;
+            this.depth = depth;
+            threshold = tuning.getThreshold(depth);
+            subbucketThreshold = tuning.getSubbucketThreshold();
+            subbucketStartSize = Math.min(SUBBUCKET_START_SIZE, subbucketThreshold);
+        }
 
         /**
          * Add the given string into the appropriate bucket, given the
@@ -384,11 +598,15 @@ public class RedesignedBurstsort {
          * @param  c  character used to index trie entry.
          * @param  s  the string to be inserted.
          */
-        public void add(char c, CharSequence s) {
+        public void add(int c, CharSequence s) {
+            if (c >= ALPHABET) {
+                page(c).add(c & (ALPHABET - 1), s);
+                return;
+            }
             // are buckets already created?
             if (counts[c] < 1) {
                 // no, create the new bucket
-                CharSequence[] sub = new CharSequence[SUBBUCKET_START_SIZE];
+                CharSequence[] sub = new CharSequence[subbucketStartSize];
                 sub[0] = s;
                 lastBucket[c] = sub;
                 lastIndex[c] = 1;
@@ -401,20 +619,20 @@ public class RedesignedBurstsort {
             } else {
                 // bucket already created, check if growth is required
                 CharSequence[] sub = (CharSequence[]) lastBucket[c];
-                if (lastIndex[c] < SUBBUCKET_THRESHOLD &&
+                if (lastIndex[c] < subbucketThreshold &&
                         lastIndex[c] == sub.length) {
                     // Grow the sub-bucket to accomodate the new string.
-                    CharSequence[] tmp = new CharSequence[
-                            sub.length * SUBBUCKET_GROWTH_FACTOR];
+                    CharSequence[] tmp = new CharSequence[Math.min(
+                            sub.length * SUBBUCKET_GROWTH_FACTOR, subbucketThreshold)];
                     System.arraycopy(sub, 0, tmp, 0, sub.length);
                     sub = tmp;
                     // Update references to the last sub-bucket.
                     lastBucket[c] = sub;
                     Object[] bind = (Object[]) ptrs[c];
                     bind[bind.length - 1] = sub;
-                } else if (lastIndex[c] == SUBBUCKET_THRESHOLD) {
+                } else if (lastIndex[c] == subbucketThreshold) {
                     // Grow the bucket by adding a new sub-bucket.
-                    sub = new CharSequence[SUBBUCKET_START_SIZE];
+                    sub = new CharSequence[subbucketStartSize];
                     lastBucket[c] = sub;
                     lastIndex[c] = 0;
                     Object[] obind = (Object[]) ptrs[c];
@@ -433,6 +651,27 @@ public class RedesignedBurstsort {
             }
         }
 
+        /**
+         * Returns the page holding the entries for character <em>c</em>,
+         * allocating it if necessary. Only valid for characters beyond
+         * the Latin-1 range.
+         *
+         * @param  c  character for which to find the page.
+         * @return  page for the given character.
+         */
+        private Node page(int c) {
+            if (pages == null) {
+                pages = new Node[PAGES];
+            }
+            int p = c >>> PAGE_SHIFT;
+            Node page = pages[p];
+            if (page == null) {
+                page = new Node(tuning, depth);
+                pages[p] = page;
+            }
+            return page;
+        }
+
         /**
          * Retrieve the trie node or bucket index for character <em>c</em>.
          *
@@ -440,8 +679,12 @@ public class RedesignedBurstsort {
          * @return  the entry for the given character, which may either be
          *          another trie node, or a bucket index (of type Object[]).
          */
-        public Object get(char c) {
-            return ptrs[c];
+        public Object get(int c) {
+            if (c < ALPHABET) {
+                return ptrs[c];
+            }
+            Node page = pages == null ? null : pages[c >>> PAGE_SHIFT];
+            return page == null ? null : page.ptrs[c & (ALPHABET - 1)];
         }
 
         /**
@@ -452,7 +695,11 @@ public class RedesignedBurstsort {
          * @param  c  character for which to store new entry.
          * @param  o  the entry for the given character.
          */
-        public void set(char c, Object o) {
+        public void set(int c, Object o) {
+            if (c >= ALPHABET) {
+                page(c).set(c & (ALPHABET - 1), o);
+                return;
+            }
             ptrs[c] = o;
             if (o instanceof Node) {
                 // flag to indicate pointer to trie node and not bucket
@@ -466,8 +713,91 @@ public class RedesignedBurstsort {
          * @param  c  character for which to get count.
          * @return  number of tail strings; -1 if child is a trie node.
          */
-        public int size(char c) {
-            return counts[c];
+        public int size(int c) {
+            if (c < ALPHABET) {
+                return counts[c];
+            }
+            Node page = pages == null ? null : pages[c >>> PAGE_SHIFT];
+            return page == null ? 0 : page.counts[c & (ALPHABET - 1)];
+        }
+
+        /**
+         * Returns the character following <em>c</em> for which this node
+         * may have an entry, skipping over the pages that have not been
+         * allocated. Used to visit the entries of the node in order.
+         *
+         * @param  c  the current character.
+         * @return  the next character to visit, or CHARSET if none.
+         */
+        public int next(int c) {
+            c++;
+            if (c >= ALPHABET) {
+                if (pages == null) {
+                    return CHARSET;
+                }
+                int p = c >>> PAGE_SHIFT;
+                while (p < PAGES && pages[p] == null) {
+                    p++;
+                }
+                if (p == PAGES) {
+                    return CHARSET;
+                }
+                c = Math.max(c, p << PAGE_SHIFT);
+            }
+            return c;
+        }
+    }
+
+    /**
+     * An insert job for the parallel trie construction phase. Each job is
+     * given a range of strings sharing a common prefix, which it inserts
+     * into a new sub-trie to be attached to the parent node once all of
+     * the jobs have completed.
+     *
+     * @author  Nathan Fiedler
+     */
+    private static class InsertJob implements Callable<Object> {
+        /** The node to which the new sub-trie will be attached. */
+        private final Node parent;
+        /** The character under which the sub-trie is attached. */
+        private final int c;
+        /** The array containing the strings to be inserted. */
+        private final CharSequence[] input;
+        /** First position to insert (inclusive). */
+        private final int from;
+        /** Last position to insert (exclusive). */
+        private final int to;
+        /** Length of the prefix shared by the strings. */
+        private final int depth;
+        /** The sub-trie built by this job. */
+        private Node node;
+
+        /**
+         * Constructs an instance of InsertJob.
+         *
+         * @param  parent  node to which the sub-trie will be attached.
+         * @param  c       character under which sub-trie is attached.
+         * @param  input   array containing strings to be inserted.
+         * @param  from    first position to insert (inclusive).
+         * @param  to      last position to insert (exclusive).
+         * @param  depth   length of the prefix shared by the strings.
+         */
+        InsertJob(Node parent, int c, CharSequence[] input, int from,
+                int to, int depth) {
+            this.parent = parent;
+            this.c = c;
+            this.input = input;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            Node n = new Node(parent.tuning, depth);
+            insert(n, input, from, to, depth);
+            node = n;
+            return null;
         }
     }
 
@@ -479,7 +809,7 @@ public class RedesignedBurstsort {
      *
      * @author  Nathan Fiedler
      */
-    private static class CopySortJob implements Callable<Object> {
+    private static class CopySortJob extends JobScheduler.Job {
         /** True if this job has already been completed. */
         private volatile boolean completed;
         /** Bucket index to be copied. */
@@ -490,6 +820,8 @@ public class RedesignedBurstsort {
         private final int bend;
         /** The number of elements in the input array. */
         private final int count;
+        /** Size of each of the full sub-buckets. */
+        private final int subbucketThreshold;
         /** The array to which the sorted strings are written. */
         private final CharSequence[] output;
         /** The position within the strings array at which to store the
@@ -509,6 +841,7 @@ public class RedesignedBurstsort {
          * @param  bstart  starting offset into bind.
          * @param  bend    ending offset into bind.
          * @param  count   number of elements in the bucket structure.
+         * @param  sub     size of each of the full sub-buckets.
          * @param  output  output array; only a subset should be modified.
          * @param  offset  offset within output array to which sorted
          *                 strings will be written.
@@ -516,12 +849,13 @@ public class RedesignedBurstsort {
          *                 when sorting (i.e. the common prefix), or -1
          *                 if no sorting is to be performed.
          */
-        CopySortJob(Object[] bind, int bstart, int bend, int count,
+        CopySortJob(Object[] bind, int bstart, int bend, int count, int sub,
                 CharSequence[] output, int offset, int depth) {
             this.bind = bind;
             this.bstart = bstart;
             this.bend = bend;
             this.count = count;
+            this.subbucketThreshold = sub;
             this.output = output;
             this.offset = offset;
             this.depth = depth;
@@ -536,6 +870,29 @@ public class RedesignedBurstsort {
             return completed;
         }
 
+        @Override
+        long cost() {
+            if (depth < 0) {
+                return count;
+            }
+            CharSequence[] sub = (CharSequence[]) bind[bstart];
+            return JobScheduler.estimate(sub, 0, Math.min(count, sub.length),
+                    depth, count);
+        }
+
+        @Override
+        Callable<Object> split(long target, ForkJoinEngine engine) {
+            if (depth < 0) {
+                return this;
+            }
+            // Copy the strings to their destination, where the parts
+            // will then be sorted in parallel.
+            return new JobScheduler.SplitJob(
+                    new CopySortJob(bind, bstart, bend, count,
+                            subbucketThreshold, output, offset, -1),
+                    output, offset, offset + count, depth, target, engine);
+        }
+
         @Override
         public Object call() throws Exception {
             // Copy the string references from the bucket to the
@@ -548,7 +905,7 @@ public class RedesignedBurstsort {
                 j++;
                 if (j == bend) {
                     // Last sub-bucket may not be fully utilized.
-                    int last = count % SUBBUCKET_THRESHOLD;
+                    int last = count % subbucketThreshold;
                     if (last > 0) {
                         limit = last;
                     }
@@ -562,7 +919,7 @@ public class RedesignedBurstsort {
                 // destination now that they are all in one array.
                 if (count > 1) {
                     int high = offset + count;
-                    MultikeyQuicksort.sort(output, offset, high, depth);
+                    CachingMultikeyQuicksort.sort(output, offset, high, depth);
                 }
             }
             completed = true;
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.Arrays;
+
+/**
+ * Builds the suffix array of a text, which lists the starting offset of
+ * every suffix of the text in sorted order. Rather than making a string
+ * for each suffix, the suffixes are represented by lightweight views of
+ * a single copy of the text, which are sorted by burstsort (and hence
+ * multikey quicksort within the buckets).
+ *
+ * <p>The string sort considers only the first few characters of each
+ * suffix, since highly repetitive text (e.g. a long run of the same
+ * character) would otherwise take quadratic time. The suffixes that are
+ * still tied after the string sort are then put in order by the prefix
+ * doubling method of N. J. Larsson and K. Sadakane ("Faster Suffix
+ * Sorting", 1999), which orders the suffixes by twice as many characters
+ * in each round, using the order of the later suffixes already known.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public class SuffixSorter {
+
+    /** Number of characters considered by the string sort, beyond
+     * which the ties are broken by prefix doubling. */
+    private static final int DEPTH_LIMIT = 32;
+
+    /**
+     * Creates a new instance of SuffixSorter.
+     */
+    private SuffixSorter() {
+    }
+
+    /**
+     * Computes the suffix array of the given text. The suffixes are
+     * compared character by character, with a suffix coming before all
+     * longer suffixes of which it is a prefix.
+     *
+     * @param  text  the text whose suffixes are to be sorted.
+     * @return  the offsets of the suffixes in sorted order, or null if
+     *          the text is null.
+     * @throws  IllegalArgumentException  if the text contains the null
+     *          character, which the string sorts take to end a string.
+     */
+    public static int[] sort(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        int n = text.length();
+        char[] chars = new char[n];
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c == 0) {
+                throw new IllegalArgumentException("text contains null character");
+            }
+            chars[i] = c;
+        }
+        int[] sa = new int[n];
+        if (n < 2) {
+            return sa;
+        }
+        CharSequence[] views = new CharSequence[n];
+        for (int i = 0; i < n; i++) {
+            views[i] = new Suffix(chars, i, Math.min(n - i, DEPTH_LIMIT));
+        }
+        int[] lcp = new int[n];
+        Burstsort.sort(views, lcp);
+        for (int i = 0; i < n; i++) {
+            sa[i] = ((Suffix) views[i]).offset;
+        }
+        views = null;
+
+        // Suffixes whose leading characters are all equal form a group,
+        // and every suffix is ranked by the last position of its group.
+        int[] rank = new int[n];
+        int[] groups = new int[16];
+        int count = 0;
+        int i = 0;
+        while (i < n) {
+            int e = i + 1;
+            while (e < n && lcp[e] == DEPTH_LIMIT) {
+                e++;
+            }
+            for (int j = i; j < e; j++) {
+                rank[sa[j]] = e - 1;
+            }
+            if (e - i > 1) {
+                if (count + 2 > groups.length) {
+                    groups = Arrays.copyOf(groups, groups.length * 2);
+                }
+                groups[count++] = i;
+                groups[count++] = e;
+            }
+            i = e;
+        }
+        lcp = null;
+        if (count > 0) {
+            doubling(sa, rank, groups, count, DEPTH_LIMIT);
+        }
+        return sa;
+    }
+
+    /**
+     * Puts the remaining groups of tied suffixes in order by prefix
+     * doubling. Each suffix in a group is keyed by the rank of the suffix
+     * that starts <em>h</em> characters later, which orders the group by
+     * the first <em>2h</em> characters. The groups are then split by key,
+     * and the ranks updated at once, which is safe as the new ranks are
+     * merely finer than the old.
+     *
+     * @param  sa      the suffix array, sorted by the first h characters.
+     * @param  rank    rank of each suffix, being the end of its group.
+     * @param  groups  start (inclusive) and end (exclusive) of each group.
+     * @param  count   number of entries in the groups array.
+     * @param  h       number of characters by which the suffixes are sorted.
+     */
+    private static void doubling(int[] sa, int[] rank, int[] groups, int count, int h) {
+        int n = sa.length;
+        long[] keys = new long[0];
+        while (count > 0) {
+            int[] next = new int[16];
+            int found = 0;
+            for (int g = 0; g < count; g += 2) {
+                int s = groups[g];
+                int e = groups[g + 1];
+                int size = e - s;
+                if (keys.length < size) {
+                    keys = new long[size];
+                }
+                for (int j = s; j < e; j++) {
+                    int p = sa[j];
+                    // The empty suffix comes before all others.
+                    long key = p + h < n ? rank[p + h] + 1 : 0;
+                    keys[j - s] = (key << 32) | p;
+                }
+                Arrays.sort(keys, 0, size);
+                for (int j = s; j < e; j++) {
+                    sa[j] = (int) keys[j - s];
+                }
+                int k = 0;
+                while (k < size) {
+                    long key = keys[k] >>> 32;
+                    int t = k + 1;
+                    while (t < size && keys[t] >>> 32 == key) {
+                        t++;
+                    }
+                    for (int j = k; j < t; j++) {
+                        rank[sa[s + j]] = s + t - 1;
+                    }
+                    if (t - k > 1) {
+                        if (found + 2 > next.length) {
+                            next = Arrays.copyOf(next, next.length * 2);
+                        }
+                        next[found++] = s + k;
+                        next[found++] = s + t;
+                    }
+                    k = t;
+                }
+            }
+            groups = next;
+            count = found;
+            h *= 2;
+        }
+    }
+
+    /**
+     * Computes the Burrows-Wheeler transform of the text, given its
+     * suffix array. The transform is that of the text followed by a
+     * unique end marker that is smaller than every character; the marker
+     * itself is not written, instead its position in the transform is
+     * returned, as the "primary index" that is needed to invert it. The
+     * first character of the output is thus the last character of the
+     * text.
+     *
+     * @param  text      the text.
+     * @param  suffixes  the suffix array of the text.
+     * @param  out       receives the transform, one character for each
+     *                   character of the text.
+     * @return  the primary index.
+     * @throws  IllegalArgumentException  if suffixes or out is shorter
+     *          than the text.
+     */
+    public static int bwt(CharSequence text, int[] suffixes, char[] out) {
+        int n = text.length();
+        if (suffixes.length < n || out.length < n) {
+            throw new IllegalArgumentException("arrays must be at least as long as text");
+        }
+        if (n == 0) {
+            return 0;
+        }
+        // The suffix consisting of only the end marker comes first.
+        out[0] = text.charAt(n - 1);
+        int primary = 0;
+        int k = 1;
+        for (int i = 0; i < n; i++) {
+            int p = suffixes[i];
+            if (p > 0) {
+                out[k] = text.charAt(p - 1);
+                k++;
+            } else {
+                primary = i + 1;
+            }
+        }
+        return primary;
+    }
+
+    /**
+     * A view of the leading characters of one suffix of the text.
+     *
+     * @author  Nathan Fiedler
+     */
+    private static final class Suffix implements CharSequence {
+        /** The characters of the text. */
+        private final char[] text;
+        /** Offset of the suffix within the text. */
+        private final int offset;
+        /** Number of characters in the view. */
+        private final int length;
+
+        /**
+         * Constructs an instance of Suffix.
+         *
+         * @param  text    characters of the text.
+         * @param  offset  start of the suffix.
+         * @param  length  number of characters to be visible.
+         */
+        Suffix(char[] text, int offset, int length) {
+            this.text = text;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return text[offset + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(text, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(text, offset, length);
+        }
+    }
+}
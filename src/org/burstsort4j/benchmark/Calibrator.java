@@ -0,0 +1,339 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.burstsort4j.BurstTuning;
+import org.burstsort4j.Burstsort;
+import org.burstsort4j.RedesignedBurstsort;
+
+/**
+ * Measures the burst trie parameters that give the best performance on
+ * this machine, for several kinds of data, and writes them to a properties
+ * file. The parameters are searched one at a time: first the burst
+ * threshold, then the bucket growth factor, then whether the threshold
+ * should vary with the depth of the trie, and finally the sub-bucket size
+ * of the redesigned burstsort. At each step the candidate that is fastest
+ * over all of the data sets (relative to the original parameters) is kept.
+ *
+ * <p>The parameters that are best overall are written without a prefix,
+ * and may be made the default by setting the <code>burstsort4j.tuning</code>
+ * system property to the path of the file. The best parameters for each
+ * data set are also written, with the name of the data set as a prefix,
+ * to be read using {@link BurstTuning#fromProperties(Properties, String)}.</p>
+ *
+ * @author Nathan Fiedler
+ */
+public class Calibrator {
+    /** Burst thresholds to be tried. */
+    private static final int[] THRESHOLDS = {
+        1024, 2048, 4096, 8192, 16384, 32768
+    };
+    /** Bucket growth factors to be tried. */
+    private static final int[] GROWTH_FACTORS = { 2, 4, 8, 16 };
+    /** Sub-bucket sizes to be tried. */
+    private static final int[] SUBBUCKET_SIZES = { 64, 128, 256, 512, 1024 };
+
+    /**
+     * Creates a new instance of Calibrator.
+     */
+    private Calibrator() {
+    }
+
+    /**
+     * Command-line interface to the calibration.
+     *
+     * @param  args  command-line arguments.
+     */
+    public static void main(String[] args) {
+        DataGenerator[] generators = {
+            DataGenerator.RANDOM,
+            DataGenerator.REPEAT_CYCLE,
+            DataGenerator.PSEUDO_WORD,
+            DataGenerator.GENOME,
+            DataGenerator.SMALL_ALPHABET
+        };
+        DataSize size = DataSize.N_1024000;
+        File output = new File("burstsort4j.properties");
+
+        if (args.length > 0) {
+            // Parse the command line arguments.
+            int i = 0;
+            while (i < args.length) {
+                if (args[i].equals("--data")) {
+                    i++;
+                    if (i >= args.length) {
+                        usage("Missing --data argument");
+                    }
+                    Pattern p = Pattern.compile(args[i], Pattern.CASE_INSENSITIVE);
+                    List<DataGenerator> list = new ArrayList<DataGenerator>();
+                    for (DataGenerator generator : generators) {
+                        Matcher m = p.matcher(generator.getDisplayName());
+                        if (m.find()) {
+                            list.add(generator);
+                        }
+                    }
+                    generators = list.toArray(new DataGenerator[list.size()]);
+                } else if (args[i].equals("--size")) {
+                    i++;
+                    if (i >= args.length) {
+                        usage("Missing --size argument");
+                    }
+                    size = null;
+                    for (DataSize ds : DataSize.values()) {
+                        if (String.valueOf(ds.getValue()).equals(args[i])) {
+                            size = ds;
+                        }
+                    }
+                    if (size == null) {
+                        usage("Unsupported --size value: " + args[i]);
+                    }
+                } else if (args[i].equals("--output")) {
+                    i++;
+                    if (i >= args.length) {
+                        usage("Missing --output argument");
+                    }
+                    output = new File(args[i]);
+                } else if (args[i].equals("--help")) {
+                    usage();
+                } else {
+                    usage("Unrecognized option: " + args[i]);
+                }
+                i++;
+            }
+        }
+        if (generators.length == 0) {
+            usage("No data sets match the --data argument");
+        }
+
+        System.out.println("Generating data sets, please wait...");
+        String[][] dataSets = new String[generators.length][];
+        for (int i = 0; i < generators.length; i++) {
+            dataSets[i] = generators[i].generate(size);
+        }
+        String[] input = new String[size.getValue()];
+
+        // Warm up the JVM so that the code (hopefully) gets compiled.
+        System.out.println("Warming up the system, please wait...");
+        for (String[] dataSet : dataSets) {
+            for (int i = 0; i < 3; i++) {
+                System.arraycopy(dataSet, 0, input, 0, input.length);
+                Burstsort.sort(input, BurstTuning.ORIGINAL, null);
+                System.arraycopy(dataSet, 0, input, 0, input.length);
+                RedesignedBurstsort.sort(input, BurstTuning.ORIGINAL, null);
+            }
+        }
+
+        Search burst = new Search(dataSets, input, false);
+        BurstTuning best = BurstTuning.ORIGINAL;
+        System.out.println("Burst threshold...");
+        List<BurstTuning> candidates = new ArrayList<BurstTuning>();
+        for (int threshold : THRESHOLDS) {
+            candidates.add(new BurstTuning(threshold, best.getBucketStartSize(),
+                    best.getBucketGrowthFactor(), best.getSubbucketThreshold()));
+        }
+        best = burst.select(candidates);
+        System.out.println("Bucket growth factor...");
+        candidates.clear();
+        for (int growth : GROWTH_FACTORS) {
+            candidates.add(new BurstTuning(best.getThresholds(),
+                    best.getBucketStartSize(), growth, best.getSubbucketThreshold()));
+        }
+        best = burst.select(candidates);
+        System.out.println("Threshold by trie depth...");
+        int threshold = best.getThreshold(0);
+        candidates.clear();
+        candidates.add(best);
+        candidates.add(new BurstTuning(new int[]{threshold * 2, threshold},
+                best.getBucketStartSize(), best.getBucketGrowthFactor(),
+                best.getSubbucketThreshold()));
+        candidates.add(new BurstTuning(new int[]{threshold, threshold / 2},
+                best.getBucketStartSize(), best.getBucketGrowthFactor(),
+                best.getSubbucketThreshold()));
+        best = burst.select(candidates);
+
+        Search redesigned = new Search(dataSets, input, true);
+        System.out.println("Sub-bucket size...");
+        candidates.clear();
+        for (int sub : SUBBUCKET_SIZES) {
+            candidates.add(new BurstTuning(best.getThresholds(),
+                    best.getBucketStartSize(), best.getBucketGrowthFactor(), sub));
+        }
+        best = redesigned.select(candidates);
+
+        Properties props = new Properties();
+        best.toProperties(props, "");
+        for (int i = 0; i < generators.length; i++) {
+            // Combine the best of each search for this data set.
+            BurstTuning t = burst.getBest(i);
+            BurstTuning r = redesigned.getBest(i);
+            BurstTuning tuning = new BurstTuning(t.getThresholds(),
+                    t.getBucketStartSize(), t.getBucketGrowthFactor(),
+                    r.getSubbucketThreshold());
+            tuning.toProperties(props, generators[i].name().toLowerCase() + ".");
+        }
+        try {
+            OutputStream os = new FileOutputStream(output);
+            try {
+                props.store(os, String.format("Burst trie parameters for %d strings", size.getValue()));
+            } finally {
+                os.close();
+            }
+        } catch (IOException ioe) {
+            System.err.format("Unable to write %s: %s\n", output, ioe);
+            System.exit(1);
+        }
+        System.out.format("Best parameters: %s\n", best);
+        System.out.format("Use with -D%s=%s\n", BurstTuning.TUNING_PROPERTY,
+                output.getAbsolutePath());
+    }
+
+    /**
+     * Display an error message and the usage information.
+     */
+    private static void usage(String msg) {
+        System.out.println(msg);
+        usage();
+    }
+
+    /**
+     * Display the usage information.
+     */
+    private static void usage() {
+        System.out.println("Usage: Calibrator [options]");
+        System.out.println("\t--data <regex>");
+        System.out.println("\t\tSelect the data set whose name matches the regular expression.");
+        System.out.println("\t\tFor example, '--data random' would use only the random data set.");
+        System.out.println("\t--help");
+        System.out.println("\t\tDisplay this usage information.");
+        System.out.println("\t--output <file>");
+        System.out.println("\t\tWrite the parameters to the named file (the default is");
+        System.out.println("\t\tburstsort4j.properties in the current directory).");
+        System.out.println("\t--size <n>");
+        System.out.println("\t\tNumber of strings in each data set (e.g. 256000, 1024000).");
+        System.exit(0);
+    }
+
+    /**
+     * Selects the best of several sets of parameters, by timing the sort
+     * of each data set with each set of parameters. Remembers the best
+     * parameters found for each data set over all of the selections.
+     */
+    private static class Search {
+        /** The data sets to be sorted. */
+        private final String[][] dataSets;
+        /** Array into which the data is copied for sorting. */
+        private final String[] input;
+        /** True to time the redesigned burstsort, false for the original. */
+        private final boolean redesigned;
+        /** Time taken with the original parameters, for each data set. */
+        private final long[] baseline;
+        /** Best parameters found so far, for each data set. */
+        private final BurstTuning[] best;
+        /** Time taken with the best parameters, for each data set. */
+        private final long[] bestTime;
+
+        /**
+         * Creates a new instance of Search.
+         *
+         * @param  dataSets    data sets to be sorted.
+         * @param  input       array into which the data is copied.
+         * @param  redesigned  true to time the redesigned burstsort.
+         */
+        Search(String[][] dataSets, String[] input, boolean redesigned) {
+            this.dataSets = dataSets;
+            this.input = input;
+            this.redesigned = redesigned;
+            baseline = new long[dataSets.length];
+            best = new BurstTuning[dataSets.length];
+            bestTime = new long[dataSets.length];
+            for (int i = 0; i < dataSets.length; i++) {
+                baseline[i] = Math.max(1, measure(BurstTuning.ORIGINAL, dataSets[i]));
+                best[i] = BurstTuning.ORIGINAL;
+                bestTime[i] = baseline[i];
+            }
+        }
+
+        /**
+         * Returns the best parameters found for the given data set.
+         *
+         * @param  i  index of the data set.
+         * @return  best parameters.
+         */
+        BurstTuning getBest(int i) {
+            return best[i];
+        }
+
+        /**
+         * Times each of the candidates over all of the data sets, and
+         * returns the one with the lowest total time relative to the
+         * original parameters.
+         *
+         * @param  candidates  the parameters to be tried.
+         * @return  the best of the candidates.
+         */
+        BurstTuning select(List<BurstTuning> candidates) {
+            BurstTuning selected = null;
+            double lowest = Double.MAX_VALUE;
+            for (BurstTuning tuning : candidates) {
+                System.out.format("\t%s:", tuning);
+                double score = 0;
+                for (int i = 0; i < dataSets.length; i++) {
+                    long ns = measure(tuning, dataSets[i]);
+                    System.out.format("\t%d", ns);
+                    score += (double) ns / baseline[i];
+                    if (ns < bestTime[i]) {
+                        bestTime[i] = ns;
+                        best[i] = tuning;
+                    }
+                }
+                System.out.println();
+                if (score < lowest) {
+                    lowest = score;
+                    selected = tuning;
+                }
+            }
+            return selected;
+        }
+
+        /**
+         * Measures the time taken to sort the data set with the given
+         * parameters.
+         *
+         * @param  tuning   the parameters for the burst trie.
+         * @param  dataSet  the data to be sorted.
+         * @return  time per sort in nanoseconds.
+         */
+        private long measure(final BurstTuning tuning, final String[] dataSet) {
+            BenchmarkRunnable r = new BenchmarkRunnable() {
+
+                @Override
+                public void run(BenchmarkData b) {
+                    for (int i = 0; i < b.count(); i++) {
+                        b.stopTimer();
+                        System.arraycopy(dataSet, 0, input, 0, input.length);
+                        b.startTimer();
+                        if (redesigned) {
+                            RedesignedBurstsort.sort(input, tuning, null);
+                        } else {
+                            Burstsort.sort(input, tuning, null);
+                        }
+                    }
+                }
+            };
+            BenchmarkData bench = new BenchmarkData(r);
+            return bench.run().nsPerOp();
+        }
+    }
+}
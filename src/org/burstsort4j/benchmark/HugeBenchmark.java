@@ -50,6 +50,7 @@ public class HugeBenchmark {
                 SortRunner.QUICK,
                 SortRunner.MULTIKEY,
                 SortRunner.BURST,
+                SortRunner.COPY_BURST,
                 SortRunner.BURST_THREADPOOL,
                 SortRunner.REDESIGNED_BURST,
                 SortRunner.REDESIGNED_BURST_THREADPOOL,
@@ -62,6 +63,7 @@ public class HugeBenchmark {
                 SortRunner.QUICK,
                 SortRunner.MULTIKEY,
                 SortRunner.BURST,
+                SortRunner.COPY_BURST,
                 SortRunner.REDESIGNED_BURST,
                 SortRunner.LAZY_FUNNEL
             };
@@ -49,6 +49,7 @@ public class MicroBenchmark {
             SortRunner.GNOME,
             SortRunner.HEAP,
             SortRunner.INTRO,
+            SortRunner.LAZY_FUNNEL,
             SortRunner.QUICK,
             SortRunner.QUICK_2_PIVOT,
             SortRunner.SELECTION,
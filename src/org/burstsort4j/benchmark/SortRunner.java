@@ -9,6 +9,7 @@ import java.util.Arrays;
 import org.burstsort4j.BinaryInsertionsort;
 import org.burstsort4j.Burstsort;
 import org.burstsort4j.Combsort;
+import org.burstsort4j.CopyBurstsort;
 import org.burstsort4j.DualPivotQuicksort;
 import org.burstsort4j.Gnomesort;
 import org.burstsort4j.Heapsort;
@@ -173,6 +174,18 @@ public enum SortRunner {
             Burstsort.sort(data);
         }
     },
+    COPY_BURST {
+
+        @Override
+        public String getDisplayName() {
+            return "CopyBurstsort";
+        }
+
+        @Override
+        public void sort(String[] data) {
+            CopyBurstsort.sort(data);
+        }
+    },
     REDESIGNED_BURST {
 
         @Override
@@ -93,6 +93,19 @@ public class BinaryInsertionsortTest {
         assertTrue(Tests.isSorted(arr));
     }
 
+    @Test
+    public void testCharOrder() {
+        List<String> data = Tests.generateData(300, 6);
+        data.addAll(Tests.generateUnicodeData(50, 6));
+        data.addAll(data.subList(0, 50));
+        for (CharOrder order : Tests.charOrders()) {
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            BinaryInsertionsort.sort(arr, 0, arr.length, 0, order);
+            assertTrue(order.toString(), Tests.isSorted(arr, order));
+        }
+    }
+
     @Test
     public void testStrings() {
         try {
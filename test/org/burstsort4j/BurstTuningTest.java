@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the BurstTuning class.
+ *
+ * @author Nathan Fiedler
+ */
+public class BurstTuningTest {
+
+    @Test
+    public void testArguments() {
+        try {
+            new BurstTuning(1, 16, 8, 256);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            new BurstTuning(new int[0], 16, 8, 256);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            new BurstTuning(8192, 0, 8, 256);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            new BurstTuning(8192, 16, 1, 256);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            new BurstTuning(8192, 16, 8, 0);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testThresholdByDepth() {
+        BurstTuning tuning = new BurstTuning(new int[]{4096, 2048, 1024}, 16, 8, 256);
+        assertEquals(4096, tuning.getThreshold(0));
+        assertEquals(2048, tuning.getThreshold(1));
+        assertEquals(1024, tuning.getThreshold(2));
+        assertEquals(1024, tuning.getThreshold(100));
+        assertEquals(8192, BurstTuning.ORIGINAL.getThreshold(5));
+    }
+
+    @Test
+    public void testProperties() {
+        BurstTuning tuning = new BurstTuning(new int[]{16384, 4096}, 32, 4, 128);
+        Properties props = new Properties();
+        tuning.toProperties(props, "");
+        assertEquals("16384,4096", props.getProperty(BurstTuning.THRESHOLD_KEY));
+        assertEquals(tuning, BurstTuning.fromProperties(props));
+        // Prefixed keys take precedence, others fall back to plain keys.
+        props.setProperty("genome." + BurstTuning.THRESHOLD_KEY, "1024");
+        BurstTuning genome = BurstTuning.fromProperties(props, "genome.");
+        assertEquals(new BurstTuning(1024, 32, 4, 128), genome);
+        // Missing keys take the original values.
+        assertEquals(BurstTuning.ORIGINAL, BurstTuning.fromProperties(new Properties()));
+        props.setProperty(BurstTuning.BUCKET_GROWTH_FACTOR_KEY, "eight");
+        try {
+            BurstTuning.fromProperties(props);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testStoreLoad() {
+        BurstTuning tuning = new BurstTuning(new int[]{2048, 1024}, 8, 2, 512);
+        try {
+            File file = File.createTempFile("tuning", ".properties");
+            try {
+                tuning.store(file, "test");
+                assertEquals(tuning, BurstTuning.load(file));
+            } finally {
+                file.delete();
+            }
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the BurstsortContext class.
+ *
+ * @author Nathan Fiedler
+ */
+public class BurstsortContextTest {
+
+    @Test
+    public void testArguments() {
+        try {
+            new BurstsortContext(BurstTuning.ORIGINAL, -1);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            new BurstsortContext(null, 0);
+            fail("should have thrown NPE");
+        } catch (NullPointerException npe) {
+            // expected
+        }
+        BurstsortContext context = new BurstsortContext();
+        assertEquals(BurstsortContext.DEFAULT_CAPACITY, context.getCapacity());
+        assertEquals(0, context.getRetained());
+        Burstsort.sort(new String[0], context);
+        Burstsort.sort(new String[]{"a"}, context);
+        assertEquals(0, context.getRetained());
+    }
+
+    @Test
+    public void testReuse() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            BurstsortContext context = new BurstsortContext(
+                    new BurstTuning(1024, 16, 8, 256), BurstsortContext.DEFAULT_CAPACITY);
+            long retained = 0;
+            for (int i = 0; i < 4; i++) {
+                Collections.shuffle(data);
+                String[] arr = data.toArray(new String[data.size()]);
+                Burstsort.sort(arr, context);
+                assertTrue(Tests.isSorted(arr));
+                assertTrue(context.getRetained() > 0);
+                assertTrue(context.getRetained() <= context.getCapacity());
+                if (i > 0) {
+                    // Storage is reused rather than accumulated.
+                    assertTrue(context.getRetained() <= retained * 2);
+                }
+                retained = context.getRetained();
+            }
+            // Different data must not be disturbed by what came before.
+            List<String> unicode = Tests.generateUnicodeData(20000, 16);
+            String[] arr = unicode.toArray(new String[unicode.size()]);
+            Burstsort.sort(arr, context);
+            assertTrue(Tests.isSorted(arr));
+            context.clear();
+            assertEquals(0, context.getRetained());
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            Burstsort.sort(arr, context);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testCapacity() {
+        // A context that can hold only a little of the trie, and one
+        // that holds nothing at all.
+        List<String> data = Tests.generateData(50000, 10);
+        BurstsortContext small = new BurstsortContext(
+                new BurstTuning(64, 4, 2, 256), 1000);
+        BurstsortContext none = new BurstsortContext(BurstTuning.ORIGINAL, 0);
+        for (int i = 0; i < 3; i++) {
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            Burstsort.sort(arr, small);
+            assertTrue(Tests.isSorted(arr));
+            assertTrue(small.getRetained() <= 1000);
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            Burstsort.sort(arr, none);
+            assertTrue(Tests.isSorted(arr));
+            assertEquals(0, none.getRetained());
+        }
+    }
+
+    @Test
+    public void testInUse() {
+        BurstsortContext context = new BurstsortContext();
+        context.acquire();
+        try {
+            Burstsort.sort(new String[]{"b", "a"}, context);
+            fail("should have thrown ISE");
+        } catch (IllegalStateException ise) {
+            // expected
+        } finally {
+            context.release();
+        }
+        String[] arr = {"b", "a"};
+        Burstsort.sort(arr, context);
+        assertTrue(Tests.isSorted(arr));
+    }
+}
@@ -9,7 +9,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -44,6 +51,145 @@ public class BurstsortTest {
         assertTrue("peculiar input not sorted", Tests.isSorted(arr));
     }
 
+    @Test
+    public void testSortIndices() {
+        assertNull(Burstsort.sortIndices(null));
+        assertEquals(0, Burstsort.sortIndices(new String[0]).length);
+        String[] arr = new String[]{"z", "m", "", "a", "d", "tt", "tt", "tt", "foo", "bar"};
+        int[] indices = Burstsort.sortIndices(arr);
+        assertTrue(Tests.isSorted(arr, indices));
+        // the input is left untouched
+        assertEquals("z", arr[0]);
+        assertEquals("bar", arr[9]);
+        List<String> data = Tests.generateData(50000, 12);
+        data.addAll(Tests.generateUnicodeData(5000, 12));
+        data.addAll(data.subList(0, 1000));
+        Collections.shuffle(data);
+        arr = data.toArray(new String[data.size()]);
+        assertTrue(Tests.isSorted(arr, Burstsort.sortIndices(arr)));
+    }
+
+    @Test
+    public void testKeyExtractor() {
+        KeyExtractor<String[]> first = new KeyExtractor<String[]>() {
+
+            @Override
+            public CharSequence getKey(String[] item) {
+                return item[0];
+            }
+        };
+        Burstsort.sort((String[][]) null, first);
+        List<String> data = Tests.generateData(20000, 10);
+        data.addAll(data.subList(0, 500));
+        Collections.shuffle(data);
+        String[][] rows = new String[data.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new String[]{data.get(i), String.valueOf(i)};
+        }
+        String[][] copy = rows.clone();
+        Burstsort.sort(rows, first);
+        String[] keys = new String[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            keys[i] = rows[i][0];
+            // each row is kept intact
+            assertEquals(data.get(Integer.parseInt(rows[i][1])), rows[i][0]);
+        }
+        assertTrue(Tests.isSorted(keys));
+        try {
+            Burstsort.sortThreadPool(copy, first);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        for (int i = 0; i < copy.length; i++) {
+            assertEquals(keys[i], copy[i][0]);
+        }
+        try {
+            Burstsort.sort(new String[][]{{"a"}, {null}}, first);
+            fail("should have thrown NPE");
+        } catch (NullPointerException npe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testStable() {
+        Burstsort.sortStable(null);
+        Burstsort.sortStable(new String[0]);
+        // Few distinct strings, each repeated many times, with some long
+        // enough to be held in the deeper buckets of the trie.
+        List<String> data = new ArrayList<String>();
+        for (String s : Tests.generateData(500, 3)) {
+            for (int i = 0; i < 40; i++) {
+                data.add(s);
+                data.add(s + s);
+                data.add("");
+            }
+        }
+        Collections.shuffle(data);
+        CharSequence[] original = Tests.toDistinct(data);
+        CharSequence[] arr = original.clone();
+        Burstsort.sortStable(arr);
+        assertTrue(Tests.isStable(original, arr));
+    }
+
+    @Test
+    public void testStableByKeys() {
+        // Sort by the secondary key, then by the primary key, and the
+        // rows should be in order of both.
+        List<String> first = Tests.generateData(10000, 2);
+        List<String> second = Tests.generateData(10000, 3);
+        String[][] rows = new String[first.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new String[]{first.get(i).substring(0, 1), second.get(i)};
+        }
+        for (final int column : new int[]{1, 0}) {
+            Burstsort.sortStable(rows, new KeyExtractor<String[]>() {
+
+                @Override
+                public CharSequence getKey(String[] item) {
+                    return item[column];
+                }
+            });
+        }
+        for (int i = 1; i < rows.length; i++) {
+            int cmp = rows[i - 1][0].compareTo(rows[i][0]);
+            assertTrue(cmp < 0 || cmp == 0 && rows[i - 1][1].compareTo(rows[i][1]) <= 0);
+        }
+    }
+
+    @Test
+    public void testCharOrder() {
+        List<String> data = Tests.generateData(50000, 10);
+        data.addAll(Tests.generateUnicodeData(5000, 10));
+        data.addAll(data.subList(0, 2000));
+        for (CharOrder order : Tests.charOrders()) {
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            Burstsort.sort(arr, order);
+            assertTrue(order.toString(), Tests.isSorted(arr, order));
+        }
+    }
+
+    @Test
+    public void testCharOrderPrefixes() {
+        // Shared prefixes that differ only in case must be collapsed
+        // (and split) according to the rank of their characters.
+        String[] prefixes = {"HTTP://Example.com/", "http://example.COM/",
+            "http://example.org/", "Http://"};
+        List<String> data = new ArrayList<String>();
+        for (String prefix : prefixes) {
+            for (String s : Tests.generateData(5000, 6)) {
+                data.add(prefix + s);
+            }
+        }
+        Collections.shuffle(data);
+        for (CharOrder order : Tests.charOrders()) {
+            String[] arr = data.toArray(new String[data.size()]);
+            Burstsort.sort(arr, order);
+            assertTrue(order.toString(), Tests.isSorted(arr, order));
+        }
+    }
+
     @Test
     public void testDictWords() {
         try {
@@ -77,6 +223,179 @@ public class BurstsortTest {
         }
     }
 
+    @Test
+    public void testDictWordsForkJoinPool() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                Burstsort.sortThreadPool(arr, pool);
+            } catch (InterruptedException ie) {
+                fail(ie.toString());
+            } finally {
+                pool.shutdown();
+            }
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testDictWordsExecutor() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            try {
+                Burstsort.sortThreadPool(arr, executor);
+            } catch (InterruptedException ie) {
+                fail(ie.toString());
+            } finally {
+                executor.shutdown();
+            }
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeatedCycleParallelism() {
+        String[] strs = new String[100];
+        String seed = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        for (int i = 0, l = 1; i < strs.length; i++, l++) {
+            strs[i] = seed.substring(0, l);
+        }
+        List<String> list = new ArrayList<String>();
+        for (int c = 1000000, i = 0; c > 0; i++, c--) {
+            list.add(strs[i % strs.length]);
+        }
+        String[] arr = list.toArray(new String[list.size()]);
+        try {
+            Burstsort.sortThreadPool(arr, 4);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testSkewedParallelism() {
+        // One bucket holding most of the strings, which the scheduler
+        // will split into parts to be sorted in parallel.
+        List<String> data = new ArrayList<String>();
+        for (String s : Tests.generateData(8000, 16)) {
+            data.add("aaaa" + s);
+        }
+        data.addAll(Tests.generateData(1000, 20));
+        Collections.shuffle(data);
+        String[] arr = data.toArray(new String[data.size()]);
+        try {
+            Burstsort.sortThreadPool(arr, 4);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testDictWordsTuned() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            // Small buckets, with the deeper nodes having the smaller
+            // threshold, such that bursts overfill some buckets.
+            BurstTuning tuning = new BurstTuning(new int[]{256, 64, 16}, 4, 2, 8);
+            System.out.format("\nDictionary words (tuned):\n");
+            Burstsort.sort(arr, tuning, System.out);
+            assertTrue(Tests.isSorted(arr));
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            Burstsort.sort(arr, new BurstTuning(new int[]{64, 1024}, 16, 8, 32), null);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeatedTunedParallel() {
+        // Many empty and repeated strings, filling the null buckets
+        // with an exact multiple of the sub-bucket size.
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < 16384; i++) {
+            data.add("");
+            data.add("abc");
+        }
+        data.addAll(Tests.generateData(5000, 10));
+        Collections.shuffle(data);
+        String[] arr = data.toArray(new String[data.size()]);
+        BurstTuning.setDefault(new BurstTuning(new int[]{512, 128}, 8, 4, 64));
+        try {
+            Burstsort.sortThreadPool(arr, 4);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        } finally {
+            BurstTuning.setDefault(BurstTuning.ORIGINAL);
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testAdaptiveNodes() {
+        // A small alphabet at first, such that the nodes created by the
+        // bursts are sparse, followed by strings that force those nodes
+        // to grow through each of the larger sizes.
+        List<String> data = new ArrayList<String>();
+        for (String s : Tests.generateData(4000, 12)) {
+            data.add(s.replaceAll("[^ACGT]", "A"));
+        }
+        List<String> more = Tests.generateData(20000, 12);
+        more.addAll(Tests.generateUnicodeData(5000, 12));
+        Collections.shuffle(more);
+        data.addAll(more);
+        String[] arr = data.toArray(new String[data.size()]);
+        Burstsort.sort(arr, new BurstTuning(32, 4, 2, 256), System.out);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testCommonPrefixes() {
+        // Long shared prefixes are collapsed into a single node, which
+        // must be split when later strings diverge along the prefix.
+        String[] prefixes = {
+            "https://www.example.com/docs/",
+            "https://www.example.com/",
+            "https://www.example.org/",
+            "http://",
+            "/var/log/",
+            ""
+        };
+        List<String> data = new ArrayList<String>();
+        for (String prefix : prefixes) {
+            for (String s : Tests.generateData(2000, 8)) {
+                data.add(prefix + s);
+            }
+            data.add(prefix);
+            data.add(prefix + prefix);
+        }
+        Collections.shuffle(data);
+        // Insert the longest prefix first, so that the path is split.
+        Collections.sort(data.subList(0, 4000), Collections.reverseOrder());
+        String[] arr = data.toArray(new String[data.size()]);
+        Burstsort.sort(arr, new BurstTuning(16, 4, 2, 256), System.out);
+        assertTrue(Tests.isSorted(arr));
+        arr = data.toArray(new String[data.size()]);
+        Burstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
     @Test
     public void testSorted() {
         try {
@@ -151,6 +470,23 @@ public class BurstsortTest {
         assertTrue(Tests.isSorted(arr));
     }
 
+    @Test
+    public void testShortParallel() {
+        // Many empty and single character strings, along with a few
+        // longer ones, to exercise each group in the parallel insert.
+        String[] strs = new String[]{"", "A", "", "AB", "B", "A", "", "ABC", "C", "A"};
+        String[] arr = new String[100000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = strs[i % strs.length];
+        }
+        try {
+            Burstsort.sortThreadPool(arr);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
     @Test
     public void testRepeatedCycleParallel() {
         String[] strs = new String[100];
@@ -181,6 +517,28 @@ public class BurstsortTest {
         assertTrue(Tests.isSorted(arr));
     }
 
+    @Test
+    public void testUnicode() {
+        // Enough strings over a small alphabet to burst many buckets.
+        List<String> data = Tests.generateUnicodeData(500000, 20);
+        String[] arr = data.toArray(new String[data.size()]);
+        System.out.format("\nUnicode strings:\n");
+        Burstsort.sort(arr, System.out);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testUnicodeParallel() {
+        List<String> data = Tests.generateUnicodeData(500000, 20);
+        String[] arr = data.toArray(new String[data.size()]);
+        try {
+            Burstsort.sortThreadPool(arr);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
     @Test
     public void testHamlet() {
         try {
@@ -207,4 +565,196 @@ public class BurstsortTest {
             fail(ioe.toString());
         }
     }
+
+    @Test
+    public void testSortDistinct() {
+        assertEquals(0, Burstsort.sortDistinct(null, null));
+        assertEquals(0, Burstsort.sortDistinct(new String[0], null));
+        String[] one = {"a"};
+        int[] counts = new int[1];
+        assertEquals(1, Burstsort.sortDistinct(one, counts));
+        assertEquals(1, counts[0]);
+        try {
+            Burstsort.sortDistinct(new String[]{"b", "a"}, new int[1]);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        String[] arr = {"b", "a", "b", "", "a", "b", ""};
+        assertEquals(3, Burstsort.sortDistinct(arr, null));
+        assertEquals("", arr[0]);
+        assertEquals("a", arr[1]);
+        assertEquals("b", arr[2]);
+        for (int i = 3; i < arr.length; i++) {
+            assertNull(arr[i]);
+        }
+
+        // Many copies of a few strings, both short and long, such that
+        // the null buckets and the regular buckets are both exercised.
+        List<String> data = new ArrayList<String>();
+        List<String> distinct = Tests.generateData(500, 4);
+        distinct.addAll(Tests.generateData(200, 100));
+        distinct.add("");
+        Map<String, Integer> expected = new TreeMap<String, Integer>();
+        for (int i = 0; i < distinct.size(); i++) {
+            String s = distinct.get(i);
+            int copies = 1 + i % 50;
+            for (int j = 0; j < copies; j++) {
+                data.add(s);
+            }
+            Integer n = expected.get(s);
+            expected.put(s, n == null ? copies : n + copies);
+        }
+        Collections.shuffle(data);
+        arr = data.toArray(new String[data.size()]);
+        counts = new int[arr.length];
+        int n = Burstsort.sortDistinct(arr, counts);
+        assertEquals(expected.size(), n);
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), arr[i]);
+            assertEquals(entry.getValue().intValue(), counts[i]);
+            i++;
+        }
+        for (; i < arr.length; i++) {
+            assertNull(arr[i]);
+        }
+    }
+
+    @Test
+    public void testSortTopK() {
+        try {
+            Burstsort.sortTopK(new String[]{"b", "a"}, -1);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        Burstsort.sortTopK(null, 1);
+        String[] arr = {"b", "a"};
+        Burstsort.sortTopK(arr, 0);
+        assertEquals("b", arr[0]);
+        Burstsort.sortTopK(arr, 1);
+        assertEquals("a", arr[0]);
+
+        List<String> data = Tests.generateData(20000, 12);
+        List<String> repeated = Tests.generateData(500, 50);
+        for (int i = 0; i < 20; i++) {
+            data.addAll(repeated);
+        }
+        data.addAll(Tests.generateUnicodeData(5000, 8));
+        String[] original = data.toArray(new String[data.size()]);
+        String[] all = original.clone();
+        Arrays.sort(all);
+        int[] limits = {1, 10, 1000, original.length / 2, original.length, original.length + 5};
+        CharOrder[] orders = {
+            CharOrder.NATURAL, CharOrder.NATURAL.reversed(),
+            CharOrder.CASE_INSENSITIVE, CharOrder.CASE_INSENSITIVE.reversed()
+        };
+        for (CharOrder order : orders) {
+            String[] expected = original.clone();
+            Arrays.sort(expected, order);
+            for (int k : limits) {
+                Collections.shuffle(data);
+                arr = data.toArray(new String[data.size()]);
+                Burstsort.sortTopK(arr, k, order);
+                for (int i = 0; i < Math.min(k, arr.length); i++) {
+                    assertEquals(0, order.compare(expected[i], arr[i]));
+                }
+                // None of the strings may be lost along the way.
+                Arrays.sort(arr);
+                assertArrayEquals(all, arr);
+            }
+        }
+    }
+
+    @Test
+    public void testIterator() throws InterruptedException {
+        assertFalse(Burstsort.iterator(null).hasNext());
+        assertFalse(Burstsort.iterator(new String[0]).hasNext());
+        try {
+            Burstsort.iterator(new String[0], null, -1);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        Iterator<CharSequence> iter = Burstsort.iterator(new String[]{"b", "a"});
+        assertEquals("a", iter.next());
+        try {
+            iter.remove();
+            fail("should have thrown UOE");
+        } catch (UnsupportedOperationException uoe) {
+            // expected
+        }
+        assertEquals("b", iter.next());
+        assertFalse(iter.hasNext());
+        try {
+            iter.next();
+            fail("should have thrown NSEE");
+        } catch (NoSuchElementException nsee) {
+            // expected
+        }
+
+        // Enough equal strings to fill a chain of null buckets.
+        List<String> data = Tests.generateData(50000, 12);
+        data.addAll(Tests.generateUnicodeData(5000, 8));
+        for (int i = 0; i < 20000; i++) {
+            data.add("");
+            data.add("abc");
+        }
+        Collections.shuffle(data);
+        String[] arr = data.toArray(new String[data.size()]);
+        String[] original = arr.clone();
+        String[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int ahead = 0; ahead < 20; ahead += 8) {
+                iter = ahead == 0 ? Burstsort.iterator(arr)
+                        : Burstsort.iterator(arr, executor, ahead);
+                for (String s : sorted) {
+                    assertTrue(iter.hasNext());
+                    assertEquals(s, iter.next());
+                }
+                assertFalse(iter.hasNext());
+                assertArrayEquals(original, arr);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLcp() {
+        try {
+            Burstsort.sort(new String[]{"b", "a"}, new int[1]);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        int[] lcp = {-1};
+        Burstsort.sort(new String[]{"a"}, lcp);
+        assertEquals(0, lcp[0]);
+        String[] arr = {"abc", "ab", "", "abd", "a", "b", "abc", ""};
+        lcp = new int[arr.length];
+        Burstsort.sort(arr, lcp);
+        assertTrue(Tests.isSorted(arr));
+        assertTrue(Tests.isLcp(arr, lcp));
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            data.addAll(data.subList(0, 5000));
+            data.addAll(Tests.generateUnicodeData(5000, 8));
+            for (int i = 0; i < 10000; i++) {
+                data.add("");
+                data.add("aardvark");
+            }
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            lcp = new int[arr.length];
+            Burstsort.sort(arr, lcp);
+            assertTrue(Tests.isSorted(arr));
+            assertTrue(Tests.isLcp(arr, lcp));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
 }
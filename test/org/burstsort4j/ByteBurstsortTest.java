@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ByteBurstsort class.
+ *
+ * @author Nathan Fiedler
+ */
+public class ByteBurstsortTest {
+
+    @Test
+    public void testArguments() {
+        ByteBurstsort.sort(null);
+        ByteBurstsort.sort(new byte[0][]);
+        byte[][] arr = Tests.toBytes(Arrays.asList("a"));
+        ByteBurstsort.sort(arr);
+        arr = Tests.toBytes(Arrays.asList("b", "a"));
+        ByteBurstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        arr = Tests.toBytes(Arrays.asList("c", "b", "a"));
+        ByteBurstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        // test with all empty input
+        arr = Tests.toBytes(Arrays.asList("", "", "", "", "", "", "", "", "", ""));
+        ByteBurstsort.sort(arr);
+        for (byte[] s : arr) {
+            assertEquals(0, s.length);
+        }
+        // test with peculiar input
+        arr = Tests.toBytes(Arrays.asList("z", "m", "", "a", "d", "tt", "tt",
+                "tt", "foo", "bar"));
+        ByteBurstsort.sort(arr);
+        assertTrue("peculiar input not sorted", Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testDictWords() {
+        try {
+            // Use the large dictionary rather than the trivial one.
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            byte[][] arr = Tests.toBytes(data);
+            System.out.format("\nDictionary words (large, bytes):\n");
+            ByteBurstsort.sort(arr, System.out);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeated() {
+        // Make the size of the set large enough to burst buckets.
+        final String STR = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        byte[][] arr = Tests.toBytes(Collections.nCopies(1310720, STR));
+        ByteBurstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        for (byte[] s : arr) {
+            assertEquals(STR.length(), s.length);
+        }
+    }
+
+    @Test
+    public void testRepeatedCycle() {
+        String[] strs = new String[100];
+        String seed = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        for (int i = 0, l = 1; i < strs.length; i++, l++) {
+            strs[i] = seed.substring(0, l);
+        }
+        List<String> list = new ArrayList<String>();
+        for (int c = 3162300, i = 0; c > 0; i++, c--) {
+            list.add(strs[i % strs.length]);
+        }
+        byte[][] arr = Tests.toBytes(list);
+        ByteBurstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testRandom() {
+        List<String> data = Tests.generateData(1000000, 100);
+        byte[][] arr = Tests.toBytes(data);
+        ByteBurstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testUnicode() {
+        // Multi-byte characters must sort in code point order.
+        List<String> data = Tests.generateUnicodeData(500000, 20);
+        byte[][] arr = Tests.toBytes(data);
+        ByteBurstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testDictCalls() {
+        try {
+            List<String> data = Tests.loadData("dictcalls.gz", true);
+            byte[][] arr = Tests.toBytes(data);
+            ByteBurstsort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for the CachingMultikeyQuicksort implementation.
+ *
+ * @author Nathan Fiedler
+ */
+public class CachingMultikeyQuicksortTest {
+
+    @Test
+    public void testArguments() {
+        CachingMultikeyQuicksort.sort((String[]) null);
+        CachingMultikeyQuicksort.sort(new String[0]);
+        String[] arr = new String[]{"a"};
+        CachingMultikeyQuicksort.sort(arr);
+        arr = new String[]{"b", "a"};
+        CachingMultikeyQuicksort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        arr = new String[]{"c", "b", "a"};
+        CachingMultikeyQuicksort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        // test with all empty input
+        arr = new String[]{"", "", "", "", "", "", "", "", "", ""};
+        CachingMultikeyQuicksort.sort(arr);
+        for (String s : arr) {
+            assertEquals("", s);
+        }
+        // test with peculiar input
+        arr = new String[]{"z", "m", "", "a", "d", "tt", "tt", "tt", "foo", "bar"};
+        CachingMultikeyQuicksort.sort(arr);
+        assertTrue("peculiar input not sorted", Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testDictWords() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            CachingMultikeyQuicksort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testSorted() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.sort(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            CachingMultikeyQuicksort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testReversed() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.sort(data);
+            Collections.reverse(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            CachingMultikeyQuicksort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeated() {
+        String[] arr = new String[10000];
+        final String STR = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        Arrays.fill(arr, STR);
+        CachingMultikeyQuicksort.sort(arr);
+        assertTrue(Tests.isRepeated(arr, STR));
+    }
+
+    @Test
+    public void testRepeatedCycle() {
+        String[] strs = new String[100];
+        String seed = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        for (int i = 0, l = 1; i < strs.length; i++, l++) {
+            strs[i] = seed.substring(0, l);
+        }
+        List<String> list = new ArrayList<String>();
+        for (int c = 10000, i = 0; c > 0; i++, c--) {
+            list.add(strs[i % strs.length]);
+        }
+        String[] arr = list.toArray(new String[list.size()]);
+        CachingMultikeyQuicksort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testRandom() {
+        List<String> data = Tests.generateData(10000, 100);
+        String[] arr = data.toArray(new String[data.size()]);
+        CachingMultikeyQuicksort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testHamlet() {
+        try {
+            List<String> data = Tests.loadData("hamletwords");
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            CachingMultikeyQuicksort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testDictCalls() {
+        try {
+            List<String> data = Tests.loadData("dictcalls.gz", true);
+            String[] arr = data.toArray(new String[data.size()]);
+            CachingMultikeyQuicksort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testUnicode() {
+        // Characters above U+7FFF fill the sign bit of the keys.
+        List<String> data = Tests.generateUnicodeData(10000, 12);
+        String[] arr = data.toArray(new String[data.size()]);
+        CachingMultikeyQuicksort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testKeyBoundaries() {
+        // Strings that end at, before and after the end of each key.
+        List<String> data = new ArrayList<String>();
+        String seed = "abcdefghijkl";
+        for (int i = 0; i <= seed.length(); i++) {
+            for (int j = 0; j < 20; j++) {
+                data.add(seed.substring(0, i));
+                data.add(seed.substring(0, i) + "a");
+                data.add(seed.substring(0, i) + "\uffff");
+            }
+        }
+        Collections.shuffle(data);
+        String[] arr = data.toArray(new String[data.size()]);
+        CachingMultikeyQuicksort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testRange() {
+        List<String> data = Tests.generateData(10000, 20);
+        String[] arr = new String[data.size() + 2];
+        arr[0] = "zzz";
+        for (int i = 0; i < data.size(); i++) {
+            arr[i + 1] = "pre" + data.get(i);
+        }
+        arr[arr.length - 1] = "";
+        CachingMultikeyQuicksort.sort(arr, 1, arr.length - 1, 3);
+        assertEquals("zzz", arr[0]);
+        assertEquals("", arr[arr.length - 1]);
+        assertTrue(Tests.isSorted(Arrays.copyOfRange(arr, 1, arr.length - 1)));
+    }
+}
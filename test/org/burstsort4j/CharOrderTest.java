@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the CharOrder class.
+ *
+ * @author Nathan Fiedler
+ */
+public class CharOrderTest {
+
+    @Test
+    public void testArguments() {
+        try {
+            CharOrder.forAlphabet("abca");
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            CharOrder.forAlphabet("ab\0");
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            CharOrder.forRanks(new char[256]);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        char[] ranks = new char[65536];
+        for (int c = 1; c < ranks.length; c++) {
+            ranks[c] = (char) c;
+        }
+        ranks['q'] = 0;
+        try {
+            CharOrder.forRanks(ranks);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReversed() {
+        CharOrder order = CharOrder.CASE_INSENSITIVE;
+        assertFalse(order.isDescending());
+        assertTrue(order.reversed().isDescending());
+        assertSame(order, order.reversed().reversed());
+        assertTrue(order.compare("abc", "abd") < 0);
+        assertTrue(order.reversed().compare("abc", "abd") > 0);
+        // a prefix comes last in descending order
+        assertTrue(order.reversed().compare("ab", "abc") > 0);
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        CharOrder order = CharOrder.CASE_INSENSITIVE;
+        assertEquals(order.rank('a'), order.rank('A'));
+        assertEquals(0, order.compare("Hello", "hELLO"));
+        List<String> data = Tests.generateData(1000, 4);
+        data.addAll(Tests.generateUnicodeData(1000, 4));
+        for (int i = 1; i < data.size(); i++) {
+            String a = data.get(i - 1);
+            String b = data.get(i);
+            if (hasSurrogate(a) || hasSurrogate(b)) {
+                // String compares the case of whole code points.
+                continue;
+            }
+            assertEquals(Integer.signum(String.CASE_INSENSITIVE_ORDER.compare(a, b)),
+                    Integer.signum(order.compare(a, b)));
+        }
+    }
+
+    /**
+     * Indicates if the string contains any surrogate characters.
+     *
+     * @param  s  string to examine.
+     * @return  true if a surrogate is found, false otherwise.
+     */
+    private static boolean hasSurrogate(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isSurrogate(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testAlphabet() {
+        CharOrder order = CharOrder.forAlphabet("TCGA");
+        assertTrue(order.compare("T", "A") < 0);
+        assertTrue(order.compare("GAT", "GAC") < 0);
+        // characters outside the alphabet follow it in natural order
+        assertTrue(order.compare("A", "B") < 0);
+        assertTrue(order.compare("B", "C") > 0);
+        assertTrue(order.compare("N", "X") < 0);
+        assertTrue(order.compare("", "T") < 0);
+    }
+}
@@ -7,8 +7,6 @@ package org.burstsort4j;
 
 import java.util.Arrays;
 import java.util.NoSuchElementException;
-import java.util.Observable;
-import java.util.Observer;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -466,14 +464,16 @@ public class CircularBufferTest {
     }
 
     @Test
-    public void testObserver() {
+    public void testSource() {
         CircularBuffer<String> instance = new CircularBuffer<String>(3);
         instance.add("1");
         instance.add("2");
         instance.add("3");
         assertTrue(instance.isFull());
-        BufferObserver bo = new BufferObserver();
-        instance.addObserver(bo);
+        BufferSource bo = new BufferSource();
+        assertNull(instance.getSource());
+        instance.setSource(bo);
+        assertSame(bo, instance.getSource());
         instance.poll();
         assertEquals(0, bo.count());
         instance.poll();
@@ -500,24 +500,45 @@ public class CircularBufferTest {
         String[] strs = new String[5];
         instance.drain(strs, 2);
         assertEquals(5, bo.count());
+        instance.setSource(null);
+        instance.add("1");
+        instance.remove();
+        assertEquals(5, bo.count());
+
+        // The source may refill the buffer before the emptying method
+        // returns to the caller.
+        final CircularBuffer<String> refilled = new CircularBuffer<String>(2);
+        refilled.setSource(new CircularBuffer.Source() {
+
+            @Override
+            public void refill() {
+                if (refilled.isEmpty()) {
+                    refilled.add("x");
+                }
+            }
+        });
+        refilled.add("a");
+        assertEquals("a", refilled.remove());
+        assertEquals(1, refilled.size());
+        assertEquals("x", refilled.peek());
     }
 
     /**
-     * Used for testing the Observer support in CircularBuffer.
+     * Used for testing the Source support in CircularBuffer.
      */
-    private static class BufferObserver implements Observer {
+    private static class BufferSource implements CircularBuffer.Source {
 
         private int count;
 
         /**
-         * @return  number of times observer has been updated.
+         * @return  number of times source has been asked to refill.
          */
         public int count() {
             return count;
         }
 
         @Override
-        public void update(Observable o, Object arg) {
+        public void refill() {
             count++;
         }
     }
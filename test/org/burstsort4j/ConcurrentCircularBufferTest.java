@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.util.concurrent.CancellationException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ConcurrentCircularBuffer class.
+ *
+ * @author Nathan Fiedler
+ */
+public class ConcurrentCircularBufferTest {
+
+    @Test
+    public void testArguments() {
+        assertEquals(1, new ConcurrentCircularBuffer<String>(1).capacity());
+        assertEquals(8, new ConcurrentCircularBuffer<String>(5).capacity());
+        assertEquals(16, new ConcurrentCircularBuffer<String>(16).capacity());
+        try {
+            new ConcurrentCircularBuffer<String>(0);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSingleThread() {
+        ConcurrentCircularBuffer<Integer> instance = new ConcurrentCircularBuffer<Integer>(4);
+        Integer[] in = {1, 2, 3};
+        instance.put(in, 0, 3);
+        Integer[] out = new Integer[8];
+        assertEquals(2, instance.take(out, 0, 2));
+        assertEquals(1, out[0].intValue());
+        assertEquals(2, out[1].intValue());
+        // Wrap around the end of the buffer.
+        instance.put(in, 0, 3);
+        assertEquals(4, instance.take(out, 2, 8));
+        assertEquals(3, out[2].intValue());
+        assertEquals(1, out[3].intValue());
+        assertEquals(2, out[4].intValue());
+        assertEquals(3, out[5].intValue());
+        instance.close();
+        assertEquals(-1, instance.take(out, 0, 8));
+        try {
+            instance.put(in, 0, 1);
+            fail("should have thrown ISE");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testProducerConsumer() throws InterruptedException {
+        final ConcurrentCircularBuffer<Integer> instance = new ConcurrentCircularBuffer<Integer>(64);
+        final int count = 500000;
+        Thread producer = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                Integer[] batch = new Integer[37];
+                int next = 0;
+                while (next < count) {
+                    int n = Math.min(batch.length, count - next);
+                    for (int i = 0; i < n; i++) {
+                        batch[i] = next++;
+                    }
+                    instance.put(batch, 0, n);
+                }
+                instance.close();
+            }
+        });
+        producer.start();
+        Integer[] out = new Integer[50];
+        int expected = 0;
+        int n;
+        while ((n = instance.take(out, 0, out.length)) > 0) {
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected, out[i].intValue());
+                expected++;
+            }
+        }
+        assertEquals(-1, n);
+        assertEquals(count, expected);
+        producer.join();
+    }
+
+    @Test
+    public void testFail() {
+        ConcurrentCircularBuffer<String> instance = new ConcurrentCircularBuffer<String>(4);
+        instance.put(new String[]{"a"}, 0, 1);
+        IllegalStateException cause = new IllegalStateException("oops");
+        instance.fail(cause);
+        String[] out = new String[4];
+        // The elements already added are still received.
+        assertEquals(1, instance.take(out, 0, 4));
+        try {
+            instance.take(out, 0, 4);
+            fail("should have thrown RuntimeException");
+        } catch (RuntimeException re) {
+            assertSame(cause, re.getCause());
+        }
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        final ConcurrentCircularBuffer<String> instance = new ConcurrentCircularBuffer<String>(2);
+        final boolean[] cancelled = new boolean[1];
+        Thread producer = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    // More than will fit, so the producer must wait.
+                    instance.put(new String[]{"a", "b", "c", "d"}, 0, 4);
+                } catch (CancellationException ce) {
+                    cancelled[0] = true;
+                }
+            }
+        });
+        producer.start();
+        String[] out = new String[1];
+        assertEquals(1, instance.take(out, 0, 1));
+        assertEquals("a", out[0]);
+        instance.cancel();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+        assertTrue(cancelled[0]);
+        assertTrue(instance.isCancelled());
+    }
+}
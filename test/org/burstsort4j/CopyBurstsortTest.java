@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the CopyBurstsort class.
+ *
+ * @author Nathan Fiedler
+ */
+public class CopyBurstsortTest {
+
+    @Test
+    public void testArguments() {
+        CopyBurstsort.sort(null);
+        CopyBurstsort.sort(new String[0]);
+        String[] arr = new String[]{"a"};
+        CopyBurstsort.sort(arr);
+        arr = new String[]{"b", "a"};
+        CopyBurstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        arr = new String[]{"c", "b", "a"};
+        CopyBurstsort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        // test with all empty input
+        arr = new String[]{"", "", "", "", "", "", "", "", "", ""};
+        CopyBurstsort.sort(arr);
+        for (String s : arr) {
+            assertEquals("", s);
+        }
+        // test with peculiar input
+        arr = new String[]{"z", "m", "", "a", "d", "tt", "tt", "tt", "foo", "bar"};
+        CopyBurstsort.sort(arr);
+        assertTrue("peculiar input not sorted", Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testConsumedSuffixes() {
+        // A longer string amongst many that end at the same depth, such
+        // that the consumed suffixes come last in the bucket's data.
+        String[] arr = new String[127];
+        arr[0] = "abcd";
+        for (int ii = 1; ii < arr.length; ii++) {
+            arr[ii] = "ab";
+        }
+        String[] expected = arr.clone();
+        Arrays.sort(expected);
+        CopyBurstsort.sort(arr);
+        assertArrayEquals(expected, arr);
+    }
+
+
+    @Test
+    public void testDictWords() {
+        try {
+            // Use the large dictionary rather than the trivial one.
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            System.out.format("\nDictionary words (large):\n");
+            CopyBurstsort.sort(arr, System.out);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testSorted() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.sort(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            System.out.format("\nDictionary words (sorted):\n");
+            CopyBurstsort.sort(arr, System.out);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testReversed() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.sort(data);
+            Collections.reverse(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            System.out.format("\nDictionary words (reversed):\n");
+            CopyBurstsort.sort(arr, System.out);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeated() {
+        // Make the size of the set large enough to burst buckets.
+        String[] arr = new String[1310720];
+        final String STR = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        Arrays.fill(arr, STR);
+        System.out.format("\nRepeated 100-A string:\n");
+        CopyBurstsort.sort(arr, System.out);
+        assertTrue(Tests.isRepeated(arr, STR));
+    }
+
+    @Test
+    public void testRepeatedCycle() {
+        String[] strs = new String[100];
+        String seed = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        for (int i = 0, l = 1; i < strs.length; i++, l++) {
+            strs[i] = seed.substring(0, l);
+        }
+        List<String> list = new ArrayList<String>();
+        for (int c = 3162300, i = 0; c > 0; i++, c--) {
+            list.add(strs[i % strs.length]);
+        }
+        System.out.format("\nRepeated A strings (cycle):\n");
+        String[] arr = list.toArray(new String[list.size()]);
+        CopyBurstsort.sort(arr, System.out);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testRandom() {
+        List<String> data = Tests.generateData(1000000, 100);
+        String[] arr = data.toArray(new String[data.size()]);
+        System.out.format("\nRandom strings:\n");
+        CopyBurstsort.sort(arr, System.out);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testUnicode() {
+        // Enough strings over a small alphabet to burst many buckets.
+        List<String> data = Tests.generateUnicodeData(500000, 20);
+        String[] arr = data.toArray(new String[data.size()]);
+        System.out.format("\nUnicode strings:\n");
+        CopyBurstsort.sort(arr, System.out);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testHamlet() {
+        try {
+            List<String> data = Tests.loadData("hamletwords");
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            System.out.format("\nHamlet words:\n");
+            CopyBurstsort.sort(arr, System.out);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testDictCalls() {
+        try {
+            List<String> data = Tests.loadData("dictcalls.gz", true);
+            String[] arr = data.toArray(new String[data.size()]);
+            System.out.format("\nLibrary calls:\n");
+            CopyBurstsort.sort(arr, System.out);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+}
@@ -137,4 +137,44 @@ public class InsertionsortTest {
         Insertionsort.sort(arr, 0, arr.length, 0);
         assertTrue(Tests.isSorted(arr));
     }
+
+    @Test
+    public void testCharOrder() {
+        List<String> data = Tests.generateData(300, 6);
+        data.addAll(Tests.generateUnicodeData(50, 6));
+        data.addAll(data.subList(0, 50));
+        for (CharOrder order : Tests.charOrders()) {
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            Insertionsort.sort(arr, 0, arr.length, 0, order);
+            assertTrue(order.toString(), Tests.isSorted(arr, order));
+        }
+    }
+
+    @Test
+    public void testBytes() {
+        try {
+            List<String> data = Tests.loadData("dictwords", false, MAX_LINES);
+            Collections.shuffle(data);
+            byte[][] arr = Tests.toBytes(data);
+            Insertionsort.sort(arr, 0, arr.length, 0);
+            assertTrue(Tests.isSorted(arr));
+            // Test with sorted list
+            Insertionsort.sort(arr, 0, arr.length, 0);
+            assertTrue(Tests.isSorted(arr));
+            // Test with reverse sorted list
+            Collections.sort(data);
+            Collections.reverse(data);
+            arr = Tests.toBytes(data);
+            Insertionsort.sort(arr, 0, arr.length, 0);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+        // Test with strings that include multi-byte characters.
+        List<String> data = Tests.generateUnicodeData(MAX_LINES, 16);
+        byte[][] arr = Tests.toBytes(data);
+        Insertionsort.sort(arr, 0, arr.length, 0);
+        assertTrue(Tests.isSorted(arr));
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the KWayMerge class.
+ *
+ * @author Nathan Fiedler
+ */
+public class KWayMergeTest {
+
+    @Test
+    public void testArguments() {
+        String[] dest = new String[3];
+        KWayMerge.merge(new String[0][], dest, 0);
+        KWayMerge.merge(new String[][]{{}, {}}, dest, 3);
+        KWayMerge.merge(new String[]{"a"}, new int[0], dest, 0);
+        try {
+            KWayMerge.merge(new String[][]{{"a", "b"}, {"c"}}, dest, 1);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        String[] source = {"b", "a", "c"};
+        try {
+            KWayMerge.merge(source, new int[]{0, 2, 1}, dest, 0);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            KWayMerge.merge(source, new int[]{0, 1, 4}, dest, 0);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            KWayMerge.merge(source, new int[]{0, 1, 3}, source, 0);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSmall() {
+        String[][] runs = {{"b", "e"}, {}, {"a", "c", "f"}, {"d"}};
+        String[] dest = new String[8];
+        KWayMerge.merge(runs, dest, 1);
+        assertArrayEquals(new String[]{null, "a", "b", "c", "d", "e", "f", null}, dest);
+        String[] source = {"b", "e", "a", "c", "f", "d"};
+        dest = new String[6];
+        KWayMerge.merge(source, new int[]{0, 2, 2, 5, 6}, dest, 0);
+        assertArrayEquals(new String[]{"a", "b", "c", "d", "e", "f"}, dest);
+    }
+
+    @Test
+    public void testDictWords() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] source = data.toArray(new String[data.size()]);
+            String[] expected = source.clone();
+            Arrays.sort(expected);
+            Random r = new Random(42);
+            for (int k : new int[]{1, 2, 3, 5, 16, 33, 200}) {
+                // Runs of random sizes, some of which may be empty.
+                int[] bounds = new int[k + 1];
+                for (int i = 1; i < k; i++) {
+                    bounds[i] = r.nextInt(source.length + 1);
+                }
+                bounds[k] = source.length;
+                Arrays.sort(bounds);
+                String[] runs = source.clone();
+                for (int i = 0; i < k; i++) {
+                    Arrays.sort(runs, bounds[i], bounds[i + 1]);
+                }
+                String[] dest = new String[source.length];
+                KWayMerge.merge(runs, bounds, dest, 0);
+                assertArrayEquals(expected, dest);
+            }
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testStable() {
+        // Equal elements must come out in the order of their runs.
+        int k = 7;
+        Keyed[][] runs = new Keyed[k][];
+        Random r = new Random(3);
+        int total = 0;
+        for (int i = 0; i < k; i++) {
+            runs[i] = new Keyed[r.nextInt(50)];
+            for (int j = 0; j < runs[i].length; j++) {
+                runs[i][j] = new Keyed(r.nextInt(5), i);
+            }
+            Arrays.sort(runs[i]);
+            total += runs[i].length;
+        }
+        Keyed[] dest = new Keyed[total];
+        KWayMerge.merge(runs, dest, 0);
+        for (int i = 1; i < total; i++) {
+            assertTrue(dest[i - 1].key < dest[i].key
+                    || (dest[i - 1].key == dest[i].key && dest[i - 1].run <= dest[i].run));
+        }
+    }
+
+    /**
+     * An element that is compared only by its key.
+     */
+    private static class Keyed implements Comparable<Keyed> {
+
+        private final int key;
+        private final int run;
+
+        Keyed(int key, int run) {
+            this.key = key;
+            this.run = run;
+        }
+
+        @Override
+        public int compareTo(Keyed o) {
+            return key < o.key ? -1 : (key == o.key ? 0 : 1);
+        }
+    }
+}
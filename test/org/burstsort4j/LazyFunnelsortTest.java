@@ -10,6 +10,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.burstsort4j.LazyFunnelsort.Arena;
 import org.burstsort4j.LazyFunnelsort.Kmerger;
 import org.burstsort4j.LazyFunnelsort.MergerFactory;
 import org.junit.Test;
@@ -128,6 +132,29 @@ public class LazyFunnelsortTest {
         String[] results = new String[arr.length];
         output.drain(results, 0);
         assertTrue(Tests.isSorted(results));
+
+        // Test the merger again with its buffers taken from an arena,
+        // which the merger should fill exactly.
+        inputs.clear();
+        String[] copy = data.toArray(new String[data.size()]);
+        for (offset = 0, size = arr.length / partitions; offset < copy.length; offset += size) {
+            if (offset + size > copy.length) {
+                size = copy.length - offset;
+            }
+            Arrays.sort(copy, offset, offset + size);
+            inputs.add(new CircularBuffer<Comparable>(copy, offset, size, false));
+        }
+        int space = MergerFactory.space(inputs.size());
+        Arena arena = Arena.forThread(space);
+        output = new CircularBuffer<Comparable>(arr.length);
+        merger = MergerFactory.createMerger(inputs, 0, inputs.size(), output, arena);
+        assertEquals(space, arena.position());
+        merger.merge();
+        String[] arenaResults = new String[arr.length];
+        output.drain(arenaResults, 0);
+        Arena.release();
+        assertArrayEquals(results, arenaResults);
+
         Arrays.sort(arr);
         for (int ii = 0; ii < arr.length; ii++) {
             assertEquals(arr[ii], results[ii]);
@@ -338,4 +365,94 @@ public class LazyFunnelsortTest {
             fail(ioe.toString());
         }
     }
+
+    @Test
+    public void testDictWordsThreadedPool() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                LazyFunnelsort.sortThreaded(arr, pool);
+            } finally {
+                pool.shutdown();
+            }
+            assertTrue(Tests.isSorted(arr));
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            try {
+                LazyFunnelsort.sortThreaded(arr, executor);
+            } finally {
+                executor.shutdown();
+            }
+            assertTrue(Tests.isSorted(arr));
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            LazyFunnelsort.sortThreaded(arr, 2);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testThreadedMerge() {
+        try {
+            // The merge is divided among the threads, so try a variety of
+            // thread counts, with and without many equal elements.
+            List<List<String>> sets = new ArrayList<List<String>>();
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            sets.add(data);
+            sets.add(data.subList(0, 1500));
+            List<String> repeated = new ArrayList<String>();
+            for (int ii = 0; ii < 60000; ii++) {
+                repeated.add(data.get(ii % 7));
+            }
+            Collections.shuffle(repeated);
+            sets.add(repeated);
+            for (List<String> set : sets) {
+                String[] expected = set.toArray(new String[set.size()]);
+                Arrays.sort(expected);
+                for (int threads : new int[]{2, 3, 7, 16}) {
+                    String[] arr = set.toArray(new String[set.size()]);
+                    LazyFunnelsort.sortThreaded(arr, threads);
+                    assertArrayEquals(expected, arr);
+                }
+            }
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testPipelined() {
+        try {
+            LazyFunnelsort.sortPipelined(null);
+            String[] arr = {"b", "a", "c"};
+            LazyFunnelsort.sortPipelined(arr);
+            assertArrayEquals(new String[]{"a", "b", "c"}, arr);
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            String[] expected = arr.clone();
+            Arrays.sort(expected);
+            LazyFunnelsort.sortPipelined(arr);
+            assertArrayEquals(expected, arr);
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testThreadedParallelism() {
+        try {
+            LazyFunnelsort.sortThreaded(new String[]{"b", "a"}, 0);
+            fail("should have thrown IllegalArgumentException");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for the LcpMergesort implementation.
+ *
+ * @author Nathan Fiedler
+ */
+public class LcpMergesortTest {
+
+    @Test
+    public void testArguments() {
+        LcpMergesort.sort(null);
+        LcpMergesort.sort(new String[0]);
+        String[] arr = new String[]{"a"};
+        LcpMergesort.sort(arr);
+        arr = new String[]{"b", "a"};
+        LcpMergesort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        arr = new String[]{"c", "b", "a"};
+        LcpMergesort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+        // test with all empty input
+        arr = new String[]{"", "", "", "", "", "", "", "", "", ""};
+        LcpMergesort.sort(arr);
+        for (String s : arr) {
+            assertEquals("", s);
+        }
+        // test with peculiar input
+        arr = new String[]{"z", "m", "", "a", "d", "tt", "tt", "tt", "foo", "bar"};
+        LcpMergesort.sort(arr);
+        assertTrue("peculiar input not sorted", Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testDictWords() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            LcpMergesort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testSorted() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.sort(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            LcpMergesort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testReversed() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.sort(data);
+            Collections.reverse(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            LcpMergesort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeated() {
+        String[] arr = new String[10000];
+        final String STR = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        Arrays.fill(arr, STR);
+        LcpMergesort.sort(arr);
+        assertTrue(Tests.isRepeated(arr, STR));
+    }
+
+    @Test
+    public void testRepeatedCycle() {
+        String[] strs = new String[100];
+        String seed = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        for (int i = 0, l = 1; i < strs.length; i++, l++) {
+            strs[i] = seed.substring(0, l);
+        }
+        List<String> list = new ArrayList<String>();
+        for (int c = 10000, i = 0; c > 0; i++, c--) {
+            list.add(strs[i % strs.length]);
+        }
+        String[] arr = list.toArray(new String[list.size()]);
+        LcpMergesort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testRange() {
+        List<String> data = Tests.generateData(10000, 8);
+        String[] arr = data.toArray(new String[data.size()]);
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = "pre" + arr[i];
+        }
+        LcpMergesort.sort(arr, 100, 9900, 3);
+        assertTrue(Tests.isSorted(Arrays.copyOfRange(arr, 100, 9900)));
+        assertEquals("pre" + data.get(0), arr[0]);
+        assertEquals("pre" + data.get(9999), arr[9999]);
+    }
+
+    @Test
+    public void testStable() {
+        List<String> data = new ArrayList<String>();
+        for (String s : Tests.generateData(300, 4)) {
+            for (int i = 0; i < 30; i++) {
+                data.add(s);
+                data.add(s.substring(0, 2));
+            }
+        }
+        data.addAll(Tests.generateUnicodeData(1000, 3));
+        Collections.shuffle(data);
+        CharSequence[] original = Tests.toDistinct(data);
+        CharSequence[] arr = original.clone();
+        LcpMergesort.sort(arr);
+        assertTrue(Tests.isStable(original, arr));
+    }
+
+    @Test
+    public void testUnicode() {
+        List<String> data = Tests.generateUnicodeData(10000, 50);
+        String[] arr = data.toArray(new String[data.size()]);
+        LcpMergesort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+}
@@ -44,6 +44,37 @@ public class MultikeyQuicksortTest {
         assertTrue("peculiar input not sorted", Tests.isSorted(arr));
     }
 
+    @Test
+    public void testSortIndices() {
+        assertNull(MultikeyQuicksort.sortIndices(null));
+        assertEquals(0, MultikeyQuicksort.sortIndices(new String[0]).length);
+        String[] arr = new String[]{"z", "m", "", "a", "d", "tt", "tt", "tt", "foo", "bar"};
+        int[] indices = MultikeyQuicksort.sortIndices(arr);
+        assertTrue(Tests.isSorted(arr, indices));
+        // the input is left untouched
+        assertEquals("z", arr[0]);
+        assertEquals("bar", arr[9]);
+        List<String> data = Tests.generateData(50000, 12);
+        data.addAll(Tests.generateUnicodeData(5000, 12));
+        data.addAll(data.subList(0, 1000));
+        Collections.shuffle(data);
+        arr = data.toArray(new String[data.size()]);
+        assertTrue(Tests.isSorted(arr, MultikeyQuicksort.sortIndices(arr)));
+    }
+
+    @Test
+    public void testCharOrder() {
+        List<String> data = Tests.generateData(20000, 10);
+        data.addAll(Tests.generateUnicodeData(2000, 10));
+        data.addAll(data.subList(0, 1000));
+        for (CharOrder order : Tests.charOrders()) {
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            MultikeyQuicksort.sort(arr, order);
+            assertTrue(order.toString(), Tests.isSorted(arr, order));
+        }
+    }
+
     @Test
     public void testDictWords() {
         try {
@@ -143,4 +174,94 @@ public class MultikeyQuicksortTest {
             fail(ioe.toString());
         }
     }
+
+    @Test
+    public void testPartition() {
+        List<String> data = Tests.generateData(10000, 3);
+        String[] arr = data.toArray(new String[data.size()]);
+        int[] bounds = MultikeyQuicksort.partition(arr, 100, 9900, 1);
+        char pivot = (char) bounds[2];
+        assertTrue(bounds[0] >= 100 && bounds[0] < bounds[1] && bounds[1] <= 9900);
+        for (int i = 100; i < 9900; i++) {
+            char c = arr[i].charAt(1);
+            if (i < bounds[0]) {
+                assertTrue(c < pivot);
+            } else if (i < bounds[1]) {
+                assertEquals(pivot, c);
+            } else {
+                assertTrue(c > pivot);
+            }
+        }
+        List<String> sorted = new ArrayList<String>(data);
+        Collections.sort(sorted);
+        List<String> actual = new ArrayList<String>(Arrays.asList(arr));
+        Collections.sort(actual);
+        assertEquals(sorted, actual);
+    }
+
+    @Test
+    public void testBytesArguments() {
+        MultikeyQuicksort.sort((byte[][]) null);
+        MultikeyQuicksort.sort(new byte[0][]);
+        byte[][] arr = Tests.toBytes(Arrays.asList("z", "m", "", "a", "d",
+                "tt", "tt", "tt", "foo", "bar"));
+        MultikeyQuicksort.sort(arr);
+        assertTrue("peculiar input not sorted", Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testBytesDictWords() {
+        try {
+            List<String> data = Tests.loadData();
+            Collections.shuffle(data);
+            byte[][] arr = Tests.toBytes(data);
+            MultikeyQuicksort.sort(arr);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testBytesUnicode() {
+        List<String> data = Tests.generateUnicodeData(10000, 20);
+        byte[][] arr = Tests.toBytes(data);
+        MultikeyQuicksort.sort(arr);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testLcp() {
+        try {
+            MultikeyQuicksort.sort(new String[]{"b", "a"}, new int[1]);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        int[] lcp = {-1};
+        MultikeyQuicksort.sort(new String[]{"a"}, lcp);
+        assertEquals(0, lcp[0]);
+        String[] arr = {"abc", "ab", "", "abd", "a", "b", "abc", ""};
+        lcp = new int[arr.length];
+        MultikeyQuicksort.sort(arr, lcp);
+        assertTrue(Tests.isSorted(arr));
+        assertTrue(Tests.isLcp(arr, lcp));
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            data.addAll(data.subList(0, 5000));
+            data.addAll(Tests.generateUnicodeData(5000, 8));
+            for (int i = 0; i < 10000; i++) {
+                data.add("");
+                data.add("aardvark");
+            }
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            lcp = new int[arr.length];
+            MultikeyQuicksort.sort(arr, lcp);
+            assertTrue(Tests.isSorted(arr));
+            assertTrue(Tests.isLcp(arr, lcp));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
 }
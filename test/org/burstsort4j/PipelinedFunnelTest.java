@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the PipelinedFunnel class.
+ *
+ * @author Nathan Fiedler
+ */
+public class PipelinedFunnelTest {
+
+    /**
+     * Divides the data into the given number of sorted runs, of random
+     * sizes (some of which may be empty), merges them, and compares the
+     * result with the sorted data.
+     *
+     * @param  data  data to be merged (will not be modified).
+     * @param  k     number of runs.
+     * @param  r     source of the run sizes.
+     */
+    private static void testMerge(List<String> data, int k, Random r) {
+        int[] cuts = new int[k + 1];
+        for (int i = 1; i < k; i++) {
+            cuts[i] = r.nextInt(data.size() + 1);
+        }
+        cuts[k] = data.size();
+        Arrays.sort(cuts);
+        List<Iterator<String>> runs = new ArrayList<Iterator<String>>();
+        for (int i = 0; i < k; i++) {
+            List<String> run = new ArrayList<String>(data.subList(cuts[i], cuts[i + 1]));
+            Collections.sort(run);
+            runs.add(run.iterator());
+        }
+        PipelinedFunnel<String> funnel = new PipelinedFunnel<String>(runs);
+        String[] results = new String[data.size()];
+        for (int i = 0; i < results.length; i++) {
+            assertTrue(funnel.hasNext());
+            results[i] = funnel.next();
+        }
+        assertFalse(funnel.hasNext());
+        String[] expected = data.toArray(new String[data.size()]);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, results);
+    }
+
+    /**
+     * Finds the left merger threads started since the given snapshot.
+     *
+     * @param  before  threads that existed before the funnel was created.
+     * @return  the left merger threads.
+     */
+    private static List<Thread> mergerThreads(Set<Thread> before) {
+        List<Thread> threads = new ArrayList<Thread>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (!before.contains(thread) && thread.getName().startsWith("PipelinedFunnel-")) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    /**
+     * Waits for the given threads to end, and asserts that they did so.
+     *
+     * @param  threads  the left merger threads.
+     * @throws  InterruptedException  if interrupted while waiting.
+     */
+    private static void assertEnded(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(10000);
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    /**
+     * Creates an input large enough to fill the buffer of its left merger.
+     *
+     * @return  iterator over the sorted input.
+     */
+    private static Iterator<Item> largeInput() {
+        List<Item> data = new ArrayList<Item>();
+        for (int i = 0; i < 100000; i++) {
+            data.add(new Item(i));
+        }
+        return data.iterator();
+    }
+
+    @Test
+    public void testEmpty() {
+        List<Iterator<String>> runs = new ArrayList<Iterator<String>>();
+        PipelinedFunnel<String> funnel = new PipelinedFunnel<String>(runs);
+        assertFalse(funnel.hasNext());
+        try {
+            funnel.next();
+            fail("should have thrown NSEE");
+        } catch (NoSuchElementException nsee) {
+            // expected
+        }
+        runs.add(Collections.<String>emptyList().iterator());
+        runs.add(Collections.<String>emptyList().iterator());
+        funnel = new PipelinedFunnel<String>(runs);
+        assertFalse(funnel.hasNext());
+    }
+
+    @Test
+    public void testDictWords() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            Random r = new Random(42);
+            for (int k : new int[]{1, 2, 3, 5, 17, 50, 200}) {
+                testMerge(data, k, r);
+            }
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeated() {
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < 50000; i++) {
+            data.add(String.valueOf(i % 13));
+        }
+        Collections.shuffle(data);
+        testMerge(data, 30, new Random(7));
+    }
+
+    @Test
+    public void testClose() {
+        // Large enough to fill the buffers between the threads.
+        List<Integer> data = new ArrayList<Integer>();
+        for (int i = 0; i < 200000; i++) {
+            data.add(i);
+        }
+        List<Iterator<Integer>> runs = new ArrayList<Iterator<Integer>>();
+        runs.add(data.iterator());
+        runs.add(data.iterator());
+        PipelinedFunnel<Integer> funnel = new PipelinedFunnel<Integer>(runs);
+        assertEquals(0, funnel.next().intValue());
+        assertEquals(0, funnel.next().intValue());
+        assertEquals(1, funnel.next().intValue());
+        funnel.close();
+        assertFalse(funnel.hasNext());
+    }
+
+    @Test
+    public void testFailure() {
+        List<Iterator<String>> runs = new ArrayList<Iterator<String>>();
+        runs.add(Arrays.asList("a", "b").iterator());
+        runs.add(new Iterator<String>() {
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public String next() {
+                throw new IllegalStateException("cannot read run");
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        });
+        PipelinedFunnel<String> funnel = new PipelinedFunnel<String>(runs);
+        try {
+            while (funnel.hasNext()) {
+                funnel.next();
+            }
+            fail("should have thrown RuntimeException");
+        } catch (RuntimeException re) {
+            assertTrue(re.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testFailureStopsMergers() throws InterruptedException {
+        // Four inputs make two groups: the first fills its buffer and
+        // waits for space, while the second fails.
+        List<Iterator<Item>> runs = new ArrayList<Iterator<Item>>();
+        runs.add(largeInput());
+        runs.add(largeInput());
+        runs.add(new Iterator<Item>() {
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Item next() {
+                throw new IllegalStateException("cannot read run");
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        });
+        runs.add(Collections.<Item>emptyList().iterator());
+        Set<Thread> before = Thread.getAllStackTraces().keySet();
+        PipelinedFunnel<Item> funnel = new PipelinedFunnel<Item>(runs);
+        // The first group cannot finish until its elements are read.
+        List<Thread> threads = mergerThreads(before);
+        assertFalse(threads.isEmpty());
+        try {
+            while (funnel.hasNext()) {
+                funnel.next();
+            }
+            fail("should have thrown RuntimeException");
+        } catch (RuntimeException re) {
+            assertTrue(re.getCause() instanceof IllegalStateException);
+        }
+        assertEnded(threads);
+    }
+
+    @Test
+    public void testCompareFailureStopsMergers() throws InterruptedException {
+        // The second group holds a single element, which its left merger
+        // never compares, but which fails when the right merger does.
+        List<Iterator<Item>> runs = new ArrayList<Iterator<Item>>();
+        runs.add(largeInput());
+        runs.add(largeInput());
+        runs.add(Arrays.asList(new Item(-1)).iterator());
+        runs.add(Collections.<Item>emptyList().iterator());
+        Set<Thread> before = Thread.getAllStackTraces().keySet();
+        PipelinedFunnel<Item> funnel = new PipelinedFunnel<Item>(runs);
+        // The first group cannot finish until its elements are read.
+        List<Thread> threads = mergerThreads(before);
+        assertFalse(threads.isEmpty());
+        try {
+            while (funnel.hasNext()) {
+                funnel.next();
+            }
+            fail("should have thrown IllegalStateException");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+        assertEnded(threads);
+    }
+
+    /**
+     * An element that cannot be compared if its value is negative.
+     */
+    private static class Item implements Comparable<Item> {
+
+        private final int value;
+
+        Item(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Item o) {
+            if (value < 0 || o.value < 0) {
+                throw new IllegalStateException("cannot compare");
+            }
+            return value < o.value ? -1 : (value == o.value ? 0 : 1);
+        }
+    }
+}
@@ -10,6 +10,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -44,6 +47,27 @@ public class RedesignedBurstsortTest {
         assertTrue("peculiar input not sorted", Tests.isSorted(arr));
     }
 
+    @Test
+    public void testStable() {
+        RedesignedBurstsort.sortStable(null);
+        RedesignedBurstsort.sortStable(new String[0]);
+        // Few distinct strings, each repeated many times, with some long
+        // enough to be held in the deeper buckets of the trie.
+        List<String> data = new ArrayList<String>();
+        for (String s : Tests.generateData(500, 3)) {
+            for (int i = 0; i < 40; i++) {
+                data.add(s);
+                data.add(s + s);
+                data.add("");
+            }
+        }
+        Collections.shuffle(data);
+        CharSequence[] original = Tests.toDistinct(data);
+        CharSequence[] arr = original.clone();
+        RedesignedBurstsort.sortStable(arr);
+        assertTrue(Tests.isStable(original, arr));
+    }
+
     @Test
     public void testDictWords() {
         try {
@@ -77,6 +101,130 @@ public class RedesignedBurstsortTest {
         }
     }
 
+    @Test
+    public void testDictWordsForkJoinPool() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                RedesignedBurstsort.sortThreadPool(arr, pool);
+            } catch (InterruptedException ie) {
+                fail(ie.toString());
+            } finally {
+                pool.shutdown();
+            }
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testDictWordsExecutor() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            try {
+                RedesignedBurstsort.sortThreadPool(arr, executor);
+            } catch (InterruptedException ie) {
+                fail(ie.toString());
+            } finally {
+                executor.shutdown();
+            }
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeatedCycleParallelism() {
+        String[] strs = new String[100];
+        String seed = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+                + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        for (int i = 0, l = 1; i < strs.length; i++, l++) {
+            strs[i] = seed.substring(0, l);
+        }
+        List<String> list = new ArrayList<String>();
+        for (int c = 1000000, i = 0; c > 0; i++, c--) {
+            list.add(strs[i % strs.length]);
+        }
+        String[] arr = list.toArray(new String[list.size()]);
+        try {
+            RedesignedBurstsort.sortThreadPool(arr, 4);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testSkewedParallelism() {
+        // One bucket holding most of the strings, which the scheduler
+        // will split into parts to be sorted in parallel.
+        List<String> data = new ArrayList<String>();
+        for (String s : Tests.generateData(8000, 16)) {
+            data.add("aaaa" + s);
+        }
+        data.addAll(Tests.generateData(1000, 20));
+        Collections.shuffle(data);
+        String[] arr = data.toArray(new String[data.size()]);
+        try {
+            RedesignedBurstsort.sortThreadPool(arr, 4);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testDictWordsTuned() {
+        try {
+            List<String> data = Tests.loadData("dictwords.gz", true);
+            Collections.shuffle(data);
+            String[] arr = data.toArray(new String[data.size()]);
+            // Small buckets, with the deeper nodes having the smaller
+            // threshold, such that bursts overfill some buckets.
+            BurstTuning tuning = new BurstTuning(new int[]{256, 64, 16}, 4, 2, 8);
+            System.out.format("\nDictionary words (tuned):\n");
+            RedesignedBurstsort.sort(arr, tuning, System.out);
+            assertTrue(Tests.isSorted(arr));
+            Collections.shuffle(data);
+            arr = data.toArray(new String[data.size()]);
+            RedesignedBurstsort.sort(arr, new BurstTuning(new int[]{64, 1024}, 16, 8, 32), null);
+            assertTrue(Tests.isSorted(arr));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testRepeatedTunedParallel() {
+        // Many empty and repeated strings, filling the null buckets
+        // with an exact multiple of the sub-bucket size.
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < 16384; i++) {
+            data.add("");
+            data.add("abc");
+        }
+        data.addAll(Tests.generateData(5000, 10));
+        Collections.shuffle(data);
+        String[] arr = data.toArray(new String[data.size()]);
+        BurstTuning.setDefault(new BurstTuning(new int[]{512, 128}, 8, 4, 64));
+        try {
+            RedesignedBurstsort.sortThreadPool(arr, 4);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        } finally {
+            BurstTuning.setDefault(BurstTuning.ORIGINAL);
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
     @Test
     public void testSorted() {
         try {
@@ -151,6 +299,23 @@ public class RedesignedBurstsortTest {
         assertTrue(Tests.isSorted(arr));
     }
 
+    @Test
+    public void testShortParallel() {
+        // Many empty and single character strings, along with a few
+        // longer ones, to exercise each group in the parallel insert.
+        String[] strs = new String[]{"", "A", "", "AB", "B", "A", "", "ABC", "C", "A"};
+        String[] arr = new String[100000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = strs[i % strs.length];
+        }
+        try {
+            RedesignedBurstsort.sortThreadPool(arr);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
     @Test
     public void testRepeatedCycleParallel() {
         String[] strs = new String[100];
@@ -181,6 +346,28 @@ public class RedesignedBurstsortTest {
         assertTrue(Tests.isSorted(arr));
     }
 
+    @Test
+    public void testUnicode() {
+        // Enough strings over a small alphabet to burst many buckets.
+        List<String> data = Tests.generateUnicodeData(500000, 20);
+        String[] arr = data.toArray(new String[data.size()]);
+        System.out.format("\nUnicode strings:\n");
+        RedesignedBurstsort.sort(arr, System.out);
+        assertTrue(Tests.isSorted(arr));
+    }
+
+    @Test
+    public void testUnicodeParallel() {
+        List<String> data = Tests.generateUnicodeData(500000, 20);
+        String[] arr = data.toArray(new String[data.size()]);
+        try {
+            RedesignedBurstsort.sortThreadPool(arr);
+        } catch (InterruptedException ie) {
+            fail(ie.toString());
+        }
+        assertTrue(Tests.isSorted(arr));
+    }
+
     @Test
     public void testHamlet() {
         try {
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 Nathan Fiedler. All rights reserved.
+ * Use of this source code is governed by a BSD-style
+ * license that can be found in the LICENSE file.
+ */
+package org.burstsort4j;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the SuffixSorter class.
+ *
+ * @author Nathan Fiedler
+ */
+public class SuffixSorterTest {
+
+    /**
+     * Computes the suffix array by comparing the suffixes as strings.
+     *
+     * @param  text  the text.
+     * @return  the suffix array.
+     */
+    private static int[] naive(final String text) {
+        Integer[] offsets = new Integer[text.length()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = i;
+        }
+        Arrays.sort(offsets, new Comparator<Integer>() {
+
+            @Override
+            public int compare(Integer a, Integer b) {
+                return text.substring(a).compareTo(text.substring(b));
+            }
+        });
+        int[] sa = new int[offsets.length];
+        for (int i = 0; i < sa.length; i++) {
+            sa[i] = offsets[i];
+        }
+        return sa;
+    }
+
+    /**
+     * Generates random text from the given alphabet.
+     *
+     * @param  n         length of the text.
+     * @param  alphabet  characters from which to choose.
+     * @return  the text.
+     */
+    private static String random(int n, String alphabet) {
+        Random r = new Random(n);
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append(alphabet.charAt(r.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testArguments() {
+        assertNull(SuffixSorter.sort(null));
+        assertEquals(0, SuffixSorter.sort("").length);
+        assertArrayEquals(new int[]{0}, SuffixSorter.sort("a"));
+        try {
+            SuffixSorter.sort("ab\u0000c");
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+        try {
+            SuffixSorter.bwt("abc", new int[3], new char[2]);
+            fail("should have thrown IAE");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSmall() {
+        assertArrayEquals(new int[]{5, 3, 1, 0, 4, 2}, SuffixSorter.sort("banana"));
+        String[] texts = {
+            "ab", "ba", "aa", "mississippi", "abracadabra",
+            random(2000, "ab"), random(2000, "acgt"), random(2000, "abcdefghijklmnopqrstuvwxyz "),
+            random(500, "Ā一𐀀￿")
+        };
+        for (String text : texts) {
+            assertArrayEquals(naive(text), SuffixSorter.sort(text));
+        }
+    }
+
+    @Test
+    public void testRepetitive() {
+        // Periods both shorter and longer than the depth of the string sort.
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 3000) {
+            sb.append("abc");
+        }
+        String text = sb.toString();
+        assertArrayEquals(naive(text), SuffixSorter.sort(text));
+        text = random(50, "ab");
+        sb.setLength(0);
+        while (sb.length() < 3000) {
+            sb.append(text);
+        }
+        sb.append('a');
+        text = sb.toString();
+        assertArrayEquals(naive(text), SuffixSorter.sort(text));
+
+        // A long run of one character, which a string sort alone would
+        // handle in quadratic time.
+        int n = 200000;
+        char[] chars = new char[n];
+        Arrays.fill(chars, 'A');
+        int[] sa = SuffixSorter.sort(new String(chars));
+        for (int i = 0; i < n; i++) {
+            assertEquals(n - 1 - i, sa[i]);
+        }
+    }
+
+    @Test
+    public void testHamlet() {
+        try {
+            List<String> data = Tests.loadData("hamletwords");
+            StringBuilder sb = new StringBuilder();
+            for (String word : data) {
+                if (sb.length() > 5000) {
+                    break;
+                }
+                sb.append(word).append(' ');
+            }
+            String text = sb.toString();
+            assertArrayEquals(naive(text), SuffixSorter.sort(text));
+        } catch (IOException ioe) {
+            fail(ioe.toString());
+        }
+    }
+
+    @Test
+    public void testBwt() {
+        char[] out = new char[6];
+        int primary = SuffixSorter.bwt("banana", SuffixSorter.sort("banana"), out);
+        assertEquals("annbaa", new String(out));
+        assertEquals(4, primary);
+        assertEquals(0, SuffixSorter.bwt("", new int[0], new char[0]));
+
+        // Compare with the last column of the sorted rotations of the
+        // text with an end marker, less the marker itself.
+        String text = random(1000, "acgt");
+        String marked = text + '\u0000';
+        int[] rotations = naive(marked);
+        StringBuilder expected = new StringBuilder();
+        int row = -1;
+        for (int i = 0; i < rotations.length; i++) {
+            int p = rotations[i];
+            char c = marked.charAt(p == 0 ? marked.length() - 1 : p - 1);
+            if (c == 0) {
+                row = i;
+            } else {
+                expected.append(c);
+            }
+        }
+        out = new char[text.length()];
+        primary = SuffixSorter.bwt(text, SuffixSorter.sort(text), out);
+        assertEquals(expected.toString(), new String(out));
+        assertEquals(row, primary);
+    }
+}
@@ -9,8 +9,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.zip.GZIPInputStream;
 
@@ -56,6 +60,34 @@ public class Tests {
         return list;
     }
 
+    /**
+     * Generates a set of <em>n</em> strings in a List consisting of up to
+     * <em>l</em> randomly selected characters, drawn from a small alphabet
+     * that spans the Latin-1, Greek, CJK and surrogate ranges of UTF-16.
+     *
+     * @param  n  number of random strings to generate.
+     * @param  l  maximum length of each random string.
+     * @return  the list of randomly generated strings.
+     */
+    public static List<String> generateUnicodeData(int n, int l) {
+        final char[] alphabet = {
+            'a', 'b', 'z', '\u00e9', '\u00ff', '\u0100', '\u03a9',
+            '\u4e2d', '\u6587', '\ud83d', '\ude00', '\uff5e', '\uffff'
+        };
+        Random r = new Random();
+        List<String> list = new ArrayList<String>();
+        StringBuilder sb = new StringBuilder();
+        for (int ii = 0; ii < n; ii++) {
+            int length = r.nextInt(l) + 1;
+            for (int jj = 0; jj < length; jj++) {
+                sb.append(alphabet[r.nextInt(alphabet.length)]);
+            }
+            list.add(sb.toString());
+            sb.setLength(0);
+        }
+        return list;
+    }
+
     /**
      * Loads the default test data into a list.
      *
@@ -155,4 +187,172 @@ public class Tests {
         }
         return true;
     }
+
+    /**
+     * Tests if the given array of strings is in sorted order, according
+     * to the given order of the characters.
+     *
+     * @param  arr    array of strings to test.
+     * @param  order  the order of the characters.
+     * @return  true if sorted, false otherwise.
+     */
+    public static boolean isSorted(String[] arr, CharOrder order) {
+        for (int ii = 1; ii < arr.length; ii++) {
+            if (order.compare(arr[ii - 1], arr[ii]) > 0) {
+                System.err.format("%s > %s @ %d\n", arr[ii - 1], arr[ii], ii);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the character orders that the sorts are tested with.
+     *
+     * @return  list of character orders.
+     */
+    public static List<CharOrder> charOrders() {
+        CharOrder alphabet = CharOrder.forAlphabet("zyxwvutsrqponmlkjihgfedcba");
+        return Arrays.asList(CharOrder.NATURAL.reversed(),
+                CharOrder.CASE_INSENSITIVE, CharOrder.CASE_INSENSITIVE.reversed(),
+                alphabet, alphabet.reversed());
+    }
+
+    /**
+     * Tests if the given indices are a permutation of the strings that
+     * puts them in sorted order.
+     *
+     * @param  arr      array of strings, in their original order.
+     * @param  indices  permutation to test.
+     * @return  true if sorted, false otherwise.
+     */
+    public static boolean isSorted(String[] arr, int[] indices) {
+        if (indices.length != arr.length) {
+            System.err.format("%d indices for %d strings\n", indices.length, arr.length);
+            return false;
+        }
+        boolean[] seen = new boolean[arr.length];
+        String[] sorted = new String[arr.length];
+        for (int ii = 0; ii < indices.length; ii++) {
+            if (seen[indices[ii]]) {
+                System.err.format("index %d repeated @ %d\n", indices[ii], ii);
+                return false;
+            }
+            seen[indices[ii]] = true;
+            sorted[ii] = arr[indices[ii]];
+        }
+        return isSorted(sorted);
+    }
+
+    /**
+     * Creates a distinct character sequence for each of the strings, such
+     * that equal strings may be told apart when testing for stability.
+     *
+     * @param  list  strings to be copied.
+     * @return  array of distinct character sequences.
+     */
+    public static CharSequence[] toDistinct(List<String> list) {
+        CharSequence[] arr = new CharSequence[list.size()];
+        for (int ii = 0; ii < arr.length; ii++) {
+            arr[ii] = new StringBuilder(list.get(ii));
+        }
+        return arr;
+    }
+
+    /**
+     * Tests if the sorted character sequences are in order, with the
+     * equal sequences in the same order as they appear in the original.
+     *
+     * @param  original  the sequences before sorting.
+     * @param  sorted    the sequences after sorting.
+     * @return  true if sorted and stable, false otherwise.
+     */
+    public static boolean isStable(CharSequence[] original, CharSequence[] sorted) {
+        Map<CharSequence, Integer> positions = new IdentityHashMap<CharSequence, Integer>();
+        for (int ii = 0; ii < original.length; ii++) {
+            positions.put(original[ii], ii);
+        }
+        for (int ii = 1; ii < sorted.length; ii++) {
+            int cmp = sorted[ii - 1].toString().compareTo(sorted[ii].toString());
+            if (cmp > 0) {
+                System.err.format("%s > %s @ %d\n", sorted[ii - 1], sorted[ii], ii);
+                return false;
+            }
+            if (cmp == 0 && positions.get(sorted[ii - 1]) > positions.get(sorted[ii])) {
+                System.err.format("%s out of input order @ %d\n", sorted[ii], ii);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes each of the strings in the list as UTF-8.
+     *
+     * @param  list  strings to be encoded.
+     * @return  array of UTF-8 encoded strings.
+     */
+    public static byte[][] toBytes(List<String> list) {
+        Charset utf8 = Charset.forName("UTF-8");
+        byte[][] keys = new byte[list.size()][];
+        for (int ii = 0; ii < keys.length; ii++) {
+            keys[ii] = list.get(ii).getBytes(utf8);
+        }
+        return keys;
+    }
+
+    /**
+     * Tests if the given array of byte keys is in sorted order, comparing
+     * the bytes as unsigned values.
+     *
+     * @param  arr  array of keys to test.
+     * @return  true if sorted, false otherwise.
+     */
+    public static boolean isSorted(byte[][] arr) {
+        for (int ii = 1; ii < arr.length; ii++) {
+            byte[] a = arr[ii - 1];
+            byte[] b = arr[ii];
+            int n = Math.min(a.length, b.length);
+            int cmp = a.length - b.length;
+            for (int jj = 0; jj < n; jj++) {
+                int d = (a[jj] & 0xff) - (b[jj] & 0xff);
+                if (d != 0) {
+                    cmp = d;
+                    break;
+                }
+            }
+            if (cmp > 0) {
+                System.err.format("%s > %s @ %d\n", Arrays.toString(a),
+                        Arrays.toString(b), ii);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests if the given array holds the length of the longest common
+     * prefix of each string with its predecessor, and zero for the first.
+     *
+     * @param  arr  sorted array of strings.
+     * @param  lcp  the prefix lengths to check.
+     * @return  true if the lengths are correct, false otherwise.
+     */
+    public static boolean isLcp(String[] arr, int[] lcp) {
+        if (arr.length > 0 && lcp[0] != 0) {
+            return false;
+        }
+        for (int i = 1; i < arr.length; i++) {
+            String a = arr[i - 1];
+            String b = arr[i];
+            int h = 0;
+            while (h < a.length() && h < b.length() && a.charAt(h) == b.charAt(h)) {
+                h++;
+            }
+            if (lcp[i] != h) {
+                return false;
+            }
+        }
+        return true;
+    }
 }